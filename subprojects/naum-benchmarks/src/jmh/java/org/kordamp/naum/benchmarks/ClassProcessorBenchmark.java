@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.kordamp.naum.processor.ClassProcessor;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classes parsed per second, over class files of the running JDK.
+ *
+ * @author Andres Almiray
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClassProcessorBenchmark {
+    private static final int CLASSES = 4096;
+
+    private List<byte[]> classes;
+
+    @Setup
+    public void setUp() throws IOException {
+        classes = Fixtures.jdkClasses(CLASSES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASSES)
+    public void parse(Blackhole blackhole) {
+        int size = classes.size();
+        for (int i = 0; i < CLASSES; i++) {
+            ClassProcessor processor = new ClassProcessor();
+            new ClassReader(classes.get(i % size)).accept(processor, Fixtures.PARSING_OPTIONS);
+            blackhole.consume(processor.getClasses());
+        }
+    }
+}
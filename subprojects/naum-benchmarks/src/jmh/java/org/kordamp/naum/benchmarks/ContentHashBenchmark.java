@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.kordamp.naum.model.AnnotatedInfo;
+import org.kordamp.naum.model.AnnotationInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.ContentHash;
+import org.kordamp.naum.model.FieldInfo;
+import org.kordamp.naum.model.InnerClassInfo;
+import org.kordamp.naum.model.MethodInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
+import static org.objectweb.asm.Opcodes.ACC_ANNOTATION;
+import static org.objectweb.asm.Opcodes.ACC_ENUM;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
+import static org.objectweb.asm.Opcodes.ACC_SYNCHRONIZED;
+
+/**
+ * Content hashing of a small and a huge JDK class. Parsed classes are frozen and already carry
+ * their hashes, hence every uncached call hashes a fresh, unfrozen copy of the class and all of its
+ * members. Nested annotation values are shared with the parsed class.
+ * <p>
+ * A copy keeps its hash once computed, so copies are made ahead of each iteration and every
+ * uncached iteration is a single batch of {@value #BATCH} calls, one per copy. Its score is the
+ * time of the whole batch.
+ *
+ * @author Andres Almiray
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentHashBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"java.util.AbstractSequentialList", "java.lang.Character"})
+    private String type;
+
+    private ClassInfo klass;
+    private ClassInfo[] copies;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        klass = Fixtures.parse(Fixtures.jdkClass(type));
+        if (!copy(klass).getContentHash().equals(klass.getContentHash())) {
+            throw new IllegalStateException("A copy of " + type + " does not hash like the original");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void copy() {
+        copies = new ClassInfo[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            copies[i] = copy(klass);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public ContentHash cached() {
+        return klass.getContentHash();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(batchSize = BATCH)
+    @Measurement(batchSize = BATCH)
+    public ContentHash uncached() {
+        return copies[next++].getContentHash();
+    }
+
+    private static ClassInfo copy(ClassInfo klass) {
+        // puts back the flags ClassInfo folds into its type
+        int modifiers = klass.getModifiers();
+        if (klass.isEnum()) {
+            modifiers += ACC_ENUM + ACC_FINAL + ACC_SYNCHRONIZED;
+        } else if (klass.isAnnotation()) {
+            modifiers += ACC_INTERFACE + ACC_ABSTRACT + ACC_ANNOTATION;
+        } else if (klass.isInterface()) {
+            modifiers += ACC_INTERFACE + ACC_ABSTRACT;
+        }
+
+        ClassInfo copy = copyAnnotations(klass, ClassInfo.classInfo()
+            .name(klass.getName())
+            .version(klass.getVersion())
+            .modifiers(modifiers)
+            .typeParameters(klass.getTypeParameters())
+            .superclass(klass.getSuperclass())
+            .interfaces(klass.getInterfaces())
+            .build());
+        for (FieldInfo field : klass.getFields()) {
+            copy.addToFields(copyAnnotations(field, FieldInfo.fieldInfo()
+                .name(field.getName())
+                .modifiers(field.getModifiers())
+                .type(field.getType())
+                .value(field.getValue())
+                .descriptor(field.getDescriptor())
+                .build()));
+        }
+        for (ConstructorInfo constructor : klass.getConstructors()) {
+            copy.addToConstructors(copyAnnotations(constructor, ConstructorInfo.constructorInfo()
+                .modifiers(constructor.getModifiers())
+                .argumentTypes(constructor.getArgumentTypes())
+                .exceptions(constructor.getExceptions())
+                .descriptor(constructor.getDescriptor())
+                .build()));
+        }
+        for (MethodInfo method : klass.getMethods()) {
+            copy.addToMethods(copyAnnotations(method, MethodInfo.methodInfo()
+                .name(method.getName())
+                .modifiers(method.getModifiers())
+                .genericTypes(method.getGenericTypes())
+                .returnType(method.getReturnType())
+                .argumentTypes(method.getArgumentTypes())
+                .exceptions(method.getExceptions())
+                .descriptor(method.getDescriptor())
+                .build()));
+        }
+        for (InnerClassInfo innerClass : klass.getClasses()) {
+            copy.addToClasses(InnerClassInfo.innerClassInfo()
+                .name(innerClass.getName())
+                .modifiers(innerClass.getModifiers())
+                .build());
+        }
+        return copy;
+    }
+
+    private static <S extends AnnotatedInfo<S>> S copyAnnotations(AnnotatedInfo<?> source, S target) {
+        for (AnnotationInfo annotation : source.getAnnotations()) {
+            target.addToAnnotations(AnnotationInfo.annotationInfo()
+                .name(annotation.getName())
+                .annotationValues(annotation.getValues())
+                .build());
+        }
+        return target;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.kordamp.naum.diff.AnnotationDiffer;
+import org.kordamp.naum.diff.ClassDiffer;
+import org.kordamp.naum.diff.ConstructorDiffer;
+import org.kordamp.naum.diff.FieldDiffer;
+import org.kordamp.naum.diff.MethodDiffer;
+import org.kordamp.naum.model.AnnotationInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.FieldInfo;
+import org.kordamp.naum.model.MemberInfo;
+import org.kordamp.naum.model.MethodInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each differ over a small and a huge JDK class, compared against a changed version of itself.
+ * Member differs run over every member pair of the class.
+ *
+ * @author Andres Almiray
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DifferBenchmark {
+    @Param({"java.util.AbstractSequentialList", "java.lang.Character"})
+    private String type;
+
+    private ClassInfo previous;
+    private ClassInfo next;
+    private List<FieldInfo> previousFields;
+    private List<FieldInfo> nextFields;
+    private List<ConstructorInfo> previousConstructors;
+    private List<ConstructorInfo> nextConstructors;
+    private List<MethodInfo> previousMethods;
+    private List<MethodInfo> nextMethods;
+    private final List<AnnotationInfo> previousAnnotations = new ArrayList<>();
+    private final List<AnnotationInfo> nextAnnotations = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] bytes = Fixtures.jdkClass(type);
+        previous = Fixtures.parse(Fixtures.variant(bytes, false));
+        next = Fixtures.parse(Fixtures.variant(bytes, true));
+
+        // variants keep every member, so members pair up by position
+        previousFields = previous.getFields();
+        nextFields = next.getFields();
+        previousConstructors = previous.getConstructors();
+        nextConstructors = next.getConstructors();
+        previousMethods = previous.getMethods();
+        nextMethods = next.getMethods();
+        addAnnotations(previousFields, nextFields);
+        addAnnotations(previousConstructors, nextConstructors);
+        addAnnotations(previousMethods, nextMethods);
+    }
+
+    private void addAnnotations(List<? extends MemberInfo<?>> previousMembers, List<? extends MemberInfo<?>> nextMembers) {
+        for (int i = 0; i < previousMembers.size(); i++) {
+            List<AnnotationInfo> p = previousMembers.get(i).getAnnotations();
+            List<AnnotationInfo> n = nextMembers.get(i).getAnnotations();
+            for (int j = 0; j < p.size() && j < n.size(); j++) {
+                if (p.get(j).getName().equals(n.get(j).getName())) {
+                    previousAnnotations.add(p.get(j));
+                    nextAnnotations.add(n.get(j));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void classDiffer(Blackhole blackhole) {
+        ClassDiffer.classDiffer(previous, next).diff(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fieldDiffer(Blackhole blackhole) {
+        for (int i = 0; i < previousFields.size(); i++) {
+            FieldDiffer.fieldDiffer(previous.getName(), previousFields.get(i), nextFields.get(i)).diff(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void constructorDiffer(Blackhole blackhole) {
+        for (int i = 0; i < previousConstructors.size(); i++) {
+            ConstructorDiffer.constructorDiffer(previous.getName(), previousConstructors.get(i), nextConstructors.get(i)).diff(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void methodDiffer(Blackhole blackhole) {
+        for (int i = 0; i < previousMethods.size(); i++) {
+            MethodDiffer.methodDiffer(previous.getName(), previousMethods.get(i), nextMethods.get(i)).diff(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void annotationDiffer(Blackhole blackhole) {
+        for (int i = 0; i < previousAnnotations.size(); i++) {
+            AnnotationDiffer.annotationDiffer(previousAnnotations.get(i), nextAnnotations.get(i)).diff(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.processor.ClassProcessor;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Class files shared by the benchmarks. They come from the running JDK so that no fixtures need
+ * to be checked in. ASM 5 refuses class files newer than Java 8, so newer ones are relabelled as
+ * Java 8 and dropped if they still cannot be read.
+ *
+ * @author Andres Almiray
+ */
+public final class Fixtures {
+    public static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private static final String TAG = "Lorg/kordamp/naum/benchmarks/Tag;";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final int JAVA_8 = 52;
+
+    private Fixtures() {
+
+    }
+
+    /**
+     * Reads up to {@code count} class files of the running JDK, always in the same order.
+     */
+    public static List<byte[]> jdkClasses(int count) throws IOException {
+        Path rtJar = Paths.get(System.getProperty("java.home"), "lib", "rt.jar");
+        if (Files.isRegularFile(rtJar)) {
+            try (FileSystem fs = FileSystems.newFileSystem(rtJar, (ClassLoader) null)) {
+                return read(fs.getPath("/"), count);
+            }
+        }
+        return read(FileSystems.getFileSystem(URI.create("jrt:/")).getPath("/modules/java.base"), count);
+    }
+
+    public static byte[] jdkClass(String className) throws IOException {
+        try (InputStream in = ClassLoader.getSystemResourceAsStream(className.replace('.', '/') + CLASS_SUFFIX)) {
+            if (in == null) {
+                throw new IOException("Class " + className + " not found");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, read);
+            }
+            byte[] bytes = readable(out.toByteArray());
+            if (bytes == null) {
+                throw new IOException("Class " + className + " cannot be read by ASM");
+            }
+            return bytes;
+        }
+    }
+
+    public static ClassInfo parse(byte[] bytes) {
+        ClassProcessor processor = new ClassProcessor();
+        new ClassReader(bytes).accept(processor, PARSING_OPTIONS);
+        return processor.getClasses().get(0);
+    }
+
+    /**
+     * Rewrites a class into one of two versions. Every member carries an annotation; the changed
+     * version bumps it on every other member and alters the modifiers and exceptions of every
+     * fourth one, so each differ has work to do.
+     */
+    public static byte[] variant(byte[] bytes, boolean changed) {
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM5, writer) {
+            private int members;
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+                int member = members++;
+                int modifiers = changed && member % 4 == 0 ? access ^ Opcodes.ACC_TRANSIENT : access;
+                FieldVisitor visitor = super.visitField(modifiers, name, desc, signature, value);
+                tag(visitor.visitAnnotation(TAG, true), name, member);
+                return visitor;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                int member = members++;
+                int modifiers = access;
+                String[] thrown = exceptions;
+                if (changed && member % 4 == 0) {
+                    modifiers = "<init>".equals(name) ? access : access ^ Opcodes.ACC_FINAL;
+                    thrown = exceptions == null ? new String[1] : Arrays.copyOf(exceptions, exceptions.length + 1);
+                    thrown[thrown.length - 1] = "java/lang/IllegalStateException";
+                }
+                MethodVisitor visitor = super.visitMethod(modifiers, name, desc, signature, thrown);
+                tag(visitor.visitAnnotation(TAG, true), name, member);
+                return visitor;
+            }
+
+            private void tag(AnnotationVisitor visitor, String name, int member) {
+                visitor.visit("member", name);
+                visitor.visit("version", changed && member % 2 == 0 ? 2 : 1);
+                if (changed && member % 8 == 0) {
+                    visitor.visit("since", "2.0");
+                }
+                visitor.visitEnd();
+            }
+        }, ClassReader.SKIP_CODE);
+        return writer.toByteArray();
+    }
+
+    private static List<byte[]> read(Path root, int count) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths
+                .filter(Fixtures::isClassFile)
+                .sorted()
+                .limit(count)
+                .collect(toList());
+        }
+
+        List<byte[]> classes = new ArrayList<>(files.size());
+        for (Path file : files) {
+            byte[] bytes = readable(Files.readAllBytes(file));
+            if (bytes != null) {
+                classes.add(bytes);
+            }
+        }
+        return classes;
+    }
+
+    private static byte[] readable(byte[] bytes) {
+        int major = (bytes[6] & 0xff) << 8 | bytes[7] & 0xff;
+        if (major > JAVA_8) {
+            bytes[6] = 0;
+            bytes[7] = JAVA_8;
+        }
+        try {
+            new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM5) {
+            }, PARSING_OPTIONS);
+            return bytes;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isClassFile(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toString();
+        return name.endsWith(CLASS_SUFFIX) && !name.equals("module-info.class") && !name.equals("package-info.class");
+    }
+}
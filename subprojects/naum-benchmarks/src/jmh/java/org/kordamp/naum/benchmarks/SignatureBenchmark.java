@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.kordamp.naum.processor.CustomTraceSignatureVisitor;
+import org.kordamp.naum.processor.SignatureCache;
+import org.kordamp.naum.processor.SignatureDecoder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generic signatures decoded per second, by the ASM visitor, the inlined decoder and the cache
+ * in front of it. Signatures are collected from class files of the running JDK.
+ *
+ * @author Andres Almiray
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SignatureBenchmark {
+    private static final int SIGNATURES = 4096;
+
+    private final List<String> signatures = new ArrayList<>();
+    private SignatureCache cache;
+
+    @Setup
+    public void setUp() throws IOException {
+        ClassVisitor collector = new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                add(signature);
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+                add(signature);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                add(signature);
+                return null;
+            }
+
+            private void add(String signature) {
+                if (signature != null && signatures.size() < SIGNATURES) {
+                    signatures.add(signature);
+                }
+            }
+        };
+
+        for (byte[] bytes : Fixtures.jdkClasses(Integer.MAX_VALUE)) {
+            new ClassReader(bytes).accept(collector, Fixtures.PARSING_OPTIONS);
+            if (signatures.size() == SIGNATURES) {
+                break;
+            }
+        }
+        cache = new SignatureCache(SignatureCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public void traceVisitor(Blackhole blackhole) {
+        int size = signatures.size();
+        for (int i = 0; i < SIGNATURES; i++) {
+            CustomTraceSignatureVisitor visitor = new CustomTraceSignatureVisitor(0);
+            new SignatureReader(signatures.get(i % size)).accept(visitor);
+            blackhole.consume(visitor.getDeclaration());
+            blackhole.consume(visitor.getReturnType());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public void decoder(Blackhole blackhole) {
+        int size = signatures.size();
+        for (int i = 0; i < SIGNATURES; i++) {
+            blackhole.consume(SignatureDecoder.decode(signatures.get(i % size)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public void cache(Blackhole blackhole) {
+        int size = signatures.size();
+        for (int i = 0; i < SIGNATURES; i++) {
+            blackhole.consume(cache.decode(signatures.get(i % size)));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import lombok.Data;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a pair of synthetic jars, previous and next, for scale and stress testing. Every class
+ * draws its shape from a random generator seeded with the corpus seed and its own index, and both
+ * versions make the same draws, so a given configuration always produces the same bytes no matter
+ * how many classes are written. Each member is changed in the next version with probability
+ * {@code changedFraction}: removed, made protected, retyped, given an extra exception or final
+ * modifier, re-annotated, or joined by a new sibling.
+ * <pre>
+ * CorpusGenerator &lt;previous.jar&gt; &lt;next.jar&gt; [classes=N] [members=N] [genericDepth=N]
+ *     [annotationDensity=F] [changedFraction=F] [seed=N]
+ * </pre>
+ *
+ * @author Andres Almiray
+ */
+@Data(staticConstructor = "corpusGenerator")
+public class CorpusGenerator {
+    private static final int CLASSES_PER_PACKAGE = 1000;
+    // zip entries store local time, so pin the local time rather than the instant
+    private static final long ENTRY_TIME = LocalDateTime.of(2000, 1, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final String OBJECT = "java/lang/Object";
+    private static final String LIST = "java/util/List";
+    private static final String COLLECTION = "java/util/Collection";
+    private static final String MAP = "java/util/Map";
+    private static final String MARKER = "Lcorpus/Marker;";
+    private static final String DEPRECATED = "Ljava/lang/Deprecated;";
+    private static final String EXCEPTION = "java/lang/IllegalStateException";
+
+    private static final int REMOVE = 0;
+    private static final int MODIFIERS = 1;
+    private static final int TYPE = 2;
+    private static final int EXTRA_MODIFIER = 3;
+    private static final int ANNOTATION = 4;
+    private static final int SIBLING = 5;
+    private static final int CHANGES = 6;
+
+    private int classes = 1000;
+    private int members = 20;
+    private int genericDepth = 1;
+    private double annotationDensity = 0.25;
+    private double changedFraction = 0.05;
+    private long seed = 42;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CorpusGenerator <previous.jar> <next.jar> [classes=N] [members=N] [genericDepth=N] [annotationDensity=F] [changedFraction=F] [seed=N]");
+            System.exit(2);
+        }
+
+        CorpusGenerator generator = corpusGenerator();
+        for (int i = 2; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            String name = eq < 0 ? args[i] : args[i].substring(0, eq);
+            String value = eq < 0 ? "" : args[i].substring(eq + 1);
+            switch (name) {
+                case "classes":
+                    generator.setClasses(Integer.parseInt(value));
+                    break;
+                case "members":
+                    generator.setMembers(Integer.parseInt(value));
+                    break;
+                case "genericDepth":
+                    generator.setGenericDepth(Integer.parseInt(value));
+                    break;
+                case "annotationDensity":
+                    generator.setAnnotationDensity(Double.parseDouble(value));
+                    break;
+                case "changedFraction":
+                    generator.setChangedFraction(Double.parseDouble(value));
+                    break;
+                case "seed":
+                    generator.setSeed(Long.parseLong(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+
+        long start = System.nanoTime();
+        generator.write(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Wrote " + generator.getClasses() + " classes to " + args[0] + " and " + args[1] +
+            " in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Writes both versions in a single pass, holding one class at a time in memory.
+     */
+    public void write(@Nonnull Path previous, @Nonnull Path next) throws IOException {
+        requireNonNull(previous, "Argument 'previous' must not be null");
+        requireNonNull(next, "Argument 'next' must not be null");
+        if (classes < 0 || members < 0 || genericDepth < 0) {
+            throw new IllegalArgumentException("Number of classes, members and generic depth must not be negative");
+        }
+
+        try (ZipOutputStream p = open(previous); ZipOutputStream n = open(next)) {
+            for (int index = 0; index < classes; index++) {
+                String entry = className(index) + ".class";
+                write(p, entry, generate(index, false));
+                write(n, entry, generate(index, true));
+            }
+        }
+    }
+
+    /**
+     * The class file of the class at the given index, in its previous or next version.
+     */
+    public byte[] generate(int index, boolean nextVersion) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        String name = className(index);
+        String superclass = index > 0 && random.nextInt(4) == 0 ? className(random.nextInt(index)) : OBJECT;
+        boolean generic = genericDepth > 0;
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name,
+            generic ? "<T:Ljava/lang/Object;>L" + superclass + ";" : null, superclass, null);
+        if (random.nextDouble() < annotationDensity) {
+            annotate(writer.visitAnnotation(MARKER, true), index, false);
+        }
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superclass, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        for (int member = 0; member < members; member++) {
+            // draw everything for both versions so that the sequence never diverges
+            boolean annotated = random.nextDouble() < annotationDensity;
+            boolean changed = random.nextDouble() < changedFraction;
+            int change = random.nextInt(CHANGES);
+            int kind = nextVersion && changed ? change : -1;
+            if (kind == REMOVE) {
+                continue;
+            }
+            if (member % 2 == 0) {
+                method(writer, "m" + member, kind, annotated, member);
+                if (kind == SIBLING) {
+                    method(writer, "m" + member + "x", -1, false, member);
+                }
+            } else {
+                field(writer, "f" + member, kind, annotated, member);
+                if (kind == SIBLING) {
+                    field(writer, "f" + member + "x", -1, false, member);
+                }
+            }
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private void method(ClassWriter writer, String name, int kind, boolean annotated, int member) {
+        int access = kind == MODIFIERS ? Opcodes.ACC_PROTECTED : Opcodes.ACC_PUBLIC;
+        String container = kind == TYPE ? COLLECTION : LIST;
+        String desc = "(L" + MAP + ";I)L" + container + ";";
+        String signature = genericDepth > 0 ? "(L" + MAP + "<Ljava/lang/String;" + nested(LIST) + ">;I)" + nested(container) : null;
+        String[] exceptions = kind == EXTRA_MODIFIER ? new String[]{EXCEPTION} : null;
+
+        MethodVisitor visitor = writer.visitMethod(access, name, desc, signature, exceptions);
+        if (annotated || kind == ANNOTATION) {
+            annotate(visitor.visitAnnotation(MARKER, true), member, kind == ANNOTATION);
+            if (member % 3 == 0) {
+                visitor.visitAnnotation(DEPRECATED, true).visitEnd();
+            }
+        }
+        visitor.visitCode();
+        visitor.visitInsn(Opcodes.ACONST_NULL);
+        visitor.visitInsn(Opcodes.ARETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private void field(ClassWriter writer, String name, int kind, boolean annotated, int member) {
+        int access = kind == MODIFIERS ? Opcodes.ACC_PROTECTED : Opcodes.ACC_PUBLIC;
+        if (kind == EXTRA_MODIFIER) {
+            access |= Opcodes.ACC_FINAL;
+        }
+        String container = kind == TYPE ? COLLECTION : LIST;
+        String signature = genericDepth > 0 ? nested(container) : null;
+
+        FieldVisitor visitor = writer.visitField(access, name, "L" + container + ";", signature, null);
+        if (annotated || kind == ANNOTATION) {
+            annotate(visitor.visitAnnotation(MARKER, true), member, kind == ANNOTATION);
+        }
+        visitor.visitEnd();
+    }
+
+    private static void annotate(AnnotationVisitor visitor, int value, boolean changed) {
+        visitor.visit("value", changed ? value + 1 : value);
+        visitor.visitEnum("level", "Lcorpus/Level;", changed ? "HIGH" : "LOW");
+        visitor.visitEnd();
+    }
+
+    /**
+     * A container type with {@code genericDepth} levels of type arguments, innermost the class
+     * type parameter.
+     */
+    private String nested(String container) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < genericDepth; i++) {
+            b.append('L').append(i == 0 ? container : LIST).append('<');
+        }
+        b.append("TT;");
+        for (int i = 0; i < genericDepth; i++) {
+            b.append(">;");
+        }
+        return b.toString();
+    }
+
+    private static String className(int index) {
+        return "corpus/p" + index / CLASSES_PER_PACKAGE + "/C" + index;
+    }
+
+    private static ZipOutputStream open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        out.setLevel(Deflater.BEST_SPEED);
+        return out;
+    }
+
+    private static void write(ZipOutputStream out, String name, byte[] bytes) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(ENTRY_TIME);
+        out.putNextEntry(entry);
+        out.write(bytes);
+        out.closeEntry();
+    }
+}
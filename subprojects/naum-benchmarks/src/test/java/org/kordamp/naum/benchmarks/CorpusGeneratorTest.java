@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.benchmarks;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.diff.ArtifactDiffer;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.scanner.ArchiveScanner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * @author Andres Almiray
+ */
+public class CorpusGeneratorTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void sameConfigurationWritesSameBytes() throws Exception {
+        Path first = temporaryFolder.newFolder("first").toPath();
+        Path second = temporaryFolder.newFolder("second").toPath();
+        CorpusGenerator generator = CorpusGenerator.corpusGenerator();
+        generator.setClasses(50);
+        generator.setGenericDepth(3);
+
+        generator.write(first.resolve("previous.jar"), first.resolve("next.jar"));
+        generator.write(second.resolve("previous.jar"), second.resolve("next.jar"));
+
+        assertThat(Files.readAllBytes(first.resolve("previous.jar")), equalTo(Files.readAllBytes(second.resolve("previous.jar"))));
+        assertThat(Files.readAllBytes(first.resolve("next.jar")), equalTo(Files.readAllBytes(second.resolve("next.jar"))));
+    }
+
+    @Test
+    public void onlyChangedMembersProduceDiffs() throws Exception {
+        Path dir = temporaryFolder.newFolder("corpus").toPath();
+        CorpusGenerator generator = CorpusGenerator.corpusGenerator();
+        generator.setClasses(200);
+        generator.setAnnotationDensity(0.5);
+
+        generator.setChangedFraction(0);
+        generator.write(dir.resolve("a.jar"), dir.resolve("b.jar"));
+        generator.setChangedFraction(0.1);
+        generator.write(dir.resolve("c.jar"), dir.resolve("d.jar"));
+
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            Map<Path, ArtifactInfo> artifacts = scanner.scan(asList(dir.resolve("a.jar"), dir.resolve("b.jar"), dir.resolve("c.jar"), dir.resolve("d.jar")));
+            assertThat(artifacts.get(dir.resolve("a.jar")).getClasses().size(), equalTo(200));
+            assertThat(ArtifactDiffer.artifactDiffer(artifacts.get(dir.resolve("a.jar")), artifacts.get(dir.resolve("b.jar"))).diff(), empty());
+            assertThat(ArtifactDiffer.artifactDiffer(artifacts.get(dir.resolve("c.jar")), artifacts.get(dir.resolve("d.jar"))).diff(), not(empty()));
+        }
+    }
+}
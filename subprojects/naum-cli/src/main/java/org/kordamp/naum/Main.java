@@ -15,11 +15,89 @@
  */
 package org.kordamp.naum;
 
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import org.kordamp.naum.cli.BatchCommand;
+import org.kordamp.naum.cli.Command;
+import org.kordamp.naum.cli.CompareCommand;
+import org.kordamp.naum.cli.DaemonCommand;
+import org.kordamp.naum.cli.SnapshotCommand;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+
 /**
+ * Command line entry point.
+ * <pre>
+ * naum compare [options] &lt;previous&gt; &lt;next&gt;
+ * naum batch [options] &lt;manifest&gt;
+ * naum daemon [options]
+ * naum snapshot [options] &lt;artifact&gt; &lt;snapshot&gt;
+ * </pre>
+ *
  * @author Andres Almiray
  */
 public class Main {
     public static void main(String[] args) {
-        System.out.println("NAUM");
+        System.exit(run(args, System.out, System.err));
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CompareCommand compare = new CompareCommand();
+        BatchCommand batch = new BatchCommand();
+        DaemonCommand daemon = new DaemonCommand();
+        SnapshotCommand snapshot = new SnapshotCommand();
+        JCommander commander = JCommander.newBuilder()
+            .programName("naum")
+            .addCommand("compare", compare)
+            .addCommand("batch", batch)
+            .addCommand("daemon", daemon)
+            .addCommand("snapshot", snapshot)
+            .build();
+
+        Command command;
+        try {
+            commander.parse(args);
+            String name = commander.getParsedCommand();
+            if (name == null) {
+                commander.usage();
+                return Command.EXIT_FAILURE;
+            }
+            switch (name) {
+                case "batch":
+                    command = batch;
+                    break;
+                case "daemon":
+                    command = daemon;
+                    break;
+                case "snapshot":
+                    command = snapshot;
+                    break;
+                default:
+                    command = compare;
+            }
+            if (command.getOptions().isHelp()) {
+                commander.usage(name);
+                return Command.EXIT_COMPATIBLE;
+            }
+        } catch (ParameterException e) {
+            err.println(e.getMessage());
+            commander.usage();
+            return Command.EXIT_FAILURE;
+        }
+
+        try {
+            return command.run(out);
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            err.println("naum: " + e.getMessage());
+            return Command.EXIT_FAILURE;
+        } catch (RuntimeException e) {
+            // a malformed class file must not be mistaken for an incompatibility
+            err.println("naum: " + e);
+            return Command.EXIT_FAILURE;
+        } finally {
+            out.flush();
+        }
     }
 }
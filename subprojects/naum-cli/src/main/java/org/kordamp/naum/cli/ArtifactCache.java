@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import lombok.Data;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.SymbolTable;
+import org.kordamp.naum.scanner.ArchiveScanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps scanned artifacts in memory, least recently used first out, bounded by the total number
+ * of classes held. Artifacts are keyed by path, size and modification time, so a rebuilt jar is
+ * scanned again. Concurrent requests for the same artifact share a single scan.
+ * <p>
+ * Evicting an artifact clears the process-wide {@link SymbolTable}, which would otherwise keep
+ * every name of every artifact ever scanned. Artifacts still cached keep their names; they are
+ * only no longer shared with those scanned afterwards.
+ *
+ * @author Andres Almiray
+ */
+public class ArtifactCache {
+    private final ArchiveScanner scanner;
+    private final long maximumClasses;
+    private final Map<Key, CompletableFuture<ArtifactInfo>> artifacts = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long classes;
+
+    public ArtifactCache(ArchiveScanner scanner, long maximumClasses) {
+        if (maximumClasses < 1) {
+            throw new IllegalArgumentException("Maximum number of cached classes must be positive");
+        }
+        this.scanner = scanner;
+        this.maximumClasses = maximumClasses;
+    }
+
+    @Data
+    public static class Key {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        public static Key of(Path path) throws IOException {
+            Path absolute = path.toAbsolutePath().normalize();
+            BasicFileAttributes attributes = Files.readAttributes(absolute, BasicFileAttributes.class);
+            return new Key(absolute, attributes.isDirectory() ? -1 : attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    public ArtifactInfo get(Key key) throws IOException {
+        CompletableFuture<ArtifactInfo> future;
+        boolean load = false;
+        synchronized (artifacts) {
+            future = artifacts.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                artifacts.put(key, future);
+                load = true;
+            }
+        }
+
+        if (load) {
+            misses.increment();
+            try {
+                ArtifactInfo artifact = scanner.scan(key.getPath());
+                future.complete(artifact);
+                added(artifact);
+            } catch (Throwable e) {
+                // errors too, or the failed entry would stay cached with waiters blocked on it
+                synchronized (artifacts) {
+                    artifacts.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            hits.increment();
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (artifacts) {
+            return artifacts.size();
+        }
+    }
+
+    public long getClasses() {
+        synchronized (artifacts) {
+            return classes;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void added(ArtifactInfo artifact) {
+        boolean evicted = false;
+        synchronized (artifacts) {
+            classes += artifact.getClasses().size();
+            // evict completed entries only, pending ones have no weight yet
+            Iterator<CompletableFuture<ArtifactInfo>> it = artifacts.values().iterator();
+            while (classes > maximumClasses && it.hasNext()) {
+                CompletableFuture<ArtifactInfo> eldest = it.next();
+                if (eldest.isDone() && !eldest.isCompletedExceptionally()) {
+                    ArtifactInfo eldestArtifact = eldest.join();
+                    if (eldestArtifact != artifact) {
+                        it.remove();
+                        classes -= eldestArtifact.getClasses().size();
+                        evictions.increment();
+                        evicted = true;
+                    }
+                }
+            }
+        }
+        if (evicted) {
+            SymbolTable.clear();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compares every pair of artifacts listed in a manifest in a single process. All pairs run on
+ * one worker pool, which is also used to parse and compare the classes of each pair, so JVM
+ * startup and warm-up are paid once per batch. A summary line is printed for every pair, in
+ * manifest order.
+ *
+ * @author Andres Almiray
+ */
+@Parameters(commandDescription = "Compare every pair of artifacts listed in a manifest")
+public class BatchCommand implements Command {
+    @Parameter(description = "<manifest>", required = true, arity = 1)
+    private List<String> manifest = new ArrayList<>();
+
+    @Parameter(names = {"-o", "--reports"}, description = "Directory a report is written to for every pair")
+    private String reports;
+
+    @ParametersDelegate
+    private CommonOptions options = new CommonOptions();
+
+    @Override
+    public CommonOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public int run(PrintStream out) throws IOException {
+        List<Manifest.Entry> entries = Manifest.read(Paths.get(manifest.get(0))).getEntries();
+        Path reportDirectory = reports != null ? Files.createDirectories(Paths.get(reports)) : null;
+
+        List<PairTask> tasks = new ArrayList<>();
+        try (Session session = new Session(options)) {
+            for (int i = 0; i < entries.size(); i++) {
+                tasks.add(new PairTask(session, entries.get(i), reportPath(reportDirectory, entries.get(i), i)));
+            }
+            session.getScanner().getPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        }
+
+        int exitCode = EXIT_COMPATIBLE;
+        for (PairTask task : tasks) {
+            Outcome outcome = task.join();
+            if (outcome.failure != null) {
+                out.println("FAILED " + task.entry.getPrevious() + " -> " + task.entry.getNext() + ": " + describe(outcome.failure));
+                exitCode = EXIT_FAILURE;
+            } else {
+                out.println((outcome.summary.isCompatible() ? "OK     " : "BROKEN ") +
+                    task.entry.getPrevious() + " -> " + task.entry.getNext() + " " + outcome.summary);
+                if (!outcome.summary.isCompatible() && exitCode == EXIT_COMPATIBLE) {
+                    exitCode = EXIT_INCOMPATIBLE;
+                }
+            }
+        }
+        return exitCode;
+    }
+
+    private static String describe(Exception failure) {
+        // unexpected exceptions, such as those thrown on a malformed class, may carry no message
+        return failure.getMessage() != null ? failure.getMessage() : failure.toString();
+    }
+
+    private Path reportPath(Path directory, Manifest.Entry entry, int index) {
+        if (directory == null) {
+            return null;
+        }
+        String name = entry.getReport();
+        if (name == null) {
+            name = String.format("%04d-%s.%s", index + 1, entry.getNext().getFileName(), options.getFormat().getExtension());
+        }
+        return directory.resolve(name);
+    }
+
+    private static final class Outcome {
+        private final Session.Summary summary;
+        private final Exception failure;
+
+        private Outcome(Session.Summary summary, Exception failure) {
+            this.summary = summary;
+            this.failure = failure;
+        }
+    }
+
+    private final class PairTask extends RecursiveTask<Outcome> {
+        private final Session session;
+        private final Manifest.Entry entry;
+        private final Path report;
+
+        private PairTask(Session session, Manifest.Entry entry, Path report) {
+            this.session = session;
+            this.entry = entry;
+            this.report = report;
+        }
+
+        @Override
+        protected Outcome compute() {
+            // a failing pair must not abort the rest of the batch
+            try {
+                if (report == null) {
+                    return new Outcome(session.compare(entry.getPrevious(), entry.getNext(), diff -> { }), null);
+                }
+                try (ReportFormat.ReportWriter writer = options.getFormat().open(Files.newOutputStream(report))) {
+                    return new Outcome(session.compare(entry.getPrevious(), entry.getNext(), writer), null);
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteReport();
+                return new Outcome(null, e);
+            }
+        }
+
+        private void deleteReport() {
+            if (report != null) {
+                try {
+                    Files.deleteIfExists(report);
+                } catch (IOException ignored) {
+                    // the failure of the pair is what gets reported
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * @author Andres Almiray
+ */
+public interface Command {
+    int EXIT_COMPATIBLE = 0;
+    int EXIT_INCOMPATIBLE = 1;
+    int EXIT_FAILURE = 2;
+
+    CommonOptions getOptions();
+
+    /**
+     * Runs the command and returns the exit code of the process.
+     */
+    int run(PrintStream out) throws IOException;
+}
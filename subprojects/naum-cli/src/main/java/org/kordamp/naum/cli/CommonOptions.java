@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Options shared by every command.
+ *
+ * @author Andres Almiray
+ */
+public class CommonOptions {
+    @Parameter(names = {"-t", "--threads"}, description = "Size of the worker pool shared by all comparisons; defaults to the number of processors")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"-f", "--format"}, description = "Report format: text, json or ndjson")
+    private String format = ReportFormat.TEXT.name();
+
+    @Parameter(names = "--check", description = "Only check compatibility, stopping at the first error")
+    private boolean check;
+
+    @Parameter(names = "--cache", description = "Directory of the parsed class cache")
+    private String cache;
+
+    @Parameter(names = {"-h", "--help"}, help = true, description = "Show this help")
+    private boolean help;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public ReportFormat getFormat() {
+        return ReportFormat.parse(format);
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public boolean isHelp() {
+        return help;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares two versions of an artifact and writes a report to standard output or to a file.
+ *
+ * @author Andres Almiray
+ */
+@Parameters(commandDescription = "Compare two versions of a jar or class directory")
+public class CompareCommand implements Command {
+    @Parameter(description = "<previous> <next>", required = true, arity = 2)
+    private List<String> artifacts = new ArrayList<>();
+
+    @Parameter(names = {"-o", "--output"}, description = "File the report is written to; defaults to standard output")
+    private String output;
+
+    @ParametersDelegate
+    private CommonOptions options = new CommonOptions();
+
+    @Override
+    public CommonOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public int run(PrintStream out) throws IOException {
+        Path previous = Paths.get(artifacts.get(0));
+        Path next = Paths.get(artifacts.get(1));
+
+        Session.Summary summary;
+        try (Session session = new Session(options);
+             ReportFormat.ReportWriter report = options.getFormat().open(output != null ? Files.newOutputStream(Paths.get(output)) : unclosable(out))) {
+            summary = session.compare(previous, next, report);
+        }
+        return summary.isCompatible() ? EXIT_COMPATIBLE : EXIT_INCOMPATIBLE;
+    }
+
+    private static OutputStream unclosable(PrintStream out) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                out.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Data;
+import org.kordamp.naum.model.ArtifactInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves comparisons over HTTP on the loopback interface, keeping scanned artifacts warm between
+ * requests. Identical requests arriving while one is being computed wait for that result instead
+ * of computing it again.
+ * <pre>
+ * GET  /compare?previous=&lt;path&gt;&amp;next=&lt;path&gt;[&amp;format=json][&amp;check=true]
+ * GET  /status
+ * POST /shutdown
+ * </pre>
+ *
+ * @author Andres Almiray
+ */
+public class Daemon implements Closeable {
+    private final Session session;
+    private final ArtifactCache artifacts;
+    private final ReportFormat format;
+    private final boolean check;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Coalescer<Request, Response> responses = new Coalescer<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public Daemon(CommonOptions options, int port, long maximumClasses) throws IOException {
+        this.session = new Session(options);
+        this.artifacts = new ArtifactCache(session.getScanner(), maximumClasses);
+        this.format = options.getFormat();
+        this.check = options.isCheck();
+        this.executor = Executors.newFixedThreadPool(options.getThreads());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/compare", this::compare);
+        server.createContext("/status", this::status);
+        server.createContext("/shutdown", this::shutdown);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        session.close();
+        stopped.countDown();
+    }
+
+    @Data
+    private static class Request {
+        private final ArtifactCache.Key previous;
+        private final ArtifactCache.Key next;
+        private final ReportFormat format;
+        private final boolean check;
+    }
+
+    @Data
+    private static class Response {
+        private final byte[] body;
+        private final Session.Summary summary;
+    }
+
+    private void compare(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = query(exchange);
+            Request request = new Request(
+                ArtifactCache.Key.of(Paths.get(required(query, "previous"))),
+                ArtifactCache.Key.of(Paths.get(required(query, "next"))),
+                query.containsKey("format") ? ReportFormat.parse(query.get("format")) : format,
+                query.containsKey("check") ? Boolean.parseBoolean(query.get("check")) : check);
+
+            Response response = responses.get(request, () -> execute(request));
+            exchange.getResponseHeaders().set("Content-Type", contentType(request.getFormat()));
+            exchange.getResponseHeaders().set("X-Naum-Compatible", String.valueOf(response.getSummary().isCompatible()));
+            send(exchange, 200, response.getBody());
+        } catch (IOException | RuntimeException e) {
+            // a malformed class must not drop the connection
+            Throwable failure = unwrap(e);
+            if (failure instanceof IllegalArgumentException) {
+                error(exchange, 400, failure.getMessage());
+            } else if (failure instanceof NoSuchFileException) {
+                error(exchange, 404, "No such file " + ((NoSuchFileException) failure).getFile());
+            } else {
+                error(exchange, 500, failure.getMessage() != null ? failure.getMessage() : failure.toString());
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        while ((failure instanceof CompletionException || failure instanceof UncheckedIOException) && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    private Response execute(Request request) throws IOException {
+        ArtifactInfo previous = artifacts.get(request.getPrevious());
+        ArtifactInfo next = artifacts.get(request.getNext());
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Session.Summary summary;
+        try (ReportFormat.ReportWriter report = request.getFormat().open(body)) {
+            summary = session.compare(previous, next, request.isCheck(), report);
+        }
+        return new Response(body.toByteArray(), summary);
+    }
+
+    private void status(HttpExchange exchange) throws IOException {
+        String body = "{\"artifacts\":" + artifacts.size() +
+            ",\"classes\":" + artifacts.getClasses() +
+            ",\"hits\":" + artifacts.getHits() +
+            ",\"misses\":" + artifacts.getMisses() +
+            ",\"evictions\":" + artifacts.getEvictions() +
+            ",\"requests\":" + responses.getRequests() +
+            ",\"coalesced\":" + responses.getCoalesced() + "}\n";
+        exchange.getResponseHeaders().set("Content-Type", contentType(ReportFormat.JSON));
+        send(exchange, 200, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void shutdown(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            error(exchange, 405, "Use POST to stop the daemon");
+            return;
+        }
+        send(exchange, 204, null);
+        // stopping waits for exchanges to finish, so it cannot run on a server thread
+        Thread stopper = new Thread(this::close, "naum-daemon-shutdown");
+        stopper.start();
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return value;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) throws UnsupportedEncodingException {
+        Map<String, String> query = new LinkedHashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String parameter : raw.split("&")) {
+            int eq = parameter.indexOf('=');
+            String name = eq < 0 ? parameter : parameter.substring(0, eq);
+            String value = eq < 0 ? "" : parameter.substring(eq + 1);
+            query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+
+    private static String contentType(ReportFormat format) {
+        switch (format) {
+            case JSON:
+                return "application/json; charset=utf-8";
+            case NDJSON:
+                return "application/x-ndjson; charset=utf-8";
+            default:
+                return "text/plain; charset=utf-8";
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType(ReportFormat.TEXT));
+        send(exchange, status, (message + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Runs a {@link Daemon} until it is asked to shut down.
+ *
+ * @author Andres Almiray
+ */
+@Parameters(commandDescription = "Serve comparisons over HTTP on the loopback interface, keeping artifacts in memory")
+public class DaemonCommand implements Command {
+    @Parameter(names = {"-p", "--port"}, description = "Loopback port to listen on; 0 picks a free port")
+    private int port = 7171;
+
+    @Parameter(names = "--max-classes", description = "Number of parsed classes kept in memory across all cached artifacts")
+    private long maximumClasses = 500_000;
+
+    @ParametersDelegate
+    private CommonOptions options = new CommonOptions();
+
+    @Override
+    public CommonOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public int run(PrintStream out) throws IOException {
+        try (Daemon daemon = new Daemon(options, port, maximumClasses)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "naum-daemon-stop"));
+            daemon.start();
+            out.println("naum daemon listening on http://" + daemon.getAddress().getHostString() + ":" + daemon.getAddress().getPort() + "/");
+            out.flush();
+            daemon.awaitShutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_COMPATIBLE;
+    }
+}
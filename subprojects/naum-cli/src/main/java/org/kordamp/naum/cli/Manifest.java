@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import lombok.Data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A list of artifact pairs to compare. Every non-blank line that does not start with {@code #}
+ * holds the previous and next artifact and, optionally, the name of the report for that pair,
+ * separated by whitespace. Relative paths are resolved against the directory of the manifest.
+ *
+ * @author Andres Almiray
+ */
+public class Manifest {
+    private final List<Entry> entries;
+
+    private Manifest(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public static Manifest read(Path file) throws IOException {
+        Path base = file.toAbsolutePath().getParent();
+        List<Entry> entries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] columns = line.split("\\s+");
+            if (columns.length < 2 || columns.length > 3) {
+                throw new IOException(file + ":" + lineNumber + ": expected <previous> <next> [report]");
+            }
+            entries.add(new Entry(
+                base.resolve(columns[0]),
+                base.resolve(columns[1]),
+                columns.length == 3 ? columns[2] : null));
+        }
+        return new Manifest(entries);
+    }
+
+    @Data
+    public static class Entry {
+        private final Path previous;
+        private final Path next;
+        private final String report;
+    }
+}
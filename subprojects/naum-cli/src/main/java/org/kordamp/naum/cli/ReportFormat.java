@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.kordamp.naum.diff.Diff;
+import org.kordamp.naum.diff.DiffSink;
+import org.kordamp.naum.report.JsonDiffWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * @author Andres Almiray
+ */
+public enum ReportFormat {
+    TEXT("txt"),
+    JSON("json"),
+    NDJSON("ndjson");
+
+    private static final String MESSAGES = "org.kordamp.naum.diff.Messages";
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ReportFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown report format " + value + "; expected text, json or ndjson");
+        }
+    }
+
+    /**
+     * A sink writing this format to the given stream. Closing the sink closes the stream.
+     */
+    public ReportWriter open(OutputStream out) {
+        ResourceBundle messages = ResourceBundle.getBundle(MESSAGES);
+        switch (this) {
+            case JSON:
+                return json(JsonDiffWriter.open(out, JsonDiffWriter.Format.JSON, messages));
+            case NDJSON:
+                return json(JsonDiffWriter.open(out, JsonDiffWriter.Format.NDJSON, messages));
+            default:
+                return new TextWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), messages);
+        }
+    }
+
+    private static ReportWriter json(JsonDiffWriter writer) {
+        return new ReportWriter() {
+            @Override
+            public void accept(Diff diff) {
+                writer.accept(diff);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    public interface ReportWriter extends DiffSink, Closeable {
+    }
+
+    private static final class TextWriter implements ReportWriter {
+        private final Writer out;
+        private final ResourceBundle messages;
+
+        private TextWriter(Writer out, ResourceBundle messages) {
+            this.out = out;
+            this.messages = messages;
+        }
+
+        @Override
+        public void accept(Diff diff) {
+            try {
+                out.write(diff.getSeverity().name());
+                out.write(' ');
+                out.write(diff.format(messages));
+                out.write(System.lineSeparator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.kordamp.naum.diff.ArtifactDiffer;
+import org.kordamp.naum.diff.CompatibilityCheck;
+import org.kordamp.naum.diff.Diff;
+import org.kordamp.naum.diff.DiffSink;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.scanner.ArchiveScanner;
+import org.kordamp.naum.scanner.ArtifactPair;
+import org.kordamp.naum.scanner.ClassCache;
+import org.kordamp.naum.snapshot.MappedSnapshot;
+import org.kordamp.naum.snapshot.SnapshotWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares pairs of artifacts on a single scanner, so every comparison made during a run shares
+ * the same worker pool and class cache.
+ *
+ * @author Andres Almiray
+ */
+public class Session implements Closeable {
+    private final ArchiveScanner scanner;
+    private final boolean check;
+
+    public Session(CommonOptions options) throws IOException {
+        if (options.getThreads() < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.scanner = new ArchiveScanner(options.getThreads());
+        this.check = options.isCheck();
+        if (options.getCache() != null) {
+            scanner.setClassCache(new ClassCache(Paths.get(options.getCache())));
+        }
+    }
+
+    public ArchiveScanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * Compares both artifacts, sending results to the given sink. Jars are scanned incrementally,
+     * so classes whose entries did not change are neither parsed nor compared. Either artifact may
+     * be a snapshot, whose unchanged classes are then never decoded.
+     */
+    public Summary compare(Path previous, Path next, DiffSink sink) throws IOException {
+        ArtifactInfo p;
+        ArtifactInfo n;
+        if (isJar(previous) && isJar(next)) {
+            ArtifactPair pair = scanner.scanChanges(previous, next);
+            p = pair.getPrevious();
+            n = pair.getNext();
+        } else {
+            Map<Path, ArtifactInfo> artifacts = scanner.scan(asList(previous, next));
+            p = artifacts.get(previous);
+            n = artifacts.get(next);
+        }
+        return compare(p, n, sink);
+    }
+
+    /**
+     * Compares two artifacts that were already scanned.
+     */
+    public Summary compare(ArtifactInfo p, ArtifactInfo n, DiffSink sink) {
+        return compare(p, n, check, sink);
+    }
+
+    public Summary compare(ArtifactInfo p, ArtifactInfo n, boolean check, DiffSink sink) {
+        ArtifactDiffer differ = ArtifactDiffer.artifactDiffer(p, n);
+        differ.setPool(scanner.getPool());
+
+        Summary summary = new Summary();
+        if (check) {
+            Diff error = CompatibilityCheck.findError(differ);
+            if (error != null) {
+                summary.accept(error);
+                sink.accept(error);
+            }
+        } else {
+            differ.diff(diff -> {
+                summary.accept(diff);
+                sink.accept(diff);
+            });
+        }
+        return summary;
+    }
+
+    /**
+     * Writes a snapshot of the given artifact, to be used in place of it in later comparisons.
+     */
+    public ArtifactInfo snapshot(Path artifact, Path file) throws IOException {
+        ArtifactInfo info = scanner.scan(artifact);
+        SnapshotWriter.write(info, file);
+        return info;
+    }
+
+    @Override
+    public void close() {
+        scanner.close();
+    }
+
+    private static boolean isJar(Path path) throws IOException {
+        return Files.isRegularFile(path) && !MappedSnapshot.isSnapshot(path);
+    }
+
+    /**
+     * Counts diffs by severity.
+     */
+    public static class Summary implements DiffSink {
+        private final int[] counts = new int[Diff.Severity.values().length];
+
+        @Override
+        public void accept(Diff diff) {
+            counts[diff.getSeverity().ordinal()]++;
+        }
+
+        public int getCount(Diff.Severity severity) {
+            return counts[severity.ordinal()];
+        }
+
+        public boolean isCompatible() {
+            return getCount(Diff.Severity.ERROR) == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "errors=" + getCount(Diff.Severity.ERROR) +
+                " warnings=" + getCount(Diff.Severity.WARNING) +
+                " infos=" + getCount(Diff.Severity.INFO);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+import org.kordamp.naum.model.ArtifactInfo;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a snapshot of a jar or class directory. Snapshots are accepted wherever an artifact is,
+ * typically as the previous version of a comparison: they are memory-mapped and only the classes
+ * that changed are decoded.
+ *
+ * @author Andres Almiray
+ */
+@Parameters(commandDescription = "Write a snapshot of a jar or class directory, to be compared against later")
+public class SnapshotCommand implements Command {
+    @Parameter(description = "<artifact> <snapshot>", required = true, arity = 2)
+    private List<String> files = new ArrayList<>();
+
+    @ParametersDelegate
+    private CommonOptions options = new CommonOptions();
+
+    @Override
+    public CommonOptions getOptions() {
+        return options;
+    }
+
+    @Override
+    public int run(PrintStream out) throws IOException {
+        Path snapshot = Paths.get(files.get(1));
+        try (Session session = new Session(options)) {
+            ArtifactInfo artifact = session.snapshot(Paths.get(files.get(0)), snapshot);
+            out.println("Wrote " + artifact.getClasses().size() + " classes to " + snapshot);
+        }
+        return EXIT_COMPATIBLE;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.cli.Command;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.cli.Jars.jar;
+import static org.kordamp.naum.cli.Jars.klass;
+import static org.kordamp.naum.cli.Jars.truncated;
+
+/**
+ * @author Andres Almiray
+ */
+public class MainTest {
+    private static final String CLASSNAME = "org.example.Foo";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void comparesAgainstSnapshots() throws IOException {
+        Path root = folder.getRoot().toPath();
+        Path previous = jar(root.resolve("foo-1.0.jar"), CLASSNAME, klass(CLASSNAME, "run", "stop"));
+        Path next = jar(root.resolve("foo-2.0.jar"), CLASSNAME, klass(CLASSNAME, "run"));
+        Path snapshot = root.resolve("foo-1.0.naum");
+
+        assertThat(run("snapshot", previous.toString(), snapshot.toString()), equalTo(Command.EXIT_COMPATIBLE));
+        assertThat(run("compare", snapshot.toString(), previous.toString()), equalTo(Command.EXIT_COMPATIBLE));
+        assertThat(run("compare", snapshot.toString(), next.toString()), equalTo(Command.EXIT_INCOMPATIBLE));
+    }
+
+    @Test
+    public void malformedClassesAreFailures() throws IOException {
+        Path previous = jar(folder.getRoot().toPath().resolve("foo-1.0.jar"), CLASSNAME, klass(CLASSNAME, "run"));
+        Path next = jar(folder.getRoot().toPath().resolve("foo-1.1.jar"), CLASSNAME, truncated(CLASSNAME));
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = Main.run(new String[]{"compare", previous.toString(), next.toString()},
+            new PrintStream(new ByteArrayOutputStream(), true), new PrintStream(err, true));
+
+        assertThat(exitCode, equalTo(Command.EXIT_FAILURE));
+        assertThat(new String(err.toByteArray(), StandardCharsets.UTF_8), startsWith("naum: "));
+    }
+
+    private static int run(String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return Main.run(args, new PrintStream(out, true), new PrintStream(out, true));
+    }
+}
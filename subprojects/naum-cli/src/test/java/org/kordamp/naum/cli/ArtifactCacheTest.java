@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.SymbolTable;
+import org.kordamp.naum.scanner.ArchiveScanner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.kordamp.naum.cli.Jars.klass;
+
+/**
+ * @author Andres Almiray
+ */
+public class ArtifactCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ArchiveScanner scanner = new ArchiveScanner(1);
+
+    @After
+    public void cleanup() {
+        scanner.close();
+    }
+
+    @Test
+    public void reusesScannedArtifacts() throws IOException {
+        ArtifactCache cache = new ArtifactCache(scanner, 10);
+        ArtifactCache.Key key = ArtifactCache.Key.of(jar("a.jar", "org.example.A"));
+
+        ArtifactInfo artifact = cache.get(key);
+
+        assertThat(cache.get(key), sameInstance(artifact));
+        assertThat(cache.getHits(), equalTo(1L));
+        assertThat(cache.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedArtifacts() throws IOException {
+        ArtifactCache cache = new ArtifactCache(scanner, 2);
+        ArtifactCache.Key a = ArtifactCache.Key.of(jar("a.jar", "org.example.A"));
+        ArtifactCache.Key b = ArtifactCache.Key.of(jar("b.jar", "org.example.B"));
+        ArtifactCache.Key c = ArtifactCache.Key.of(jar("c.jar", "org.example.C"));
+
+        ArtifactInfo first = cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        assertThat(cache.getEvictions(), equalTo(0L));
+
+        // b is the least recently used
+        cache.get(c);
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getClasses(), equalTo(2L));
+        assertThat(cache.getEvictions(), equalTo(1L));
+        assertThat(cache.get(a), sameInstance(first));
+        long misses = cache.getMisses();
+        cache.get(b);
+        assertThat(cache.getMisses(), equalTo(misses + 1));
+    }
+
+    @Test
+    public void evictionReleasesSymbols() throws IOException {
+        ArtifactCache cache = new ArtifactCache(scanner, 1);
+        cache.get(ArtifactCache.Key.of(jar("a.jar", "org.example.Evicted")));
+        int symbols = SymbolTable.size();
+
+        cache.get(ArtifactCache.Key.of(jar("b.jar", "org.example.Kept")));
+
+        assertThat(cache.getEvictions(), equalTo(1L));
+        assertThat(SymbolTable.size() < symbols, equalTo(true));
+    }
+
+    @Test
+    public void rescansChangedArtifacts() throws IOException {
+        ArtifactCache cache = new ArtifactCache(scanner, 10);
+        Path file = jar("a.jar", "org.example.A");
+        ArtifactInfo artifact = cache.get(ArtifactCache.Key.of(file));
+
+        Jars.jar(file, "org.example.A", klass("org.example.A", "run"));
+        file.toFile().setLastModified(file.toFile().lastModified() + 2000);
+
+        assertThat(cache.get(ArtifactCache.Key.of(file)), not(sameInstance(artifact)));
+    }
+
+    @Test
+    public void doesNotKeepFailedScans() throws IOException {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        ArchiveScanner failing = new ArchiveScanner(1) {
+            @Override
+            public ArtifactInfo scan(Path path) throws IOException {
+                if (fail.getAndSet(false)) {
+                    throw new StackOverflowError("malformed");
+                }
+                return super.scan(path);
+            }
+        };
+        try {
+            ArtifactCache cache = new ArtifactCache(failing, 10);
+            ArtifactCache.Key key = ArtifactCache.Key.of(jar("a.jar", "org.example.A"));
+            try {
+                cache.get(key);
+                fail("expected a failure");
+            } catch (StackOverflowError e) {
+                assertThat(e.getMessage(), equalTo("malformed"));
+            }
+            assertThat(cache.size(), equalTo(0));
+
+            assertThat(cache.get(key).getClasses().size(), equalTo(1));
+            assertThat(cache.getMisses(), equalTo(2L));
+        } finally {
+            failing.close();
+        }
+    }
+
+    private Path jar(String file, String className) throws IOException {
+        return Jars.jar(folder.getRoot().toPath().resolve(file), className, klass(className));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.Main;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.cli.Jars.jar;
+import static org.kordamp.naum.cli.Jars.klass;
+import static org.kordamp.naum.cli.Jars.truncated;
+
+/**
+ * @author Andres Almiray
+ */
+public class BatchCommandTest {
+    private static final String CLASSNAME = "org.example.Foo";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Before
+    public void setup() throws IOException {
+        root = folder.getRoot().toPath();
+        jar(root.resolve("foo-1.0.jar"), CLASSNAME, klass(CLASSNAME, "run", "stop"));
+        jar(root.resolve("foo-1.1.jar"), CLASSNAME, klass(CLASSNAME, "run", "stop", "pause"));
+        jar(root.resolve("foo-2.0.jar"), CLASSNAME, klass(CLASSNAME, "run"));
+        jar(root.resolve("foo-broken.jar"), CLASSNAME, truncated(CLASSNAME));
+    }
+
+    @Test
+    public void compatiblePairs() throws IOException {
+        assertThat(batch("foo-1.0.jar foo-1.1.jar"), equalTo(Command.EXIT_COMPATIBLE));
+        assertThat(output(), containsString("OK     "));
+    }
+
+    @Test
+    public void incompatiblePairs() throws IOException {
+        assertThat(batch("foo-1.0.jar foo-1.1.jar", "foo-1.1.jar foo-2.0.jar"), equalTo(Command.EXIT_INCOMPATIBLE));
+        assertThat(output(), containsString("BROKEN "));
+    }
+
+    @Test
+    public void malformedClassesFailTheirPairOnly() throws IOException {
+        assertThat(batch("foo-1.0.jar foo-broken.jar", "foo-1.1.jar foo-2.0.jar"), equalTo(Command.EXIT_FAILURE));
+
+        String[] lines = output().split("\\R");
+        assertThat(lines.length, equalTo(2));
+        assertThat(lines[0], containsString("FAILED "));
+        assertThat(lines[1], containsString("BROKEN "));
+    }
+
+    @Test
+    public void missingArtifactsFailTheirPair() throws IOException {
+        assertThat(batch("foo-1.0.jar foo-9.9.jar"), equalTo(Command.EXIT_FAILURE));
+        assertThat(output(), containsString("FAILED "));
+    }
+
+    @Test
+    public void writesReportsByIndexUnlessNamed() throws IOException {
+        Path reports = root.resolve("reports");
+        assertThat(batch(new String[]{"-o", reports.toString(), "-f", "json"},
+            "foo-1.0.jar foo-1.1.jar", "foo-1.1.jar foo-2.0.jar named.json", "foo-1.0.jar foo-broken.jar"),
+            equalTo(Command.EXIT_FAILURE));
+
+        assertThat(Files.exists(reports.resolve("0001-foo-1.1.jar.json")), equalTo(true));
+        assertThat(Files.exists(reports.resolve("named.json")), equalTo(true));
+        // reports of failed pairs are removed
+        assertThat(Files.exists(reports.resolve("0003-foo-broken.jar.json")), equalTo(false));
+    }
+
+    private int batch(String... pairs) throws IOException {
+        return batch(new String[0], pairs);
+    }
+
+    private int batch(String[] options, String... pairs) throws IOException {
+        Path manifest = Files.write(root.resolve("pairs.txt"), asList(pairs), StandardCharsets.UTF_8);
+        String[] args = new String[options.length + 4];
+        args[0] = "batch";
+        args[1] = "-t";
+        args[2] = "2";
+        System.arraycopy(options, 0, args, 3, options.length);
+        args[args.length - 1] = manifest.toString();
+        return Main.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private String output() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
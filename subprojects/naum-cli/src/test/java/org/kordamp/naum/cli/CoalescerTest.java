@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Andres Almiray
+ */
+public class CoalescerTest {
+    @Test(timeout = 10_000)
+    public void identicalRequestsShareOneComputation() throws Exception {
+        Coalescer<String, Object> coalescer = new Coalescer<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        Coalescer.Computation<Object> computation = () -> {
+            computations.incrementAndGet();
+            await(release);
+            return new Object();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> coalescer.get("key", computation));
+            waitFor(() -> computations.get() == 1);
+            Future<Object> second = executor.submit(() -> coalescer.get("key", computation));
+            waitFor(() -> coalescer.getCoalesced() == 1);
+            release.countDown();
+
+            assertThat(second.get(), sameInstance(first.get()));
+            assertThat(computations.get(), equalTo(1));
+            assertThat(coalescer.getRequests(), equalTo(2L));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // completed computations are not kept
+        coalescer.get("key", computation);
+        assertThat(computations.get(), equalTo(2));
+    }
+
+    @Test(timeout = 10_000)
+    public void waitersSeeTheFailure() throws Exception {
+        Coalescer<String, Object> coalescer = new Coalescer<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> coalescer.get("key", () -> {
+                computations.incrementAndGet();
+                await(release);
+                throw new IllegalStateException("malformed");
+            }));
+            waitFor(() -> computations.get() == 1);
+            Future<Object> second = executor.submit(() -> coalescer.get("key", Object::new));
+            waitFor(() -> coalescer.getCoalesced() == 1);
+            release.countDown();
+
+            assertFailure(first);
+            assertFailure(second);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void errorsReachWaitersAndReleaseTheKey() throws Exception {
+        Coalescer<String, Object> coalescer = new Coalescer<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> coalescer.get("key", () -> {
+                computations.incrementAndGet();
+                await(release);
+                throw new StackOverflowError("malformed");
+            }));
+            waitFor(() -> computations.get() == 1);
+            Future<Object> second = executor.submit(() -> coalescer.get("key", Object::new));
+            waitFor(() -> coalescer.getCoalesced() == 1);
+            release.countDown();
+
+            assertFailure(first);
+            assertFailure(second);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the failed computation is not kept
+        assertThat(coalescer.get("key", () -> "value"), equalTo("value"));
+    }
+
+    private static void assertFailure(Future<Object> future) throws InterruptedException {
+        try {
+            future.get();
+            fail("expected a failure");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), equalTo("malformed"));
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        while (!condition.holds()) {
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+}
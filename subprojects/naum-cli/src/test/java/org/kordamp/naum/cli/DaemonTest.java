@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import com.beust.jcommander.JCommander;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.cli.Jars.jar;
+import static org.kordamp.naum.cli.Jars.klass;
+import static org.kordamp.naum.cli.Jars.truncated;
+
+/**
+ * @author Andres Almiray
+ */
+public class DaemonTest {
+    private static final String CLASSNAME = "org.example.Foo";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Daemon daemon;
+    private Path previous;
+    private Path next;
+    private Path broken;
+
+    @Before
+    public void setup() throws IOException {
+        Path root = folder.getRoot().toPath();
+        previous = jar(root.resolve("foo-1.0.jar"), CLASSNAME, klass(CLASSNAME, "run", "stop"));
+        next = jar(root.resolve("foo-2.0.jar"), CLASSNAME, klass(CLASSNAME, "run"));
+        broken = jar(root.resolve("foo-broken.jar"), CLASSNAME, truncated(CLASSNAME));
+
+        CommonOptions options = new CommonOptions();
+        JCommander.newBuilder().addObject(options).build().parse("-t", "2");
+        daemon = new Daemon(options, 0, 1000);
+        daemon.start();
+    }
+
+    @After
+    public void cleanup() {
+        daemon.close();
+    }
+
+    @Test
+    public void comparesArtifacts() throws IOException {
+        HttpURLConnection connection = get(compare(previous, next) + "&format=json");
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(connection.getHeaderField("X-Naum-Compatible"), equalTo("false"));
+        assertThat(body(connection), containsString("class.method.removed"));
+
+        // the second request is served from the cached artifacts
+        assertThat(get(compare(previous, next)).getResponseCode(), equalTo(200));
+        assertThat(body(get("/status")), containsString("\"hits\":2"));
+    }
+
+    @Test
+    public void missingParametersAreBadRequests() throws IOException {
+        HttpURLConnection connection = get("/compare?previous=" + encode(previous));
+
+        assertThat(connection.getResponseCode(), equalTo(400));
+        assertThat(body(connection), containsString("Missing parameter next"));
+    }
+
+    @Test
+    public void missingArtifactsAreNotFound() throws IOException {
+        Path missing = folder.getRoot().toPath().resolve("foo-9.9.jar");
+
+        assertThat(get(compare(previous, missing)).getResponseCode(), equalTo(404));
+    }
+
+    @Test
+    public void malformedClassesAreServerErrors() throws IOException {
+        assertThat(get(compare(previous, broken)).getResponseCode(), equalTo(500));
+
+        // the daemon keeps serving
+        assertThat(get(compare(previous, next)).getResponseCode(), equalTo(200));
+    }
+
+    @Test
+    public void shutdownRequiresPost() throws IOException {
+        assertThat(get("/shutdown").getResponseCode(), equalTo(405));
+    }
+
+    private String compare(Path p, Path n) throws IOException {
+        return "/compare?previous=" + encode(p) + "&next=" + encode(n);
+    }
+
+    private HttpURLConnection get(String path) throws IOException {
+        URL url = new URL("http", daemon.getAddress().getHostString(), daemon.getAddress().getPort(), path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static String encode(Path path) throws IOException {
+        return URLEncoder.encode(path.toString(), "UTF-8");
+    }
+
+    private static String body(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+            out.write(buffer, 0, n);
+        }
+        in.close();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.objectweb.asm.ClassWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+/**
+ * Builds small jars for the command tests.
+ *
+ * @author Andres Almiray
+ */
+public final class Jars {
+    private Jars() {
+    }
+
+    /**
+     * A public class with a public {@code void} method for every given name.
+     */
+    public static byte[] klass(String name, String... methods) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name.replace('.', '/'), null, "java/lang/Object", null);
+        for (String method : methods) {
+            writer.visitMethod(ACC_PUBLIC, method, "()V", null, null).visitEnd();
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * The first bytes of a class, as left behind by an interrupted download.
+     */
+    public static byte[] truncated(String name) {
+        byte[] bytes = klass(name, "run");
+        return Arrays.copyOf(bytes, bytes.length / 2);
+    }
+
+    /**
+     * Writes a jar with the given classes, keyed by class name.
+     */
+    public static Path jar(Path file, Map<String, byte[]> classes) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey().replace('.', '/') + ".class"));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    public static Path jar(Path file, String name, byte[] klass) throws IOException {
+        return jar(file, Collections.singletonMap(name, klass));
+    }
+}
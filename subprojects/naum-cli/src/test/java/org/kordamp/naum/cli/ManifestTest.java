@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.cli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Andres Almiray
+ */
+public class ManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsPairsRelativeToTheManifest() throws IOException {
+        Path file = write(
+            "# previous next [report]",
+            "",
+            "  a-1.0.jar   a-1.1.jar  ",
+            "b-1.0.jar\tb-1.1.jar b.json");
+        Path base = file.toAbsolutePath().getParent();
+
+        List<Manifest.Entry> entries = Manifest.read(file).getEntries();
+
+        assertThat(entries.size(), equalTo(2));
+        assertThat(entries.get(0).getPrevious(), equalTo(base.resolve("a-1.0.jar")));
+        assertThat(entries.get(0).getNext(), equalTo(base.resolve("a-1.1.jar")));
+        assertThat(entries.get(0).getReport(), nullValue());
+        assertThat(entries.get(1).getNext(), equalTo(base.resolve("b-1.1.jar")));
+        assertThat(entries.get(1).getReport(), equalTo("b.json"));
+    }
+
+    @Test
+    public void keepsAbsolutePaths() throws IOException {
+        Path jar = folder.getRoot().toPath().resolve("lib/a.jar").toAbsolutePath();
+        Path file = write(jar + " " + jar);
+
+        assertThat(Manifest.read(file).getEntries().get(0).getPrevious(), equalTo(jar));
+    }
+
+    @Test
+    public void rejectsMalformedLines() throws IOException {
+        Path file = write("a-1.0.jar a-1.1.jar", "a-1.2.jar");
+
+        try {
+            Manifest.read(file);
+            fail("expected an IOException");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), containsString(file + ":2:"));
+        }
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = folder.newFile("pairs.txt").toPath();
+        return Files.write(file, asList(lines), StandardCharsets.UTF_8);
+    }
+}
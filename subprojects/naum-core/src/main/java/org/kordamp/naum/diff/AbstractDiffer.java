@@ -15,52 +15,48 @@
  */
 package org.kordamp.naum.diff;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.kordamp.naum.model.AnnotatedInfo;
 import org.kordamp.naum.model.AnnotationInfo;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
 import static org.kordamp.naum.diff.Diff.Type.ADDED;
 import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+import static org.kordamp.naum.diff.SortedMerge.merge;
 
 /**
  * @author Andres Almiray
  */
 public abstract class AbstractDiffer<T extends AnnotatedInfo> implements Differ<T> {
-    protected void checkAnnotations(Collection<Diff> list, String keyPrefix) {
-        checkAnnotations(getPrevious(), getNext(), list, keyPrefix);
+    protected void checkAnnotations(DiffSink sink, DiffCode removedCode, DiffCode addedCode) {
+        checkAnnotations(getPrevious(), getNext(), sink, removedCode, addedCode);
     }
 
-    protected void checkAnnotations(T previous, T next, Collection<Diff> list, String keyPrefix) {
-        List<AnnotationInfo> p = previous.getAnnotations();
-        List<AnnotationInfo> n = next.getAnnotations();
+    protected void checkAnnotations(T previous, T next, DiffSink sink, DiffCode removedCode, DiffCode addedCode) {
+        if (previous.getAnnotationsHash().equals(next.getAnnotationsHash())) {
+            return;
+        }
 
-        Collection<AnnotationInfo> removed = CollectionUtils.subtract(p, n);
-        Collection<AnnotationInfo> added = CollectionUtils.subtract(n, p);
+        // annotations are sorted by name; a modified annotation counts as removed and added
+        List<AnnotationInfo> removed = new ArrayList<>();
+        List<AnnotationInfo> added = new ArrayList<>();
+        merge(previous.getAnnotations(), next.getAnnotations(), Comparator.<AnnotationInfo>naturalOrder(),
+            removed::add, added::add, (p, n) -> {
+                if (!p.equals(n)) {
+                    removed.add(p);
+                    added.add(n);
+                }
+            });
 
         for (AnnotationInfo a : removed) {
-            list.add(Diff.diff()
-                .severity(ERROR)
-                .type(REMOVED)
-                .messageKey(keyPrefix + ".annotation.removed")
-                .messageArg(getElementName())
-                .messageArg("@" + a.getName())
-                .build()
-            );
+            sink.accept(Diff.of(ERROR, REMOVED, removedCode, getElementName(), "@" + a.getName()));
         }
 
         for (AnnotationInfo a : added) {
-            list.add(Diff.diff()
-                .severity(ERROR)
-                .type(ADDED)
-                .messageKey(keyPrefix + ".annotation.added")
-                .messageArg(getElementName())
-                .messageArg("@" + a.getName())
-                .build()
-            );
+            sink.accept(Diff.of(ERROR, ADDED, addedCode, getElementName(), "@" + a.getName()));
         }
 
     }
@@ -17,31 +17,25 @@ package org.kordamp.naum.diff;
 
 import org.kordamp.naum.model.MemberInfo;
 
-import java.util.Collection;
-
 import static org.kordamp.naum.model.Modifiers.modifiersAsString;
 
 /**
  * @author Andres Almiray
  */
 public abstract class AbstractMemberDiffer<T extends MemberInfo> extends AbstractDiffer<T> {
-    protected void checkModifiers(Collection<Diff> list, String keyPrefix) {
-        checkModifiers(getPrevious(), getNext(), list, keyPrefix);
+    protected void checkModifiers(DiffSink sink, DiffCode code) {
+        checkModifiers(getPrevious(), getNext(), sink, code);
+    }
+
+    protected <M extends MemberInfo> void checkModifiers(M previous, M next, DiffSink sink, DiffCode code) {
+        checkModifiers(getElementName(), previous, next, sink, code);
     }
 
-    protected <M extends MemberInfo> void checkModifiers(M previous, M next, Collection<Diff> list, String keyPrefix) {
-        if (getPrevious().getModifiers() != getNext().getModifiers()) {
-            list.add(
-                Diff.diff()
-                    .severity(Diff.Severity.ERROR)
-                    .type(Diff.Type.MODIFIED)
-                    .messageKey(keyPrefix + ".modifiers.modified")
-                    .messageArg(getElementName())
-                    .messageArg(modifiersAsString(previous.getModifiers()))
-                    .messageArg(previous.getModifiers())
-                    .messageArg(modifiersAsString(next.getModifiers()))
-                    .messageArg(next.getModifiers())
-                    .build());
+    protected <M extends MemberInfo> void checkModifiers(String elementName, M previous, M next, DiffSink sink, DiffCode code) {
+        if (previous.getModifiers() != next.getModifiers()) {
+            sink.accept(Diff.of(Diff.Severity.ERROR, Diff.Type.MODIFIED, code, elementName,
+                modifiersAsString(previous.getModifiers()), previous.getModifiers(),
+                modifiersAsString(next.getModifiers()), next.getModifiers()));
         }
     }
 }
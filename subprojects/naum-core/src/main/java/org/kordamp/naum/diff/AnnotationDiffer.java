@@ -20,10 +20,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.kordamp.naum.model.AnnotationInfo;
 import org.kordamp.naum.model.AnnotationValue;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -41,28 +38,25 @@ import static org.kordamp.naum.diff.Diff.Type.REMOVED;
  */
 @Data(staticConstructor = "annotationDiffer")
 public class AnnotationDiffer implements Differ<AnnotationInfo> {
-    public static final String KEY_ANNOTATION_VALUE_ADDED = "annotation.value.added";
-    public static final String KEY_ANNOTATION_VALUE_REMOVED = "annotation.value.removed";
-    public static final String KEY_ANNOTATION_VALUE_MODIFIED = "annotation.value.modified";
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_ANNOTATION_VALUE_ADDED = DiffCode.ANNOTATION_VALUE_ADDED.getKey();
+    public static final String KEY_ANNOTATION_VALUE_REMOVED = DiffCode.ANNOTATION_VALUE_REMOVED.getKey();
+    public static final String KEY_ANNOTATION_VALUE_MODIFIED = DiffCode.ANNOTATION_VALUE_MODIFIED.getKey();
 
     private final AnnotationInfo previous;
     private final AnnotationInfo next;
 
     @Override
-    public Collection<Diff> diff() {
+    public void diff(DiffSink sink) {
         if (previous.getContentHash().equals(next.getContentHash())) {
-            return Collections.emptyList();
+            return;
         }
 
-        List<Diff> list = new ArrayList<>();
-
         // 1. values
-        checkValues(list);
-
-        return list;
+        checkValues(sink);
     }
 
-    private void checkValues(Collection<Diff> list) {
+    private void checkValues(DiffSink sink) {
         Set<String> prevKeySet = previous.getValues().keySet();
         Set<String> nextKeySet = next.getValues().keySet();
 
@@ -71,44 +65,19 @@ public class AnnotationDiffer implements Differ<AnnotationInfo> {
         Collection<String> sameKeys = CollectionUtils.intersection(nextKeySet, prevKeySet);
 
         for (String key : removedKeys) {
-            list.add(Diff.diff()
-                .severity(ERROR)
-                .type(REMOVED)
-                .messageKey(KEY_ANNOTATION_VALUE_REMOVED)
-                .messageArg(getElementName())
-                .messageArg(key)
-                .build()
-            );
+            sink.accept(Diff.of(ERROR, REMOVED, DiffCode.ANNOTATION_VALUE_REMOVED, getElementName(), key));
         }
 
         for (String key : addedKeys) {
-            list.add(Diff.diff()
-                .severity(ERROR)
-                .type(ADDED)
-                .messageKey(KEY_ANNOTATION_VALUE_ADDED)
-                .messageArg(getElementName())
-                .messageArg(key)
-                .build()
-            );
+            sink.accept(Diff.of(ERROR, ADDED, DiffCode.ANNOTATION_VALUE_ADDED, getElementName(), key));
         }
 
         for (String key : sameKeys) {
             AnnotationValue prevValue = previous.getValues().get(key);
             AnnotationValue nextValue = next.getValues().get(key);
             if (!Objects.equals(prevValue, nextValue)) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(MODIFIED)
-                        .messageKey(KEY_ANNOTATION_VALUE_MODIFIED)
-                        .messageArg(getElementName())
-                        .messageArg(key)
-                        .messageArg(prevValue.getType())
-                        .messageArg(prevValue.getValue())
-                        .messageArg(nextValue.getType())
-                        .messageArg(nextValue.getValue())
-                        .build()
-                );
+                sink.accept(Diff.of(ERROR, MODIFIED, DiffCode.ANNOTATION_VALUE_MODIFIED, getElementName(), key,
+                    prevValue.getType(), prevValue.getValue(), nextValue.getType(), nextValue.getValue()));
             }
         }
     }
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassHierarchy;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ReferenceIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.INFO;
+import static org.kordamp.naum.diff.Diff.Type.ADDED;
+import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+
+/**
+ * Compares two versions of an artifact. Classes are matched by name through a hash join, and
+ * matched classes with different content are compared with a {@link ClassDiffer} in parallel.
+ * The previous version is only walked by name and its classes are fetched through their map
+ * entries once matched, so a snapshot baseline only decodes the classes that are still present.
+ * Results are emitted in class name order regardless of the parallelism of the pool; classes are
+ * compared one window at a time so only a bounded number of results is held in memory.
+ * Hierarchies of both versions and a consumer {@link ReferenceIndex}, when set, are handed to
+ * every {@link ClassDiffer}; removed classes are then only reported if some consumer refers to them
+ * or to one of their subtypes.
+ *
+ * @author Andres Almiray
+ */
+@Data(staticConstructor = "artifactDiffer")
+@ToString(exclude = {"pool", "previousHierarchy", "nextHierarchy", "references"})
+@EqualsAndHashCode(exclude = {"pool", "previousHierarchy", "nextHierarchy", "references"})
+public class ArtifactDiffer implements Differ<ArtifactInfo> {
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_ARTIFACT_CLASS_REMOVED = DiffCode.ARTIFACT_CLASS_REMOVED.getKey();
+    public static final String KEY_ARTIFACT_CLASS_ADDED = DiffCode.ARTIFACT_CLASS_ADDED.getKey();
+
+    private static final int THRESHOLD = 8;
+    private static final int WINDOW = 512;
+
+    private final ArtifactInfo previous;
+    private final ArtifactInfo next;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private ClassHierarchy previousHierarchy;
+    private ClassHierarchy nextHierarchy;
+    private ReferenceIndex references;
+
+    @Override
+    public void diff(DiffSink sink) {
+        if (previous.getContentHash().equals(next.getContentHash())) {
+            return;
+        }
+
+        // 1. hash join on class name
+        ClassHierarchy hierarchy = referenceHierarchy();
+        Map<String, ClassInfo> n = new HashMap<>(next.getClasses());
+        List<ClassResult> results = new ArrayList<>();
+        for (Map.Entry<String, ClassInfo> entry : previous.getClasses().entrySet()) {
+            String name = entry.getKey();
+            ClassInfo c = n.remove(name);
+            if (c == null) {
+                if (isReferenced(name, hierarchy)) {
+                    results.add(new ClassResult(name, classRemoved(name)));
+                }
+            } else {
+                ClassInfo p = entry.getValue();
+                if (!p.getContentHash().equals(c.getContentHash())) {
+                    results.add(new ClassResult(name, classDiffer(p, c, hierarchy)));
+                }
+            }
+        }
+        // anything left in n was added
+        for (ClassInfo c : n.values()) {
+            results.add(new ClassResult(c.getName(), classAdded(c)));
+        }
+        results.sort((a, b) -> a.name.compareTo(b.name));
+
+        // 2. compare matched classes one window at a time, emitting in class name order
+        for (int from = 0; from < results.size(); from += WINDOW) {
+            int to = Math.min(from + WINDOW, results.size());
+            List<ClassResult> window = results.subList(from, to);
+            if (window.size() > THRESHOLD) {
+                pool.invoke(new DiffTask(window, 0, window.size()));
+            } else {
+                new DiffTask(window, 0, window.size()).compute();
+            }
+
+            for (int i = 0; i < window.size(); i++) {
+                ClassResult result = window.get(i);
+                result.diffs.forEach(sink::accept);
+                // release the window as soon as it has been emitted
+                window.set(i, null);
+            }
+        }
+    }
+
+    Diff findError() {
+        if (previous.getContentHash().equals(next.getContentHash())) {
+            return null;
+        }
+
+        // removed classes are errors on their own, check them before comparing anything
+        ClassHierarchy hierarchy = referenceHierarchy();
+        Map<String, ClassInfo> n = next.getClasses();
+        List<ClassDiffer> differs = new ArrayList<>();
+        for (Map.Entry<String, ClassInfo> entry : previous.getClasses().entrySet()) {
+            String name = entry.getKey();
+            ClassInfo c = n.get(name);
+            if (c == null) {
+                if (isReferenced(name, hierarchy)) {
+                    return classRemoved(name).iterator().next();
+                }
+            } else {
+                ClassInfo p = entry.getValue();
+                if (!p.getContentHash().equals(c.getContentHash())) {
+                    differs.add(classDiffer(p, c, hierarchy));
+                }
+            }
+        }
+
+        AtomicReference<Diff> error = new AtomicReference<>();
+        ErrorTask task = new ErrorTask(differs, error, 0, differs.size());
+        if (differs.size() > THRESHOLD) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        return error.get();
+    }
+
+    /**
+     * The hierarchy used to find the subtypes of a class when filtering by references. Consumers may
+     * only name a subtype, so the previous artifact is indexed when no hierarchy was given; for a
+     * snapshot baseline that decodes every class header, pass a hierarchy to avoid it.
+     */
+    private ClassHierarchy referenceHierarchy() {
+        if (references == null || previousHierarchy != null) {
+            return previousHierarchy;
+        }
+        return ClassHierarchy.of(previous);
+    }
+
+    private boolean isReferenced(String className, ClassHierarchy hierarchy) {
+        return references == null || references.isTypeReferenced(className, hierarchy);
+    }
+
+    private ClassDiffer classDiffer(ClassInfo p, ClassInfo c, ClassHierarchy hierarchy) {
+        ClassDiffer differ = ClassDiffer.classDiffer(p, c);
+        differ.setPreviousHierarchy(hierarchy);
+        differ.setNextHierarchy(nextHierarchy);
+        differ.setReferences(references);
+        return differ;
+    }
+
+    private Collection<Diff> classRemoved(String className) {
+        return Collections.singletonList(
+            Diff.of(ERROR, REMOVED, DiffCode.ARTIFACT_CLASS_REMOVED, getElementName(), className));
+    }
+
+    private Collection<Diff> classAdded(ClassInfo klass) {
+        return Collections.singletonList(
+            Diff.of(INFO, ADDED, DiffCode.ARTIFACT_CLASS_ADDED, getElementName(), klass.getName()));
+    }
+
+    private static final class ClassResult {
+        private final String name;
+        private final ClassDiffer differ;
+        private Collection<Diff> diffs;
+
+        private ClassResult(String name, Collection<Diff> diffs) {
+            this.name = name;
+            this.differ = null;
+            this.diffs = diffs;
+        }
+
+        private ClassResult(String name, ClassDiffer differ) {
+            this.name = name;
+            this.differ = differ;
+        }
+    }
+
+    private static final class DiffTask extends RecursiveAction {
+        private final List<ClassResult> results;
+        private final int from;
+        private final int to;
+
+        private DiffTask(List<ClassResult> results, int from, int to) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    ClassResult result = results.get(i);
+                    if (result.differ != null) {
+                        result.diffs = result.differ.diff();
+                    }
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new DiffTask(results, from, middle),
+                new DiffTask(results, middle, to));
+        }
+    }
+
+    /**
+     * Checks each class with a sink of its own, so sinks stay confined to the thread that runs the
+     * {@link ClassDiffer}. The first error found stops the remaining tasks.
+     */
+    private static final class ErrorTask extends RecursiveAction {
+        private final List<ClassDiffer> differs;
+        private final AtomicReference<Diff> error;
+        private final int from;
+        private final int to;
+
+        private ErrorTask(List<ClassDiffer> differs, AtomicReference<Diff> error, int from, int to) {
+            this.differs = differs;
+            this.error = error;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (error.get() != null) {
+                return;
+            }
+
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to && error.get() == null; i++) {
+                    Diff found = CompatibilityCheck.findError(differs.get(i));
+                    if (found != null) {
+                        error.compareAndSet(null, found);
+                    }
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ErrorTask(differs, error, from, middle),
+                new ErrorTask(differs, error, middle, to));
+        }
+    }
+}
@@ -17,223 +17,323 @@ package org.kordamp.naum.diff;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.kordamp.naum.model.ClassHierarchy;
 import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.FieldInfo;
 import org.kordamp.naum.model.InnerClassInfo;
+import org.kordamp.naum.model.MethodInfo;
+import org.kordamp.naum.model.NamedInfo;
+import org.kordamp.naum.model.ReferenceIndex;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.INFO;
 import static org.kordamp.naum.diff.Diff.Severity.WARNING;
 import static org.kordamp.naum.diff.Diff.Type.ADDED;
 import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
 import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+import static org.kordamp.naum.diff.SortedMerge.merge;
+import static org.kordamp.naum.model.Modifiers.isAbstract;
+import static org.kordamp.naum.model.Modifiers.isBridge;
+import static org.kordamp.naum.model.Modifiers.isSynthetic;
 
 /**
+ * Compares two versions of a class. When the hierarchies of both versions are available, a
+ * superclass or interface change is reported as {@code INFO} instead of {@code ERROR} if the
+ * class keeps every previous supertype and every inherited public or protected member.
+ * <p>
+ * When a {@link ReferenceIndex} of consumers is set, nothing is reported for a class no consumer
+ * refers to, either directly or through a subtype found in the previous hierarchy, and removed or
+ * modified members are only reported if some consumer refers to them by owner, name and descriptor.
+ * Fields and methods may also be referenced through a subtype of their class; members without a
+ * descriptor are always reported.
+ *
  * @author Andres Almiray
  */
 @Data(staticConstructor = "classDiffer")
-@EqualsAndHashCode(callSuper = true)
+@ToString(exclude = {"previousHierarchy", "nextHierarchy", "references"})
+@EqualsAndHashCode(callSuper = true, exclude = {"previousHierarchy", "nextHierarchy", "references"})
 public class ClassDiffer extends AbstractMemberDiffer<ClassInfo> {
-    public static final String KEY_CLASS_VERSION_MODIFIED = "class.version.modified";
-    public static final String KEY_CLASS_SUPERCLASS_MODIFIED = "class.superclass.modified";
-    public static final String KEY_CLASS_INTERFACE_REMOVED = "class.interface.removed";
-    public static final String KEY_CLASS_INTERFACE_ADDED = "class.interface.added";
-    public static final String KEY_CLASS_INNERCLASS_REMOVED = "class.innerclass.removed";
-    public static final String KEY_CLASS_INNERCLASS_ADDED = "class.innerclass.added";
-    public static final String KEY_CLASS_MODIFIERS_MODIFIED = "class.modifiers.modified";
-    public static final String KEY_CLASS_TYPE_MODIFIED = "class.type.modified";
-    public static final String KEY_CLASS_ANNOTATION_REMOVED = "class.annotation.removed";
-    public static final String KEY_CLASS_ANNOTATION_ADDED = "class.annotation.added";
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_CLASS_VERSION_MODIFIED = DiffCode.CLASS_VERSION_MODIFIED.getKey();
+    public static final String KEY_CLASS_SUPERCLASS_MODIFIED = DiffCode.CLASS_SUPERCLASS_MODIFIED.getKey();
+    public static final String KEY_CLASS_INTERFACE_REMOVED = DiffCode.CLASS_INTERFACE_REMOVED.getKey();
+    public static final String KEY_CLASS_INTERFACE_ADDED = DiffCode.CLASS_INTERFACE_ADDED.getKey();
+    public static final String KEY_CLASS_INNERCLASS_REMOVED = DiffCode.CLASS_INNERCLASS_REMOVED.getKey();
+    public static final String KEY_CLASS_INNERCLASS_ADDED = DiffCode.CLASS_INNERCLASS_ADDED.getKey();
+    public static final String KEY_CLASS_INNERCLASS_MODIFIERS_MODIFIED = DiffCode.INNERCLASS_MODIFIERS_MODIFIED.getKey();
+    public static final String KEY_CLASS_CONSTRUCTOR_REMOVED = DiffCode.CLASS_CONSTRUCTOR_REMOVED.getKey();
+    public static final String KEY_CLASS_CONSTRUCTOR_ADDED = DiffCode.CLASS_CONSTRUCTOR_ADDED.getKey();
+    public static final String KEY_CLASS_FIELD_REMOVED = DiffCode.CLASS_FIELD_REMOVED.getKey();
+    public static final String KEY_CLASS_FIELD_ADDED = DiffCode.CLASS_FIELD_ADDED.getKey();
+    public static final String KEY_CLASS_METHOD_REMOVED = DiffCode.CLASS_METHOD_REMOVED.getKey();
+    public static final String KEY_CLASS_METHOD_ADDED = DiffCode.CLASS_METHOD_ADDED.getKey();
+    public static final String KEY_CLASS_MODIFIERS_MODIFIED = DiffCode.CLASS_MODIFIERS_MODIFIED.getKey();
+    public static final String KEY_CLASS_TYPE_MODIFIED = DiffCode.CLASS_TYPE_MODIFIED.getKey();
+    public static final String KEY_CLASS_ANNOTATION_REMOVED = DiffCode.CLASS_ANNOTATION_REMOVED.getKey();
+    public static final String KEY_CLASS_ANNOTATION_ADDED = DiffCode.CLASS_ANNOTATION_ADDED.getKey();
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final Comparator<NamedInfo<?>> BY_NAME = Comparator.comparing(NamedInfo::getName);
+    private static final Comparator<ConstructorInfo> BY_OVERLOAD_KEY = Comparator.comparing(ConstructorInfo::getOverloadKey);
+    private static final Comparator<MethodInfo> BY_NAME_AND_OVERLOAD_KEY = Comparator.comparing(MethodInfo::getName)
+        .thenComparing(MethodInfo::getOverloadKey);
 
     private final ClassInfo previous;
     private final ClassInfo next;
+    private ClassHierarchy previousHierarchy;
+    private ClassHierarchy nextHierarchy;
+    private ReferenceIndex references;
 
     @Override
-    public Collection<Diff> diff() {
+    public void diff(DiffSink sink) {
         if (previous.getContentHash().equals(next.getContentHash())) {
-            return Collections.emptyList();
+            return;
+        }
+        if (references != null && !references.isTypeReferenced(getElementName(), previousHierarchy)) {
+            return;
         }
-
-        List<Diff> list = new ArrayList<>();
 
         // 0. type => class | interface | enum | annotation
-        checkType(list);
+        checkType(sink);
 
         // 1. version
-        checkVersion(list);
+        checkVersion(sink);
 
         // 2. modifiers
-        checkModifiers(list, "class");
+        checkModifiers(sink, DiffCode.CLASS_MODIFIERS_MODIFIED);
 
         // 3. superclass
-        checkSuperclass(list);
+        checkSuperclass(sink);
 
         // 4. interfaces
-        checkInterfaces(list);
+        checkInterfaces(sink);
 
         // 5. type parameters
 
         // 6. annotations
-        checkAnnotations(list, "class");
+        checkAnnotations(sink, DiffCode.CLASS_ANNOTATION_REMOVED, DiffCode.CLASS_ANNOTATION_ADDED);
 
         // 7. constructors
+        checkConstructors(sink);
 
         // 8. fields
+        checkFields(sink);
 
         // 9. methods
+        checkMethods(sink);
 
         // 10. inner classes
-        checkInnerClasses(list);
-
-        return list;
+        checkInnerClasses(sink);
     }
 
-    private void checkType(Collection<Diff> list) {
+    private void checkType(DiffSink sink) {
         if (previous.getType() != next.getType()) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(MODIFIED)
-                    .messageKey(KEY_CLASS_TYPE_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getType().name().toLowerCase())
-                    .messageArg(next.getType().name().toLowerCase())
-                    .build());
+            sink.accept(Diff.of(ERROR, MODIFIED, DiffCode.CLASS_TYPE_MODIFIED,
+                getElementName(), previous.getType().name().toLowerCase(), next.getType().name().toLowerCase()));
         }
     }
 
-    private void checkVersion(Collection<Diff> list) {
+    private void checkVersion(DiffSink sink) {
         if (previous.getVersion() != next.getVersion()) {
-            list.add(
-                Diff.diff()
-                    .severity(WARNING)
-                    .type(MODIFIED)
-                    .messageKey(KEY_CLASS_VERSION_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getVersion())
-                    .messageArg(next.getVersion())
-                    .build());
+            sink.accept(Diff.of(WARNING, MODIFIED, DiffCode.CLASS_VERSION_MODIFIED,
+                getElementName(), previous.getVersion(), next.getVersion()));
         }
     }
 
-    private void checkSuperclass(Collection<Diff> list) {
+    private void checkSuperclass(DiffSink sink) {
         if (!previous.getSuperclass().equals(next.getSuperclass())) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(MODIFIED)
-                    .messageKey(KEY_CLASS_SUPERCLASS_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getSuperclass())
-                    .messageArg(next.getSuperclass())
-                    .build());
+            Diff.Severity severity = isSupertypeChangeCompatible() ? INFO : ERROR;
+            sink.accept(Diff.of(severity, MODIFIED, DiffCode.CLASS_SUPERCLASS_MODIFIED,
+                getElementName(), previous.getSuperclass(), next.getSuperclass()));
         }
     }
 
-    private void checkInterfaces(Collection<Diff> list) {
+    private void checkInterfaces(DiffSink sink) {
         if (!Arrays.equals(previous.getInterfaces(), next.getInterfaces())) {
-            List<String> p = new ArrayList<>(asList(previous.getInterfaces()));
-            List<String> n = new ArrayList<>(asList(next.getInterfaces()));
-
-            List<String> c = new ArrayList<>();
-            for (String i : p) {
-                if (n.contains(i)) {
-                    c.add(i);
-                }
-            }
-
-            p.removeAll(c);
-            n.removeAll(c);
+            List<String> p = new ArrayList<>();
+            List<String> n = new ArrayList<>();
+            merge(asList(previous.getInterfaces()), asList(next.getInterfaces()), Comparator.<String>naturalOrder(),
+                p::add, n::add, (a, b) -> { });
+            Diff.Severity severity = isSupertypeChangeCompatible() ? INFO : ERROR;
 
             // anything left in p was removed
             for (String i : p) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(REMOVED)
-                        .messageKey(KEY_CLASS_INTERFACE_REMOVED)
-                        .messageArg(getElementName())
-                        .messageArg(i)
-                        .build());
+                sink.accept(Diff.of(severity, REMOVED, DiffCode.CLASS_INTERFACE_REMOVED, getElementName(), i));
             }
             // anything left in n was added
             for (String i : n) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(ADDED)
-                        .messageKey(KEY_CLASS_INTERFACE_ADDED)
-                        .messageArg(getElementName())
-                        .messageArg(i)
-                        .build());
+                sink.accept(Diff.of(severity, ADDED, DiffCode.CLASS_INTERFACE_ADDED, getElementName(), i));
             }
         }
     }
 
-    private void checkInnerClasses(final Collection<Diff> list) {
-        Map<String, InnerClassInfo> p = innerClassesAsMap(getPrevious().getClasses());
-        Map<String, InnerClassInfo> n = innerClassesAsMap(getNext().getClasses());
+    private boolean isSupertypeChangeCompatible() {
+        if (previousHierarchy == null || nextHierarchy == null) {
+            return false;
+        }
+
+        // types outside of the hierarchies contribute the same members to both versions
+        String name = getElementName();
+        Set<String> supertypes = nextHierarchy.getSupertypes(next.getName());
+        Set<String> members = nextHierarchy.getInheritedMembers(next.getName());
+        return supertypes.containsAll(previousHierarchy.getSupertypes(name)) &&
+            members.containsAll(previousHierarchy.getInheritedMembers(name));
+    }
+
+    private void checkConstructors(DiffSink sink) {
+        if (previous.getConstructorsHash().equals(next.getConstructorsHash())) {
+            return;
+        }
 
-        // 1. remove equal elements
-        Set<String> hashes = new HashSet<>(p.keySet());
-        hashes.forEach(hash -> {
-            if (n.containsKey(hash)) {
-                p.remove(hash);
-                n.remove(hash);
+        // constructors and methods are stored in overload key order, see their compareTo
+        merge(previous.getConstructors(), next.getConstructors(), BY_OVERLOAD_KEY,
+            c -> {
+                if (isReferenced(CONSTRUCTOR_NAME, c.getDescriptor(), null)) {
+                    sink.accept(memberDiff(ERROR, REMOVED, DiffCode.CLASS_CONSTRUCTOR_REMOVED, "(" + c.getArgumentTypes() + ")"));
+                }
+            },
+            c -> sink.accept(memberDiff(INFO, ADDED, DiffCode.CLASS_CONSTRUCTOR_ADDED, "(" + c.getArgumentTypes() + ")")),
+            (p, n) -> {
+                if (!p.getContentHash().equals(n.getContentHash()) && isReferenced(CONSTRUCTOR_NAME, p.getDescriptor(), null)) {
+                    ConstructorDiffer.constructorDiffer(getElementName(), p, n).diff(sink);
+                }
+            });
+    }
+
+    private void checkFields(DiffSink sink) {
+        if (previous.getFieldsHash().equals(next.getFieldsHash())) {
+            return;
+        }
+
+        // enum constants keep their declaration order
+        merge(sorted(previous.getFields(), BY_NAME), sorted(next.getFields(), BY_NAME), BY_NAME,
+            f -> {
+                if (isReferenced(f.getName(), f.getDescriptor(), previousHierarchy)) {
+                    sink.accept(memberDiff(ERROR, REMOVED, DiffCode.CLASS_FIELD_REMOVED, f.getName()));
+                }
+            },
+            f -> sink.accept(memberDiff(INFO, ADDED, DiffCode.CLASS_FIELD_ADDED, f.getName())),
+            (p, n) -> {
+                if (!p.getContentHash().equals(n.getContentHash()) && isReferenced(p.getName(), p.getDescriptor(), previousHierarchy)) {
+                    FieldDiffer.fieldDiffer(getElementName(), p, n).diff(sink);
+                }
+            });
+    }
+
+    private void checkMethods(DiffSink sink) {
+        if (previous.getMethodsHash().equals(next.getMethodsHash())) {
+            return;
+        }
+
+        // bridges are matched through the methods they delegate to
+        Set<String> bridges = new HashSet<>();
+        for (MethodInfo m : next.getMethods()) {
+            if (isBridge(m.getModifiers()) && m.getDescriptor() != null) {
+                bridges.add(m.getName() + m.getDescriptor());
             }
-        });
+        }
+
+        merge(declared(previous.getMethods()), declared(next.getMethods()), BY_NAME_AND_OVERLOAD_KEY,
+            m -> {
+                if (isReferenced(m.getName(), m.getDescriptor(), previousHierarchy)) {
+                    sink.accept(memberDiff(ERROR, REMOVED, DiffCode.CLASS_METHOD_REMOVED, methodName(m)));
+                }
+            },
+            // new abstract methods must be implemented by existing subclasses
+            m -> sink.accept(memberDiff(isAbstract(m.getModifiers()) ? ERROR : INFO, ADDED, DiffCode.CLASS_METHOD_ADDED, methodName(m))),
+            (p, n) -> {
+                if (!p.getContentHash().equals(n.getContentHash()) && isReferenced(p.getName(), p.getDescriptor(), previousHierarchy)) {
+                    MethodDiffer differ = MethodDiffer.methodDiffer(getElementName(), p, n);
+                    differ.setBridged(p.getDescriptor() != null && bridges.contains(p.getName() + p.getDescriptor()));
+                    differ.diff(sink);
+                }
+            });
+    }
+
+    /**
+     * Drops synthetic methods and bridges, keeping the order of the given methods. Returns the same list
+     * when there is nothing to drop.
+     */
+    private static List<MethodInfo> declared(List<MethodInfo> methods) {
+        List<MethodInfo> declared = null;
+        for (int i = 0; i < methods.size(); i++) {
+            MethodInfo m = methods.get(i);
+            boolean generated = isSynthetic(m.getModifiers()) || isBridge(m.getModifiers());
+            if (generated && declared == null) {
+                declared = new ArrayList<>(methods.subList(0, i));
+            } else if (!generated && declared != null) {
+                declared.add(m);
+            }
+        }
+        return declared != null ? declared : methods;
+    }
+
+    /**
+     * Constructors are not inherited, hence they are looked up without a hierarchy.
+     */
+    private boolean isReferenced(String memberName, @Nullable String descriptor, @Nullable ClassHierarchy hierarchy) {
+        return references == null || descriptor == null ||
+            references.isMemberReferenced(getElementName(), memberName, descriptor, hierarchy);
+    }
 
-        // search for p.name == n.name
-        // matches mean updates were made to that element
-        hashes = new HashSet<>(p.keySet());
-        hashes.forEach(hash -> {
-            InnerClassInfo pic = p.get(hash);
-            n.values().stream()
-                .filter(it -> it.getName().equals(pic.getName()))
-                .findAny()
-                .ifPresent(nic -> {
-                    p.remove(hash);
-                    n.remove(nic.getContentHash());
-                    checkModifiers(getPrevious(), getNext(), list, "innerclass");
-                });
+    private void checkInnerClasses(DiffSink sink) {
+        if (previous.getClassesHash().equals(next.getClassesHash())) {
+            return;
+        }
+
+        List<InnerClassInfo> p = new ArrayList<>();
+        List<InnerClassInfo> n = new ArrayList<>();
+        merge(previous.getClasses(), next.getClasses(), BY_NAME, p::add, n::add, (pic, nic) -> {
+            // matches by name mean updates were made to that element
+            if (!pic.getContentHash().equals(nic.getContentHash())) {
+                checkModifiers(pic.getName(), pic, nic, sink, DiffCode.INNERCLASS_MODIFIERS_MODIFIED);
+            }
         });
 
         // anything left in p was removed
-        for (InnerClassInfo c : p.values()) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(REMOVED)
-                    .messageKey(KEY_CLASS_INNERCLASS_REMOVED)
-                    .messageArg(getElementName())
-                    .messageArg(c)
-                    .build());
+        for (InnerClassInfo c : p) {
+            sink.accept(Diff.of(ERROR, REMOVED, DiffCode.CLASS_INNERCLASS_REMOVED, getElementName(), c.getName()));
         }
         // anything left in n was added
-        for (InnerClassInfo c : n.values()) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(ADDED)
-                    .messageKey(KEY_CLASS_INNERCLASS_ADDED)
-                    .messageArg(getElementName())
-                    .messageArg(c)
-                    .build());
+        for (InnerClassInfo c : n) {
+            sink.accept(Diff.of(ERROR, ADDED, DiffCode.CLASS_INNERCLASS_ADDED, getElementName(), c.getName()));
+        }
+    }
+
+    private Diff memberDiff(Diff.Severity severity, Diff.Type type, DiffCode code, String member) {
+        return Diff.of(severity, type, code, getElementName(), member);
+    }
+
+    private static String methodName(MethodInfo method) {
+        return method.getName() + "(" + method.getArgumentTypes() + ")";
+    }
+
+    private static <T> List<T> sorted(List<T> members, Comparator<? super T> order) {
+        if (isSorted(members, order)) {
+            return members;
         }
+        List<T> copy = new ArrayList<>(members);
+        copy.sort(order);
+        return copy;
     }
 
-    protected Map<String, InnerClassInfo> innerClassesAsMap(List<InnerClassInfo> innerClasses) {
-        return innerClasses.stream()
-            .collect(toMap(InnerClassInfo::getContentHash, identity()));
+    private static <T> boolean isSorted(List<T> members, Comparator<? super T> order) {
+        for (int i = 1; i < members.size(); i++) {
+            if (order.compare(members.get(i - 1), members.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import org.kordamp.naum.model.NamedInfo;
+
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+
+/**
+ * Answers whether the next version of an element is binary compatible with the previous one.
+ * Differs are evaluated lazily and the check stops at the first {@link Diff.Severity#ERROR},
+ * cancelling any outstanding parallel work. Use {@link Differ#diff()} for a full report.
+ *
+ * @author Andres Almiray
+ */
+public final class CompatibilityCheck {
+    private CompatibilityCheck() {
+        // noop
+    }
+
+    public static boolean isCompatible(Differ<? extends NamedInfo> differ) {
+        return findError(differ) == null;
+    }
+
+    /**
+     * Returns the first error found, or {@code null} if both versions are compatible.
+     * When classes are compared in parallel the error is not necessarily the first one
+     * in class name order.
+     */
+    public static Diff findError(Differ<? extends NamedInfo> differ) {
+        if (differ instanceof ArtifactDiffer) {
+            return ((ArtifactDiffer) differ).findError();
+        }
+
+        ErrorSink sink = new ErrorSink();
+        try {
+            differ.diff(sink);
+        } catch (Stop stop) {
+            // first error found
+        }
+        return sink.error;
+    }
+
+    private static final class ErrorSink implements DiffSink {
+        private Diff error;
+
+        @Override
+        public void accept(Diff diff) {
+            if (diff.getSeverity() == ERROR) {
+                error = diff;
+                throw Stop.INSTANCE;
+            }
+        }
+    }
+
+    private static final class Stop extends RuntimeException {
+        private static final Stop INSTANCE = new Stop();
+
+        private Stop() {
+            super(null, null, false, false);
+        }
+    }
+}
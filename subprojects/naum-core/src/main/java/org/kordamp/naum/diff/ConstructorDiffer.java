@@ -21,14 +21,14 @@ import org.kordamp.naum.model.ConstructorInfo;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
 import static org.kordamp.naum.diff.Diff.Type.ADDED;
 import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+import static org.kordamp.naum.diff.SortedMerge.merge;
 
 /**
  * @author Andres Almiray
@@ -36,71 +36,54 @@ import static org.kordamp.naum.diff.Diff.Type.REMOVED;
 @Data(staticConstructor = "constructorDiffer")
 @EqualsAndHashCode(callSuper = true)
 public class ConstructorDiffer extends AbstractMemberDiffer<ConstructorInfo> {
-    public static final String KEY_CONSTRUCTOR_MODIFIERS_MODIFIED = "constructor.modifiers.modified";
-    public static final String KEY_CONSTRUCTOR_EXCEPTION_REMOVED = "constructor.exception.removed";
-    public static final String KEY_CONSTRUCTOR_EXCEPTION_ADDED = "constructor.exception.added";
-    public static final String KEY_CONSTRUCTOR_ANNOTATION_REMOVED = "constructor.annotation.removed";
-    public static final String KEY_CONSTRUCTOR_ANNOTATION_ADDED = "constructor.annotation.added";
-
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_CONSTRUCTOR_MODIFIERS_MODIFIED = DiffCode.CONSTRUCTOR_MODIFIERS_MODIFIED.getKey();
+    public static final String KEY_CONSTRUCTOR_EXCEPTION_REMOVED = DiffCode.CONSTRUCTOR_EXCEPTION_REMOVED.getKey();
+    public static final String KEY_CONSTRUCTOR_EXCEPTION_ADDED = DiffCode.CONSTRUCTOR_EXCEPTION_ADDED.getKey();
+    public static final String KEY_CONSTRUCTOR_ANNOTATION_REMOVED = DiffCode.CONSTRUCTOR_ANNOTATION_REMOVED.getKey();
+    public static final String KEY_CONSTRUCTOR_ANNOTATION_ADDED = DiffCode.CONSTRUCTOR_ANNOTATION_ADDED.getKey();
+
+    private final String owner;
     private final ConstructorInfo previous;
     private final ConstructorInfo next;
 
     @Override
-    public Collection<Diff> diff() {
+    public String getElementName() {
+        return owner + "(" + previous.getArgumentTypes() + ")";
+    }
+
+    @Override
+    public void diff(DiffSink sink) {
         if (previous.getContentHash().equals(next.getContentHash())) {
-            return Collections.emptyList();
+            return;
         }
 
-        List<Diff> list = new ArrayList<>();
-
         // 1. modifiers
-        checkModifiers(list, "constructor");
+        checkModifiers(sink, DiffCode.CONSTRUCTOR_MODIFIERS_MODIFIED);
 
         // 2. arguments
 
         // 3. exceptions
-        checkExceptions(list);
+        checkExceptions(sink);
 
         // 4. annotations
-        checkAnnotations(list, "constructor");
-
-        return list;
+        checkAnnotations(sink, DiffCode.CONSTRUCTOR_ANNOTATION_REMOVED, DiffCode.CONSTRUCTOR_ANNOTATION_ADDED);
     }
 
-    private void checkExceptions(Collection<Diff> list) {
+    private void checkExceptions(DiffSink sink) {
         if (!Arrays.equals(previous.getExceptions(), next.getExceptions())) {
-            List<String> p = new ArrayList<>(asList(previous.getExceptions()));
-            List<String> n = new ArrayList<>(asList(next.getExceptions()));
-
-            List<String> c = new ArrayList<>();
-            for (String i : p) {
-                if (n.contains(i)) {
-                    c.add(i);
-                }
-            }
-
-            p.removeAll(c);
-            n.removeAll(c);
+            List<String> p = new ArrayList<>();
+            List<String> n = new ArrayList<>();
+            merge(asList(previous.getExceptions()), asList(next.getExceptions()), Comparator.<String>naturalOrder(),
+                p::add, n::add, (a, b) -> { });
 
             // anything left in p was removed
             for (String e : p) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(REMOVED)
-                        .messageKey(KEY_CONSTRUCTOR_EXCEPTION_REMOVED)
-                        .messageArg(e)
-                        .build());
+                sink.accept(Diff.of(ERROR, REMOVED, DiffCode.CONSTRUCTOR_EXCEPTION_REMOVED, getElementName(), e));
             }
             // anything left in n was added
             for (String e : n) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(ADDED)
-                        .messageKey(KEY_CONSTRUCTOR_EXCEPTION_ADDED)
-                        .messageArg(e)
-                        .build());
+                sink.accept(Diff.of(ERROR, ADDED, DiffCode.CONSTRUCTOR_EXCEPTION_ADDED, getElementName(), e));
             }
         }
     }
@@ -15,20 +15,37 @@
  */
 package org.kordamp.naum.diff;
 
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Singular;
+import org.kordamp.naum.model.NamedInfo;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static java.util.Objects.requireNonNull;
 
 /**
+ * A single difference between two versions of an element. Diffs are compact: the message key
+ * is held as a {@link DiffCode} and message arguments are reduced to strings when the diff is
+ * built, so a diff never keeps model objects alive. Messages are only formatted on request.
+ *
  * @author Andres Almiray
  */
-@Data
-public class Diff {
+@Getter
+@EqualsAndHashCode
+public final class Diff {
+    private static final String[] NO_ARGS = new String[0];
+    private static final String MESSAGES = "org.kordamp.naum.diff.Messages";
+
     public enum Severity {
         INFO,
         WARNING,
@@ -43,24 +60,83 @@ public class Diff {
 
     private final Severity severity;
     private final Type type;
-    private final String messageKey;
-    private final List<Object> messageArgs = new ArrayList<>();
+    private final DiffCode code;
+    @Getter(AccessLevel.NONE)
+    private final String[] args;
+
+    private Diff(Severity severity, Type type, DiffCode code, String[] args) {
+        this.severity = requireNonNull(severity, "Argument 'severity' must not be null");
+        this.type = requireNonNull(type, "Argument 'type' must not be null");
+        this.code = requireNonNull(code, "Argument 'code' must not be null");
+        this.args = args;
+    }
 
     @Builder(builderMethodName = "diff")
     public static Diff create(@Nonnull Severity severity, @Nonnull Type type, @Nonnull String messageKey, @Nullable @Singular List<Object> messageArgs) {
-        Diff diff = new Diff(severity, type, messageKey);
-        if (messageArgs != null) {
-            diff.getMessageArgs().addAll(messageArgs);
+        String[] args = NO_ARGS;
+        if (messageArgs != null && !messageArgs.isEmpty()) {
+            args = new String[messageArgs.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = toArg(messageArgs.get(i));
+            }
+        }
+        return new Diff(severity, type, DiffCode.of(messageKey), args);
+    }
+
+    public static Diff of(@Nonnull Severity severity, @Nonnull Type type, @Nonnull DiffCode code, Object... messageArgs) {
+        String[] args = NO_ARGS;
+        if (messageArgs != null && messageArgs.length > 0) {
+            args = new String[messageArgs.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = toArg(messageArgs[i]);
+            }
+        }
+        return new Diff(severity, type, code, args);
+    }
+
+    private static String toArg(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        } else if (value instanceof NamedInfo) {
+            // never hold on to the model
+            return ((NamedInfo<?>) value).getName();
+        } else if (value instanceof Object[]) {
+            return Arrays.deepToString((Object[]) value);
         }
-        return diff;
+        return String.valueOf(value);
+    }
+
+    public String getMessageKey() {
+        return code.getKey();
+    }
+
+    public List<Object> getMessageArgs() {
+        return Collections.<Object>unmodifiableList(Arrays.asList(args));
+    }
+
+    public String getMessage() {
+        return getMessage(Locale.getDefault());
+    }
+
+    public String getMessage(@Nonnull Locale locale) {
+        return format(ResourceBundle.getBundle(MESSAGES, locale));
+    }
+
+    public String format(@Nonnull ResourceBundle messages) {
+        return new MessageFormat(messages.getString(code.getKey()), messages.getLocale()).format(args);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
     }
 
     public String asString() {
         final StringBuilder sb = new StringBuilder("Diff{");
         sb.append("severity=").append(severity);
         sb.append(", type=").append(type);
-        sb.append(", messageKey='").append(messageKey).append('\'');
-        sb.append(", messageArgs=").append(messageArgs);
+        sb.append(", messageKey='").append(code.getKey()).append('\'');
+        sb.append(", messageArgs=").append(Arrays.toString(args));
         sb.append('}');
         return sb.toString();
     }
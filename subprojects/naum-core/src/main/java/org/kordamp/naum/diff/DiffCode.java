@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identifies the kind of a {@link Diff}. Each code maps to a message key in {@code Messages.properties}.
+ * The first argument of every message names the element that changed; field, constructor and method codes
+ * qualify it with the owning class, as in {@code Owner#field}, {@code Owner#method(args)} and
+ * {@code Owner(args)}.
+ *
+ * @author Andres Almiray
+ */
+public enum DiffCode {
+    ARTIFACT_CLASS_REMOVED("artifact.class.removed"),
+    ARTIFACT_CLASS_ADDED("artifact.class.added"),
+    CLASS_VERSION_MODIFIED("class.version.modified"),
+    CLASS_SUPERCLASS_MODIFIED("class.superclass.modified"),
+    CLASS_INTERFACE_REMOVED("class.interface.removed"),
+    CLASS_INTERFACE_ADDED("class.interface.added"),
+    CLASS_INNERCLASS_REMOVED("class.innerclass.removed"),
+    CLASS_INNERCLASS_ADDED("class.innerclass.added"),
+    CLASS_MODIFIERS_MODIFIED("class.modifiers.modified"),
+    CLASS_TYPE_MODIFIED("class.type.modified"),
+    CLASS_ANNOTATION_ADDED("class.annotation.added"),
+    CLASS_ANNOTATION_REMOVED("class.annotation.removed"),
+    CLASS_CONSTRUCTOR_REMOVED("class.constructor.removed"),
+    CLASS_CONSTRUCTOR_ADDED("class.constructor.added"),
+    CLASS_FIELD_REMOVED("class.field.removed"),
+    CLASS_FIELD_ADDED("class.field.added"),
+    CLASS_METHOD_REMOVED("class.method.removed"),
+    CLASS_METHOD_ADDED("class.method.added"),
+    INNERCLASS_MODIFIERS_MODIFIED("innerclass.modifiers.modified"),
+    FIELD_MODIFIERS_MODIFIED("field.modifiers.modified"),
+    FIELD_TYPE_MODIFIED("field.type.modified"),
+    FIELD_VALUE_MODIFIED("field.value.modified"),
+    FIELD_ANNOTATION_ADDED("field.annotation.added"),
+    FIELD_ANNOTATION_REMOVED("field.annotation.removed"),
+    CONSTRUCTOR_EXCEPTION_REMOVED("constructor.exception.removed"),
+    CONSTRUCTOR_EXCEPTION_ADDED("constructor.exception.added"),
+    CONSTRUCTOR_MODIFIERS_MODIFIED("constructor.modifiers.modified"),
+    CONSTRUCTOR_ANNOTATION_ADDED("constructor.annotation.added"),
+    CONSTRUCTOR_ANNOTATION_REMOVED("constructor.annotation.removed"),
+    METHOD_TYPE_MODIFIED("method.type.modified"),
+    METHOD_EXCEPTION_REMOVED("method.exception.removed"),
+    METHOD_EXCEPTION_ADDED("method.exception.added"),
+    METHOD_MODIFIERS_MODIFIED("method.modifiers.modified"),
+    METHOD_ANNOTATION_ADDED("method.annotation.added"),
+    METHOD_ANNOTATION_REMOVED("method.annotation.removed"),
+    ANNOTATION_VALUE_ADDED("annotation.value.added"),
+    ANNOTATION_VALUE_REMOVED("annotation.value.removed"),
+    ANNOTATION_VALUE_MODIFIED("annotation.value.modified");
+
+    private static final Map<String, DiffCode> BY_KEY = new HashMap<>();
+
+    static {
+        for (DiffCode code : values()) {
+            BY_KEY.put(code.key, code);
+        }
+    }
+
+    private final String key;
+
+    DiffCode(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static DiffCode of(String key) {
+        DiffCode code = BY_KEY.get(key);
+        if (code == null) {
+            throw new IllegalArgumentException("Unknown message key " + key);
+        }
+        return code;
+    }
+}
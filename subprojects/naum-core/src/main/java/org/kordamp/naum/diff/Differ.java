@@ -17,7 +17,9 @@ package org.kordamp.naum.diff;
 
 import org.kordamp.naum.model.NamedInfo;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author Andres Almiray
@@ -27,7 +29,13 @@ public interface Differ<T extends NamedInfo> {
 
     T getNext();
 
-    Collection<Diff> diff();
+    void diff(DiffSink sink);
+
+    default Collection<Diff> diff() {
+        List<Diff> list = new ArrayList<>();
+        diff(list::add);
+        return list;
+    }
 
     default String getElementName() {
         return getPrevious().getName();
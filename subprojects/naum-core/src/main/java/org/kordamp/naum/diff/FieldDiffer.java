@@ -19,10 +19,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.kordamp.naum.model.FieldInfo;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
 import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
@@ -34,36 +30,39 @@ import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
 @Data(staticConstructor = "fieldDiffer")
 @EqualsAndHashCode(callSuper = true)
 public class FieldDiffer extends AbstractMemberDiffer<FieldInfo> {
-    public static final String KEY_FIELD_MODIFIERS_MODIFIED = "field.modifiers.modified";
-    public static final String KEY_FIELD_TYPE_MODIFIED = "field.type.modified";
-    public static final String KEY_FIELD_VALUE_MODIFIED = "field.value.modified";
-    public static final String KEY_FIELD_ANNOTATION_REMOVED = "field.annotation.removed";
-    public static final String KEY_FIELD_ANNOTATION_ADDED = "field.annotation.added";
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_FIELD_MODIFIERS_MODIFIED = DiffCode.FIELD_MODIFIERS_MODIFIED.getKey();
+    public static final String KEY_FIELD_TYPE_MODIFIED = DiffCode.FIELD_TYPE_MODIFIED.getKey();
+    public static final String KEY_FIELD_VALUE_MODIFIED = DiffCode.FIELD_VALUE_MODIFIED.getKey();
+    public static final String KEY_FIELD_ANNOTATION_REMOVED = DiffCode.FIELD_ANNOTATION_REMOVED.getKey();
+    public static final String KEY_FIELD_ANNOTATION_ADDED = DiffCode.FIELD_ANNOTATION_ADDED.getKey();
 
+    private final String owner;
     private final FieldInfo previous;
     private final FieldInfo next;
 
     @Override
-    public Collection<Diff> diff() {
+    public String getElementName() {
+        return owner + "#" + previous.getName();
+    }
+
+    @Override
+    public void diff(DiffSink sink) {
         if (previous.getContentHash().equals(next.getContentHash())) {
-            return Collections.emptyList();
+            return;
         }
 
-        List<Diff> list = new ArrayList<>();
-
         // 1. modifiers
-        checkModifiers(list, "field");
+        checkModifiers(sink, DiffCode.FIELD_MODIFIERS_MODIFIED);
 
         // 2. type
-        checkType(list);
+        checkType(sink);
 
         // 3. value
-        checkValue(list);
+        checkValue(sink);
 
         // 4. annotations
-        checkAnnotations(list, "field");
-
-        return list;
+        checkAnnotations(sink, DiffCode.FIELD_ANNOTATION_REMOVED, DiffCode.FIELD_ANNOTATION_ADDED);
     }
 
     private boolean isEquals(Object a, Object b) {
@@ -76,31 +75,17 @@ public class FieldDiffer extends AbstractMemberDiffer<FieldInfo> {
         return a.equals(b);
     }
 
-    private void checkValue(List<Diff> list) {
+    private void checkValue(DiffSink sink) {
         if (!isEquals(previous.getValue(), next.getValue())) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(MODIFIED)
-                    .messageKey(KEY_FIELD_VALUE_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getValue())
-                    .messageArg(next.getValue())
-                    .build());
+            sink.accept(Diff.of(ERROR, MODIFIED, DiffCode.FIELD_VALUE_MODIFIED,
+                getElementName(), previous.getValue(), next.getValue()));
         }
     }
 
-    private void checkType(List<Diff> list) {
+    private void checkType(DiffSink sink) {
         if (!previous.getType().equals(next.getType())) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(MODIFIED)
-                    .messageKey(KEY_FIELD_TYPE_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getType())
-                    .messageArg(next.getType())
-                    .build());
+            sink.accept(Diff.of(ERROR, MODIFIED, DiffCode.FIELD_TYPE_MODIFIED,
+                getElementName(), previous.getType(), next.getType()));
         }
     }
 }
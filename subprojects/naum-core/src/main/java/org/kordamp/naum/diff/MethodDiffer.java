@@ -21,107 +21,91 @@ import org.kordamp.naum.model.MethodInfo;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
 import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
+import static org.kordamp.naum.diff.SortedMerge.merge;
 
 /**
+ * Compares two versions of a method with the same name and arguments. A return type change is not
+ * reported when the next version keeps a bridge method with the previous descriptor.
+ *
  * @author Andres Almiray
  */
 @Data(staticConstructor = "methodDiffer")
 @EqualsAndHashCode(callSuper = true)
 public class MethodDiffer extends AbstractMemberDiffer<MethodInfo> {
-    public static final String KEY_METHOD_MODIFIERS_MODIFIED = "method.modifiers.modified";
-    public static final String KEY_METHOD_TYPE_MODIFIED = "method.type.modified";
-    public static final String KEY_METHOD_EXCEPTION_REMOVED = "method.exception.removed";
-    public static final String KEY_METHOD_EXCEPTION_ADDED = "method.exception.added";
-    public static final String KEY_METHOD_ANNOTATION_REMOVED = "method.annotation.removed";
-    public static final String KEY_METHOD_ANNOTATION_ADDED = "method.annotation.added";
-
+    // message keys of the diffs reported by this differ, DiffCode is the source of truth
+    public static final String KEY_METHOD_MODIFIERS_MODIFIED = DiffCode.METHOD_MODIFIERS_MODIFIED.getKey();
+    public static final String KEY_METHOD_TYPE_MODIFIED = DiffCode.METHOD_TYPE_MODIFIED.getKey();
+    public static final String KEY_METHOD_EXCEPTION_REMOVED = DiffCode.METHOD_EXCEPTION_REMOVED.getKey();
+    public static final String KEY_METHOD_EXCEPTION_ADDED = DiffCode.METHOD_EXCEPTION_ADDED.getKey();
+    public static final String KEY_METHOD_ANNOTATION_REMOVED = DiffCode.METHOD_ANNOTATION_REMOVED.getKey();
+    public static final String KEY_METHOD_ANNOTATION_ADDED = DiffCode.METHOD_ANNOTATION_ADDED.getKey();
+
+    private final String owner;
     private final MethodInfo previous;
     private final MethodInfo next;
+    private boolean bridged;
+
+    @Override
+    public String getElementName() {
+        return owner + "#" + previous.getName() + "(" + previous.getArgumentTypes() + ")";
+    }
 
     @Override
-    public Collection<Diff> diff() {
+    public void diff(DiffSink sink) {
         if (previous.getContentHash().equals(next.getContentHash())) {
-            return Collections.emptyList();
+            return;
         }
 
-        List<Diff> list = new ArrayList<>();
-
         // 1. modifiers
-        checkModifiers(list, "method");
+        checkModifiers(sink, DiffCode.METHOD_MODIFIERS_MODIFIED);
 
         // 2. type
-        checkReturnType(list);
+        checkReturnType(sink);
 
         // 3. type parameters
 
         // 4. arguments
 
         // 5. exceptions
-        checkExceptions(list);
+        checkExceptions(sink);
 
         // 6. annotations
-        checkAnnotations(list, "method");
-
-        return list;
+        checkAnnotations(sink, DiffCode.METHOD_ANNOTATION_REMOVED, DiffCode.METHOD_ANNOTATION_ADDED);
     }
 
-    private void checkReturnType(List<Diff> list) {
+    private void checkReturnType(DiffSink sink) {
+        if (previous.getDescriptor() != null && next.getDescriptor() != null) {
+            // same erasure, or a covariant return type whose bridge keeps the previous descriptor
+            if (bridged || previous.getDescriptor().equals(next.getDescriptor())) {
+                return;
+            }
+        }
         if (!previous.getReturnType().equals(next.getReturnType())) {
-            list.add(
-                Diff.diff()
-                    .severity(ERROR)
-                    .type(MODIFIED)
-                    .messageKey(KEY_METHOD_TYPE_MODIFIED)
-                    .messageArg(getElementName())
-                    .messageArg(previous.getReturnType())
-                    .messageArg(next.getReturnType())
-                    .build());
+            sink.accept(Diff.of(ERROR, MODIFIED, DiffCode.METHOD_TYPE_MODIFIED,
+                getElementName(), previous.getReturnType(), next.getReturnType()));
         }
     }
 
-    private void checkExceptions(Collection<Diff> list) {
+    private void checkExceptions(DiffSink sink) {
         if (!Arrays.equals(previous.getExceptions(), next.getExceptions())) {
-            List<String> p = new ArrayList<>(asList(previous.getExceptions()));
-            List<String> n = new ArrayList<>(asList(next.getExceptions()));
-
-            List<String> c = new ArrayList<>();
-            for (String i : p) {
-                if (n.contains(i)) {
-                    c.add(i);
-                }
-            }
-
-            p.removeAll(c);
-            n.removeAll(c);
+            List<String> p = new ArrayList<>();
+            List<String> n = new ArrayList<>();
+            merge(asList(previous.getExceptions()), asList(next.getExceptions()), Comparator.<String>naturalOrder(),
+                p::add, n::add, (a, b) -> { });
 
             // anything left in p was removed
             for (String e : p) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(Diff.Type.REMOVED)
-                        .messageKey(KEY_METHOD_EXCEPTION_REMOVED)
-                        .messageArg(getElementName())
-                        .messageArg(e)
-                        .build());
+                sink.accept(Diff.of(ERROR, Diff.Type.REMOVED, DiffCode.METHOD_EXCEPTION_REMOVED, getElementName(), e));
             }
             // anything left in n was added
             for (String e : n) {
-                list.add(
-                    Diff.diff()
-                        .severity(ERROR)
-                        .type(Diff.Type.ADDED)
-                        .messageKey(KEY_METHOD_EXCEPTION_ADDED)
-                        .messageArg(getElementName())
-                        .messageArg(e)
-                        .build());
+                sink.accept(Diff.of(ERROR, Diff.Type.ADDED, DiffCode.METHOD_EXCEPTION_ADDED, getElementName(), e));
             }
         }
     }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Matches the elements of two lists sorted in the same order with a single merge pass. Elements
+ * that compare as equal are matched pairwise; surplus elements on either side are reported as
+ * removed or added.
+ *
+ * @author Andres Almiray
+ */
+final class SortedMerge {
+    private SortedMerge() {
+
+    }
+
+    static <T> void merge(List<? extends T> previous,
+                          List<? extends T> next,
+                          Comparator<? super T> order,
+                          Consumer<? super T> removed,
+                          Consumer<? super T> added,
+                          BiConsumer<? super T, ? super T> matched) {
+        int p = 0;
+        int n = 0;
+        int ps = previous.size();
+        int ns = next.size();
+        while (p < ps && n < ns) {
+            T a = previous.get(p);
+            T b = next.get(n);
+            int cmp = order.compare(a, b);
+            if (cmp < 0) {
+                removed.accept(a);
+                p++;
+            } else if (cmp > 0) {
+                added.accept(b);
+                n++;
+            } else {
+                matched.accept(a, b);
+                p++;
+                n++;
+            }
+        }
+        for (; p < ps; p++) {
+            removed.accept(previous.get(p));
+        }
+        for (; n < ns; n++) {
+            added.accept(next.get(n));
+        }
+    }
+}
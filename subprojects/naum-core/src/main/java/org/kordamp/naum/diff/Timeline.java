@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ContentHash;
+import org.kordamp.naum.model.ContentHasher;
+import org.kordamp.naum.model.NamedInfo;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compares every release of an artifact with the next one. Each release is loaded exactly once,
+ * one release ahead of the comparison in progress, so at most three releases are held in memory
+ * at any time.
+ * <p>
+ * When {@code anyToAny} is set every release is also reduced to a sorted fingerprint of 64-bit
+ * hashes, one per class header and one per member, and every pair of releases is scored by the
+ * share of fingerprints of the older release found unchanged in the newer one. That score is
+ * cheap to compute for all pairs but only approximates a full comparison: additions, including
+ * abstract methods, are not counted against a pair.
+ *
+ * @author Andres Almiray
+ */
+@Data(staticConstructor = "timeline")
+@ToString(exclude = "pool")
+@EqualsAndHashCode(exclude = "pool")
+public class Timeline {
+    private final Loader loader;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private boolean anyToAny;
+
+    /**
+     * Loads the model of a single release.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        ArtifactInfo load(Path path) throws IOException;
+    }
+
+    public Report compare(@Nonnull List<Path> releases) throws IOException {
+        requireNonNull(releases, "Argument 'releases' must not be null");
+
+        int size = releases.size();
+        List<String> names = new ArrayList<>(size);
+        List<Step> steps = new ArrayList<>(Math.max(size - 1, 0));
+        long[][] fingerprints = anyToAny ? new long[size][] : null;
+
+        CompletableFuture<ArtifactInfo> pending = size > 0 ? load(releases.get(0)) : null;
+        ArtifactInfo previous = null;
+        for (int i = 0; i < size; i++) {
+            ArtifactInfo current = join(pending);
+            pending = i + 1 < size ? load(releases.get(i + 1)) : null;
+
+            names.add(current.getName());
+            if (fingerprints != null) {
+                fingerprints[i] = fingerprint(current);
+            }
+            if (previous != null) {
+                steps.add(step(previous, current));
+            }
+            previous = current;
+        }
+
+        return new Report(
+            Collections.unmodifiableList(names),
+            Collections.unmodifiableList(steps),
+            fingerprints != null ? overlap(fingerprints) : null);
+    }
+
+    private Step step(ArtifactInfo previous, ArtifactInfo next) {
+        ArtifactDiffer differ = ArtifactDiffer.artifactDiffer(previous, next);
+        differ.setPool(pool);
+
+        int[] counts = new int[Diff.Severity.values().length];
+        differ.diff(diff -> counts[diff.getSeverity().ordinal()]++);
+        return new Step(previous.getName(), next.getName(),
+            counts[Diff.Severity.ERROR.ordinal()],
+            counts[Diff.Severity.WARNING.ordinal()],
+            counts[Diff.Severity.INFO.ordinal()]);
+    }
+
+    private CompletableFuture<ArtifactInfo> load(Path path) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loader.load(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool);
+    }
+
+    private static ArtifactInfo join(CompletableFuture<ArtifactInfo> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    static long[] fingerprint(ArtifactInfo artifact) {
+        List<long[]> perClass = new ArrayList<>(artifact.getClasses().size());
+        int size = 0;
+        for (ClassInfo klass : artifact.getClasses().values()) {
+            long[] hashes = new long[1 + klass.getFields().size() + klass.getConstructors().size() + klass.getMethods().size()];
+            int i = 0;
+            hashes[i++] = fold(new ContentHasher()
+                .putChar('H')
+                .putString(klass.getName())
+                .putInt(klass.getType().ordinal())
+                .putString(klass.getTypeParameters())
+                .putString(klass.getSuperclass())
+                .putInt(klass.getModifiers())
+                .putStrings(klass.getInterfaces())
+                .hash());
+            i = putMembers(hashes, i, klass, klass.getFields());
+            i = putMembers(hashes, i, klass, klass.getConstructors());
+            putMembers(hashes, i, klass, klass.getMethods());
+            perClass.add(hashes);
+            size += hashes.length;
+        }
+
+        long[] fingerprint = new long[size];
+        int offset = 0;
+        for (long[] hashes : perClass) {
+            System.arraycopy(hashes, 0, fingerprint, offset, hashes.length);
+            offset += hashes.length;
+        }
+        Arrays.sort(fingerprint);
+        return fingerprint;
+    }
+
+    private static int putMembers(long[] hashes, int i, ClassInfo klass, List<? extends NamedInfo<?>> members) {
+        for (NamedInfo<?> member : members) {
+            hashes[i++] = fold(new ContentHasher()
+                .putChar('M')
+                .putString(klass.getName())
+                .putHash(member.getContentHash())
+                .hash());
+        }
+        return i;
+    }
+
+    private static long fold(ContentHash hash) {
+        return hash.getHigh() ^ hash.getLow();
+    }
+
+    static double[][] overlap(long[][] fingerprints) {
+        int size = fingerprints.length;
+        double[][] overlap = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            overlap[i][i] = 1d;
+            for (int j = i + 1; j < size; j++) {
+                int shared = intersect(fingerprints[i], fingerprints[j]);
+                overlap[i][j] = share(shared, fingerprints[i].length);
+                overlap[j][i] = share(shared, fingerprints[j].length);
+            }
+        }
+        return overlap;
+    }
+
+    private static double share(int shared, int total) {
+        return total == 0 ? 1d : (double) shared / total;
+    }
+
+    private static int intersect(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * The comparison of two adjacent releases.
+     */
+    @Data
+    public static class Step {
+        private final String previous;
+        private final String next;
+        private final int errors;
+        private final int warnings;
+        private final int infos;
+
+        public boolean isCompatible() {
+            return errors == 0;
+        }
+    }
+
+    @Data
+    public static class Report {
+        private final List<String> releases;
+        private final List<Step> steps;
+        private final double[][] overlaps;
+
+        /**
+         * The share of the fingerprints of release {@code from} found unchanged in release {@code to}.
+         * Only available when the timeline was compared with {@code anyToAny} set.
+         */
+        public double getOverlap(int from, int to) {
+            if (overlaps == null) {
+                throw new IllegalStateException("Any-to-any comparison was not requested");
+            }
+            return overlaps[from][to];
+        }
+
+        /**
+         * Whether nothing found in release {@code from} was removed or modified in release {@code to}.
+         */
+        public boolean isCompatible(int from, int to) {
+            return getOverlap(from, to) == 1d;
+        }
+    }
+}
@@ -26,20 +26,60 @@ import java.util.List;
 /**
  * @author Andres Almiray
  */
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = "annotationsHash")
+@ToString(callSuper = true, exclude = "annotationsHash")
 public abstract class AnnotatedInfo<S extends AnnotatedInfo<S>> extends NamedInfo<S> {
 
     @Getter
-    private final List<AnnotationInfo> annotations = new ArrayList<>();
+    private List<AnnotationInfo> annotations = new ArrayList<>();
+
+    private ContentHash annotationsHash;
 
     protected AnnotatedInfo(String name) {
         super(name);
     }
 
     public S addToAnnotations(AnnotationInfo annotation) {
+        checkNotFrozen();
         annotations.add(annotation);
-        Collections.sort(annotations);
+        if (!isStaged()) {
+            Collections.sort(annotations);
+        }
+        annotationsHash = null;
+        resetContentHash();
         return self();
     }
+
+    @Override
+    protected void freezeContent() {
+        if (sort(annotations) | freezeAll(annotations)) {
+            annotationsHash = null;
+            resetContentHash();
+        }
+        annotations = Collections.unmodifiableList(annotations);
+    }
+
+    /**
+     * Freezes every element of the given list and returns an unmodifiable, optionally sorted, view of it.
+     */
+    protected static <E extends NamedInfo<E>> List<E> freeze(List<E> elements, boolean sort) {
+        if (sort) {
+            sort(elements);
+        }
+        freezeAll(elements);
+        return Collections.unmodifiableList(elements);
+    }
+
+    public ContentHash getAnnotationsHash() {
+        ContentHash hash = annotationsHash;
+        if (hash == null) {
+            hash = hashOf(annotations);
+            annotationsHash = hash;
+        }
+        return hash;
+    }
+
+    protected void hashAnnotations(ContentHasher hasher) {
+        hasher.putHash(getAnnotationsHash());
+    }
 }
@@ -15,19 +15,24 @@
  */
 package org.kordamp.naum.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import lombok.Singular;
 import lombok.ToString;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.kordamp.naum.model.SymbolTable.binaryName;
+
 /**
  * @author Andres Almiray
  * @author Stephan Classen
@@ -35,10 +40,11 @@ import java.util.Map;
  * @author Alexey Dubrovskiy
  */
 @Data
+@Setter(AccessLevel.NONE)
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 public class AnnotationInfo extends NamedInfo<AnnotationInfo> implements AnnotationValue {
-    private final Map<String, AnnotationValue> values = new LinkedHashMap<>();
+    private Map<String, AnnotationValue> values = new LinkedHashMap<>();
 
     private AnnotationInfo(String name) {
         super(name);
@@ -51,8 +57,7 @@ public class AnnotationInfo extends NamedInfo<AnnotationInfo> implements Annotat
         if (name.startsWith("L") && name.endsWith(";")) {
             name = name.substring(1, name.length() - 1);
         }
-        name = name.replace('/', '.');
-        AnnotationInfo annotationInfo = new AnnotationInfo(name);
+        AnnotationInfo annotationInfo = new AnnotationInfo(binaryName(name));
         if (values != null) {
             for (Map.Entry<String, Object> entry : values.entrySet()) {
                 AnnotationValue annotationValue = AnnotationValue.newSimpleValue(entry.getValue());
@@ -80,6 +85,73 @@ public class AnnotationInfo extends NamedInfo<AnnotationInfo> implements Annotat
         return values.toString();
     }
 
+    @Override
+    protected void freezeContent() {
+        Map<String, AnnotationValue> frozenValues = new LinkedHashMap<>();
+        for (Map.Entry<String, AnnotationValue> entry : values.entrySet()) {
+            frozenValues.put(entry.getKey(), frozenValue(entry.getValue()));
+        }
+        values = Collections.unmodifiableMap(frozenValues);
+    }
+
+    private static AnnotationValue frozenValue(AnnotationValue value) {
+        if (value instanceof AnnotationInfo) {
+            return ((AnnotationInfo) value).freeze();
+        } else if (value instanceof ArrayValue) {
+            List<AnnotationValue> elements = new ArrayList<>();
+            for (AnnotationValue element : ((ArrayValue) value).getValue()) {
+                elements.add(frozenValue(element));
+            }
+            return new ArrayValue(Collections.unmodifiableList(elements));
+        }
+        return value;
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('A')
+            .putString(getName())
+            .putInt(values.size());
+
+        if (values.size() == 1) {
+            Map.Entry<String, AnnotationValue> entry = values.entrySet().iterator().next();
+            hasher.putString(entry.getKey());
+            hashValue(hasher, entry.getValue());
+        } else if (values.size() > 1) {
+            String[] keys = values.keySet().toArray(new String[values.size()]);
+            Arrays.sort(keys);
+            for (String key : keys) {
+                hasher.putString(key);
+                hashValue(hasher, values.get(key));
+            }
+        }
+    }
+
+    private static void hashValue(ContentHasher hasher, AnnotationValue value) {
+        if (value instanceof AnnotationInfo) {
+            hasher.putChar('@')
+                .putHash(((AnnotationInfo) value).getContentHash());
+        } else if (value instanceof ArrayValue) {
+            List<AnnotationValue> elements = ((ArrayValue) value).getValue();
+            hasher.putChar('[')
+                .putInt(elements.size());
+            for (AnnotationValue element : elements) {
+                hashValue(hasher, element);
+            }
+        } else if (value instanceof EnumValue) {
+            hasher.putChar('E')
+                .putString(value.getType())
+                .putString(((EnumValue) value).getValue());
+        } else if (value instanceof SimpleValue) {
+            hasher.putChar('S')
+                .putString(value.getType())
+                .putValue(value.getValue());
+        } else {
+            hasher.putChar('?')
+                .putValue(value);
+        }
+    }
+
     @Override
     public String getContent() {
         StringBuilder b = new StringBuilder("A{N=")
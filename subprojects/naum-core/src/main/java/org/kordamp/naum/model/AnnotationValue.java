@@ -33,16 +33,16 @@ public interface AnnotationValue {
     String getValueAsString();
 
     static EnumValue newEnumValue(String type, String value) {
-        return new EnumValue(type, value);
+        return new EnumValue(SymbolTable.binaryName(type), value);
     }
 
     static SimpleValue newSimpleValue(String type, Object value) {
-        return new SimpleValue(type, value);
+        return new SimpleValue(SymbolTable.intern(type), value);
     }
 
     static SimpleValue newSimpleValue(Object value) {
         Type t = Type.getType(value.getClass());
-        return new SimpleValue(t.getClassName(), value);
+        return new SimpleValue(SymbolTable.intern(t.getClassName()), value);
     }
 
     static ArrayValue newArrayValue(List<AnnotationValue> value) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The set of classes found in a single jar or class directory, keyed by class name.
+ * The location of the artifact is not part of its content.
+ *
+ * @author Andres Almiray
+ */
+@Data
+@Setter(AccessLevel.NONE)
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class ArtifactInfo extends NamedInfo<ArtifactInfo> {
+    private SortedMap<String, ClassInfo> classes = new TreeMap<>();
+
+    protected ArtifactInfo(String name) {
+        super(name);
+    }
+
+    @Builder(builderMethodName = "artifactInfo")
+    public static ArtifactInfo create(@Nonnull String name) {
+        return new ArtifactInfo(name);
+    }
+
+    public ArtifactInfo addToClasses(ClassInfo klass) {
+        checkNotFrozen();
+        classes.put(klass.getName(), klass);
+        resetContentHash();
+        return this;
+    }
+
+    public ClassInfo findClass(String name) {
+        return getClasses().get(name);
+    }
+
+    @Override
+    protected void freezeContent() {
+        if (freezeAll(classes.values())) {
+            resetContentHash();
+        }
+        classes = Collections.unmodifiableSortedMap(classes);
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('R')
+            .putInt(getClasses().size());
+        for (ClassInfo klass : getClasses().values()) {
+            hasher.putHash(klass.getContentHash());
+        }
+    }
+
+    @Override
+    public String getContent() {
+        StringBuilder b = new StringBuilder("AR{");
+
+        if (!getClasses().isEmpty()) {
+            b.append("C=[");
+            boolean first = true;
+            for (ClassInfo klass : getClasses().values()) {
+                if (!first) { b.append(","); }
+                b.append(klass.getContent());
+                first = false;
+            }
+            b.append("]");
+        }
+
+        b.append("}");
+
+        return b.toString();
+    }
+}
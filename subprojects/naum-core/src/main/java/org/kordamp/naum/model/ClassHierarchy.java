@@ -0,0 +1,274 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+import static org.kordamp.naum.model.Modifiers.isProtected;
+import static org.kordamp.naum.model.Modifiers.isPublic;
+
+/**
+ * An index of the type hierarchy of an artifact and its classpath. Every type is given a dense
+ * id and its transitive supertypes are computed once, as a bit set over those ids. The public
+ * and protected members a type inherits are computed on first use and memoized.
+ * <p>
+ * Types that are referenced but not found in any of the indexed artifacts, such as
+ * {@code java.lang.Object}, are part of the closures but contribute no members; a type whose
+ * closure includes any of them is not {@link #isResolved(String) resolved}. Instances are
+ * safe for concurrent use.
+ *
+ * @author Andres Almiray
+ */
+public final class ClassHierarchy {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<ClassInfo> classes = new ArrayList<>();
+    private final BitSet[] supertypes;
+    private final BitSet unresolved = new BitSet();
+    private volatile BitSet[] subtypes;
+    private final Map<Integer, Set<String>> declaredMembers = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> inheritedMembers = new ConcurrentHashMap<>();
+
+    private ClassHierarchy(List<ArtifactInfo> artifacts) {
+        // the first artifact wins when a class is found more than once
+        for (ArtifactInfo artifact : artifacts) {
+            for (ClassInfo klass : artifact.getClasses().values()) {
+                int id = id(klass.getName());
+                if (classes.get(id) == null) {
+                    classes.set(id, klass);
+                }
+            }
+        }
+        int known = names.size();
+        for (int i = 0; i < known; i++) {
+            ClassInfo klass = classes.get(i);
+            id(erasure(klass.getSuperclass()));
+            for (String type : klass.getInterfaces()) {
+                id(erasure(type));
+            }
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (classes.get(i) == null) {
+                unresolved.set(i);
+            }
+        }
+
+        supertypes = new BitSet[names.size()];
+        for (int i = 0; i < supertypes.length; i++) {
+            closure(i, new BitSet());
+        }
+    }
+
+    /**
+     * Indexes the given artifact followed by its classpath.
+     */
+    public static ClassHierarchy of(@Nonnull ArtifactInfo artifact, @Nonnull ArtifactInfo... classpath) {
+        requireNonNull(artifact, "Argument 'artifact' must not be null");
+        List<ArtifactInfo> artifacts = new ArrayList<>();
+        artifacts.add(artifact);
+        Collections.addAll(artifacts, classpath);
+        return new ClassHierarchy(artifacts);
+    }
+
+    public static ClassHierarchy of(@Nonnull List<ArtifactInfo> artifacts) {
+        requireNonNull(artifacts, "Argument 'artifacts' must not be null");
+        return new ClassHierarchy(artifacts);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public boolean contains(String name) {
+        Integer id = ids.get(name);
+        return id != null && classes.get(id) != null;
+    }
+
+    /**
+     * Whether the given type and all of its supertypes were found in the indexed artifacts.
+     */
+    public boolean isResolved(String name) {
+        Integer id = ids.get(name);
+        return id != null && !unresolved.get(id) && !supertypes[id].intersects(unresolved);
+    }
+
+    /**
+     * Whether {@code supertype} is a direct or indirect supertype of {@code name}.
+     */
+    public boolean isSubtypeOf(String name, String supertype) {
+        Integer id = ids.get(name);
+        Integer other = ids.get(supertype);
+        return id != null && other != null && supertypes[id].get(other);
+    }
+
+    /**
+     * The transitive supertypes of the given type, in name order, excluding the type itself.
+     */
+    public Set<String> getSupertypes(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> set = new TreeSet<>();
+        BitSet bits = supertypes[id];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.add(names.get(i));
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * The indexed types that have the given type as a direct or indirect supertype, in name order.
+     */
+    public Set<String> getSubtypes(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> set = new TreeSet<>();
+        BitSet bits = subtypes()[id];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.add(names.get(i));
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * The public and protected fields and methods the given type inherits from its supertypes.
+     * Fields are identified as {@code name:type} and methods as {@code name(arguments)returnType},
+     * with erased argument types.
+     */
+    public Set<String> getInheritedMembers(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            return Collections.emptySet();
+        }
+        return inheritedMembers.computeIfAbsent(id, this::inheritedMembers);
+    }
+
+    private int id(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+            classes.add(null);
+        }
+        return id;
+    }
+
+    private BitSet closure(int id, BitSet visiting) {
+        BitSet bits = supertypes[id];
+        if (bits != null) {
+            return bits;
+        }
+        bits = new BitSet();
+        ClassInfo klass = classes.get(id);
+        if (klass != null && !visiting.get(id)) {
+            // guard against cycles in malformed classpaths
+            visiting.set(id);
+            addSupertype(bits, klass.getSuperclass(), visiting);
+            for (String type : klass.getInterfaces()) {
+                addSupertype(bits, type, visiting);
+            }
+            visiting.clear(id);
+            bits.clear(id);
+        }
+        supertypes[id] = bits;
+        return bits;
+    }
+
+    private BitSet[] subtypes() {
+        BitSet[] bits = subtypes;
+        if (bits == null) {
+            // inverts the supertype closures, computed on first use only
+            bits = new BitSet[supertypes.length];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = new BitSet();
+            }
+            for (int i = 0; i < supertypes.length; i++) {
+                for (int j = supertypes[i].nextSetBit(0); j >= 0; j = supertypes[i].nextSetBit(j + 1)) {
+                    bits[j].set(i);
+                }
+            }
+            subtypes = bits;
+        }
+        return bits;
+    }
+
+    private void addSupertype(BitSet bits, String name, BitSet visiting) {
+        int id = ids.get(erasure(name));
+        if (visiting.get(id)) {
+            return;
+        }
+        bits.set(id);
+        bits.or(closure(id, visiting));
+    }
+
+    private Set<String> inheritedMembers(int id) {
+        Set<String> set = new TreeSet<>();
+        BitSet bits = supertypes[id];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.addAll(declaredMembers.computeIfAbsent(i, this::declaredMembers));
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    private Set<String> declaredMembers(int id) {
+        ClassInfo klass = classes.get(id);
+        if (klass == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> set = new TreeSet<>();
+        for (FieldInfo field : klass.getFields()) {
+            if (isVisible(field.getModifiers())) {
+                set.add(field.getName() + ":" + field.getType());
+            }
+        }
+        for (MethodInfo method : klass.getMethods()) {
+            if (isVisible(method.getModifiers())) {
+                set.add(method.getName() + "(" + method.getErasedArgumentTypes() + ")" + method.getReturnType());
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Supertypes keep their type arguments, e.g. {@code java.lang.Comparable<java.lang.String>}, but are indexed by
+     * their raw name.
+     */
+    private static String erasure(String type) {
+        int i = type.indexOf('<');
+        return i < 0 ? type : type.substring(0, i);
+    }
+
+    private static boolean isVisible(int modifiers) {
+        return isPublic(modifiers) || isProtected(modifiers);
+    }
+}
@@ -15,9 +15,12 @@
  */
 package org.kordamp.naum.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.Singular;
 import lombok.ToString;
 
@@ -32,6 +35,9 @@ import static org.kordamp.naum.model.Opcodes.ACC_ANNOTATION;
 import static org.kordamp.naum.model.Opcodes.ACC_INTERFACE;
 import static org.kordamp.naum.model.Opcodes.ACC_PUBLIC;
 import static org.kordamp.naum.model.Opcodes.V1_8;
+import static org.kordamp.naum.model.SymbolTable.binaryName;
+import static org.kordamp.naum.model.SymbolTable.binaryNames;
+import static org.kordamp.naum.model.SymbolTable.intern;
 import static org.objectweb.asm.Opcodes.ACC_ENUM;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
 import static org.objectweb.asm.Opcodes.ACC_SYNCHRONIZED;
@@ -40,20 +46,27 @@ import static org.objectweb.asm.Opcodes.ACC_SYNCHRONIZED;
  * @author Andres Almiray
  */
 @Data
-@ToString(callSuper = true)
-@EqualsAndHashCode(callSuper = true)
+@Setter(AccessLevel.NONE)
+@ToString(callSuper = true, exclude = "sectionHashes")
+@EqualsAndHashCode(callSuper = true, exclude = "sectionHashes")
 public class ClassInfo extends MemberInfo<ClassInfo> {
     private static final String[] EMPTY_INTERFACES = new String[0];
+    private static final int FIELDS = 0;
+    private static final int CONSTRUCTORS = 1;
+    private static final int METHODS = 2;
+    private static final int CLASSES = 3;
 
     private final int version;
     private final String typeParameters;
     private final String superclass;
     private final String[] interfaces;
-    private final List<FieldInfo> fields = new ArrayList<>();
-    private final List<ConstructorInfo> constructors = new ArrayList<>();
-    private final List<MethodInfo> methods = new ArrayList<>();
-    private final List<InnerClassInfo> classes = new ArrayList<>();
+    private List<FieldInfo> fields = new ArrayList<>();
+    private List<ConstructorInfo> constructors = new ArrayList<>();
+    private List<MethodInfo> methods = new ArrayList<>();
+    private List<InnerClassInfo> classes = new ArrayList<>();
     private final Type type;
+    @Getter(AccessLevel.NONE)
+    private final ContentHash[] sectionHashes = new ContentHash[4];
 
     public enum Type {
         CLASS,
@@ -62,7 +75,7 @@ public class ClassInfo extends MemberInfo<ClassInfo> {
         ANNOTATION;
     }
 
-    private ClassInfo(String name, Type type, int version, int modifiers, String typeParameters, String superclass, String[] interfaces) {
+    protected ClassInfo(String name, Type type, int version, int modifiers, String typeParameters, String superclass, String[] interfaces) {
         super(name, modifiers);
         this.version = version;
         this.typeParameters = typeParameters;
@@ -85,10 +98,7 @@ public class ClassInfo extends MemberInfo<ClassInfo> {
             list.addAll(Arrays.asList(interfaces));
         }
 
-        String[] array = list.toArray(new String[list.size()]);
-        for (int i = 0; i < array.length; i++) {
-            array[i] = array[i].replace('/', '.');
-        }
+        String[] array = binaryNames(list.toArray(new String[list.size()]));
         Arrays.sort(array);
 
         Type type = Type.CLASS;
@@ -103,7 +113,7 @@ public class ClassInfo extends MemberInfo<ClassInfo> {
             modifiers = modifiers - (ACC_INTERFACE + ACC_ABSTRACT);
         }
 
-        return new ClassInfo(name.replace('/', '.'), type, version, modifiers, typeParameters, superclass.replace('/', '.'), array);
+        return new ClassInfo(binaryName(name), type, version, modifiers, intern(typeParameters), binaryName(superclass), array);
     }
 
     public boolean isClass() {
@@ -160,31 +170,114 @@ public class ClassInfo extends MemberInfo<ClassInfo> {
     }
 
     public ClassInfo addToFields(FieldInfo field) {
+        checkNotFrozen();
         fields.add(field);
-        if (!isEnum()) {
+        if (!isEnum() && !isStaged()) {
             Collections.sort(fields);
         }
+        sectionChanged(FIELDS);
         return this;
     }
 
     public ClassInfo addToConstructors(ConstructorInfo constructor) {
+        checkNotFrozen();
         constructors.add(constructor);
-        Collections.sort(constructors);
+        if (!isStaged()) {
+            Collections.sort(constructors);
+        }
+        sectionChanged(CONSTRUCTORS);
         return this;
     }
 
     public ClassInfo addToMethods(MethodInfo method) {
+        checkNotFrozen();
         methods.add(method);
-        Collections.sort(methods);
+        if (!isStaged()) {
+            Collections.sort(methods);
+        }
+        sectionChanged(METHODS);
         return this;
     }
 
     public ClassInfo addToClasses(InnerClassInfo klass) {
+        checkNotFrozen();
         classes.add(klass);
-        Collections.sort(classes);
+        if (!isStaged()) {
+            Collections.sort(classes);
+        }
+        sectionChanged(CLASSES);
         return this;
     }
 
+    @Override
+    protected void freezeContent() {
+        super.freezeContent();
+        // enum constants keep their declaration order
+        if ((!isEnum() && sort(fields)) | freezeAll(fields)) {
+            sectionChanged(FIELDS);
+        }
+        if (sort(constructors) | freezeAll(constructors)) {
+            sectionChanged(CONSTRUCTORS);
+        }
+        if (sort(methods) | freezeAll(methods)) {
+            sectionChanged(METHODS);
+        }
+        if (sort(classes) | freezeAll(classes)) {
+            sectionChanged(CLASSES);
+        }
+        fields = Collections.unmodifiableList(fields);
+        constructors = Collections.unmodifiableList(constructors);
+        methods = Collections.unmodifiableList(methods);
+        classes = Collections.unmodifiableList(classes);
+    }
+
+    public ContentHash getFieldsHash() {
+        return sectionHash(FIELDS, fields);
+    }
+
+    public ContentHash getConstructorsHash() {
+        return sectionHash(CONSTRUCTORS, constructors);
+    }
+
+    public ContentHash getMethodsHash() {
+        return sectionHash(METHODS, methods);
+    }
+
+    public ContentHash getClassesHash() {
+        return sectionHash(CLASSES, classes);
+    }
+
+    private ContentHash sectionHash(int section, List<? extends NamedInfo<?>> members) {
+        ContentHash hash = sectionHashes[section];
+        if (hash == null) {
+            hash = hashOf(members);
+            sectionHashes[section] = hash;
+        }
+        return hash;
+    }
+
+    private void sectionChanged(int section) {
+        sectionHashes[section] = null;
+        resetContentHash();
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('C')
+            .putString(getName())
+            .putInt(type.ordinal())
+            .putInt(version)
+            .putString(typeParameters)
+            .putString(superclass)
+            .putInt(getModifiers());
+        hashAnnotations(hasher);
+        hasher.putStrings(interfaces)
+            .putHash(getFieldsHash())
+            .putHash(getConstructorsHash())
+            .putHash(getMethodsHash())
+            .putHash(getClassesHash());
+    }
+
     @Override
     public String getContent() {
         StringBuilder b = new StringBuilder("C{N=")
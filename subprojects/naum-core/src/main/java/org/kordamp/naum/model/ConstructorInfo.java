@@ -21,35 +21,78 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
 
+import static org.kordamp.naum.model.SymbolTable.binaryNames;
+import static org.kordamp.naum.model.SymbolTable.intern;
+
 /**
  * @author Andres Almiray
  */
 @Data
-@ToString(callSuper = true)
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true, exclude = {"descriptor", "erasedArgumentTypes"})
+@EqualsAndHashCode(callSuper = true, exclude = {"descriptor", "erasedArgumentTypes"})
 public class ConstructorInfo extends MemberInfo<ConstructorInfo> {
     public static final String NAME = "<init>";
 
     private final String argumentTypes;
     private final String[] exceptions;
+    private final String descriptor;
+    private final String erasedArgumentTypes;
 
-    private ConstructorInfo(int modifiers, String argumentTypes, String[] exceptions) {
+    private ConstructorInfo(int modifiers, String argumentTypes, String[] exceptions, String descriptor) {
         super(NAME, modifiers);
         this.argumentTypes = argumentTypes;
         this.exceptions = exceptions;
+        this.descriptor = descriptor;
+        this.erasedArgumentTypes = intern(eraseTypeArguments(argumentTypes));
     }
 
     @Builder(builderMethodName = "constructorInfo")
-    public static ConstructorInfo create(int modifiers, String argumentTypes, @Nonnull String[] exceptions) {
-        String[] values = exceptions != null ? exceptions : EMPTY;
-        for (int i = 0; i < values.length; i++) {
-            values[i] = values[i].replace('/', '.');
-        }
+    public static ConstructorInfo create(int modifiers, String argumentTypes, @Nonnull String[] exceptions, @Nullable String descriptor) {
+        String[] values = exceptions != null ? binaryNames(exceptions) : EMPTY;
         Arrays.sort(values);
         argumentTypes = argumentTypes == null ? "" : argumentTypes;
-        return new ConstructorInfo(modifiers, argumentTypes, values);
+        return new ConstructorInfo(modifiers, intern(argumentTypes), values, intern(descriptor));
+    }
+
+    /**
+     * Returns the JVM descriptor of this constructor, or {@code null} if it was not read from a class file.
+     */
+    @Nullable
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Returns the key that identifies this constructor among its overloads, see {@link MethodInfo#getOverloadKey()}.
+     */
+    public String getOverloadKey() {
+        return descriptor != null ? descriptor : erasedArgumentTypes;
+    }
+
+    /**
+     * Orders constructors by {@link #getOverloadKey() overload key}, then by argument types.
+     */
+    @Override
+    public int compareTo(NamedInfo o) {
+        if (!(o instanceof ConstructorInfo)) {
+            return super.compareTo(o);
+        }
+
+        ConstructorInfo other = (ConstructorInfo) o;
+        int result = getOverloadKey().compareTo(other.getOverloadKey());
+        return result != 0 ? result : argumentTypes.compareTo(other.argumentTypes);
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('K')
+            .putInt(getModifiers());
+        hashAnnotations(hasher);
+        hasher.putString(argumentTypes)
+            .putStrings(exceptions);
     }
 
     @Override
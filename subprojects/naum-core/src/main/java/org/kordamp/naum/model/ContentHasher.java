@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+/**
+ * Streaming, non-cryptographic 128-bit hasher based on the MurmurHash3 x64 mixing functions.
+ * Values are consumed as 64-bit words so that model elements can feed their canonical fields
+ * without building intermediate strings.
+ *
+ * @author Andres Almiray
+ */
+public final class ContentHasher {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_INTEGRAL = 2;
+    private static final int TAG_FLOATING = 3;
+    private static final int TAG_BOOLEAN = 4;
+    private static final int TAG_CHARACTER = 5;
+    private static final int TAG_OTHER = 6;
+
+    private long h1;
+    private long h2;
+    private long pending;
+    private boolean hasPending;
+    private long words;
+
+    public ContentHasher putLong(long value) {
+        if (hasPending) {
+            mix(pending, value);
+            hasPending = false;
+        } else {
+            pending = value;
+            hasPending = true;
+        }
+        words++;
+        return this;
+    }
+
+    public ContentHasher putInt(int value) {
+        return putLong(value);
+    }
+
+    public ContentHasher putChar(char value) {
+        return putLong(value);
+    }
+
+    public ContentHasher putBoolean(boolean value) {
+        return putLong(value ? 1L : 0L);
+    }
+
+    public ContentHasher putString(String value) {
+        if (value == null) {
+            return putLong(-1L);
+        }
+
+        int length = value.length();
+        putLong(length);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putLong(((long) value.charAt(i)) |
+                ((long) value.charAt(i + 1) << 16) |
+                ((long) value.charAt(i + 2) << 32) |
+                ((long) value.charAt(i + 3) << 48));
+        }
+        if (i < length) {
+            long word = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                word |= (long) value.charAt(i) << shift;
+            }
+            putLong(word);
+        }
+        return this;
+    }
+
+    public ContentHasher putStrings(String[] values) {
+        putInt(values.length);
+        for (String value : values) {
+            putString(value);
+        }
+        return this;
+    }
+
+    public ContentHasher putHash(ContentHash hash) {
+        putLong(hash.getHigh());
+        return putLong(hash.getLow());
+    }
+
+    /**
+     * Feeds a constant value such as a field initializer or an annotation member. Values of different
+     * boxed types never collide with each other, e.g. {@code 1}, {@code 1L} and {@code "1"}.
+     */
+    public ContentHasher putValue(Object value) {
+        if (value == null) {
+            return putInt(TAG_NULL);
+        } else if (value instanceof String) {
+            return putInt(TAG_STRING).putString((String) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return putInt(TAG_INTEGRAL).putString(value.getClass().getName()).putLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return putInt(TAG_FLOATING).putString(value.getClass().getName()).putLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean) {
+            return putInt(TAG_BOOLEAN).putBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            return putInt(TAG_CHARACTER).putChar((Character) value);
+        }
+        return putInt(TAG_OTHER).putString(value.getClass().getName()).putString(String.valueOf(value));
+    }
+
+    /**
+     * Computes the hash of all values fed so far. The hasher may keep receiving values afterwards.
+     */
+    public ContentHash hash() {
+        long a = h1;
+        long b = h2;
+
+        if (hasPending) {
+            long k1 = pending * C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            a ^= k1;
+        }
+
+        a ^= words << 3;
+        b ^= words << 3;
+        a += b;
+        b += a;
+        a = fmix64(a);
+        b = fmix64(b);
+        a += b;
+        b += a;
+
+        return new ContentHash(a, b);
+    }
+
+    private void mix(long k1, long k2) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
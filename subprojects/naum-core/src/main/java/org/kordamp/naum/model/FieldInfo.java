@@ -26,27 +26,48 @@ import java.lang.reflect.Modifier;
 
 import static org.kordamp.naum.model.Modifiers.isFinal;
 import static org.kordamp.naum.model.Modifiers.isStatic;
+import static org.kordamp.naum.model.SymbolTable.intern;
 
 /**
  * @author Andres Almiray
  */
 @Data
-@ToString(callSuper = true)
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true, exclude = "descriptor")
+@EqualsAndHashCode(callSuper = true, exclude = "descriptor")
 public class FieldInfo extends MemberInfo<FieldInfo> {
     private final String type;
     private final Object value;
+    private final String descriptor;
 
-    private FieldInfo(String name, int modifiers, String type, Object value) {
+    private FieldInfo(String name, int modifiers, String type, Object value, String descriptor) {
         super(name, modifiers);
         this.type = type;
         this.value = value;
+        this.descriptor = descriptor;
     }
 
     @Builder(builderMethodName = "fieldInfo")
-    public static FieldInfo create(@Nonnull String name, int modifiers, @Nonnull String type, @Nullable Object value) {
+    public static FieldInfo create(@Nonnull String name, int modifiers, @Nonnull String type, @Nullable Object value, @Nullable String descriptor) {
         value = Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) ? value : null;
-        return new FieldInfo(name, modifiers, type, value);
+        return new FieldInfo(intern(name), modifiers, intern(type), value, intern(descriptor));
+    }
+
+    /**
+     * Returns the JVM descriptor of this field, or {@code null} if the field was not read from a class file.
+     */
+    @Nullable
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('F')
+            .putString(getName())
+            .putString(type)
+            .putInt(getModifiers());
+        hashAnnotations(hasher);
+        hasher.putValue(isClassConstant() ? value : null);
     }
 
     @Override
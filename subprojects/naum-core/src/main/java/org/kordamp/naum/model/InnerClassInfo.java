@@ -22,6 +22,8 @@ import lombok.ToString;
 
 import javax.annotation.Nonnull;
 
+import static org.kordamp.naum.model.SymbolTable.binaryName;
+
 /**
  * @author Andres Almiray
  */
@@ -35,7 +37,14 @@ public class InnerClassInfo extends MemberInfo<InnerClassInfo> {
 
     @Builder(builderMethodName = "innerClassInfo")
     public static InnerClassInfo create(@Nonnull String name, int modifiers) {
-        return new InnerClassInfo(name.replace('/', '.'), modifiers);
+        return new InnerClassInfo(binaryName(name), modifiers);
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('I')
+            .putString(getName())
+            .putInt(getModifiers());
     }
 
     @Override
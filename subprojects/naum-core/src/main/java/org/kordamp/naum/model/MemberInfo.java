@@ -36,4 +36,28 @@ public abstract class MemberInfo<S extends MemberInfo<S>> extends AnnotatedInfo<
     public static boolean isInnerClass(MemberInfo member) {
         return member.getName().contains("$");
     }
+
+    /**
+     * Strips type arguments from a list of types, e.g. {@code java.util.List<T>, int} becomes
+     * {@code java.util.List, int}.
+     */
+    protected static String eraseTypeArguments(String types) {
+        if (types == null || types.indexOf('<') < 0) {
+            return types;
+        }
+
+        StringBuilder b = new StringBuilder(types.length());
+        int depth = 0;
+        for (int i = 0; i < types.length(); i++) {
+            char c = types.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0) {
+                b.append(c);
+            }
+        }
+        return b.toString();
+    }
 }
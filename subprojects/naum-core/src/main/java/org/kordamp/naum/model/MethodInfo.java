@@ -24,32 +24,36 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Arrays;
 
+import static org.kordamp.naum.model.SymbolTable.binaryNames;
+import static org.kordamp.naum.model.SymbolTable.intern;
+
 /**
  * @author Andres Almiray
  */
 @Data
-@ToString(callSuper = true)
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true, exclude = {"descriptor", "erasedArgumentTypes"})
+@EqualsAndHashCode(callSuper = true, exclude = {"descriptor", "erasedArgumentTypes"})
 public class MethodInfo extends MemberInfo<MethodInfo> {
     private final String genericTypes;
     private final String returnType;
     private final String argumentTypes;
     private final String[] exceptions;
+    private final String descriptor;
+    private final String erasedArgumentTypes;
 
-    private MethodInfo(String name, int modifiers, String genericTypes, String returnType, String argumentTypes, String[] exceptions) {
+    private MethodInfo(String name, int modifiers, String genericTypes, String returnType, String argumentTypes, String[] exceptions, String descriptor) {
         super(name, modifiers);
         this.genericTypes = genericTypes;
         this.returnType = returnType;
         this.argumentTypes = argumentTypes;
         this.exceptions = exceptions;
+        this.descriptor = descriptor;
+        this.erasedArgumentTypes = intern(eraseTypeArguments(argumentTypes));
     }
 
     @Builder(builderMethodName = "methodInfo")
-    public static MethodInfo create(@Nonnull String name, int modifiers, @Nullable String genericTypes, @Nonnull String returnType, @Nullable String argumentTypes, @Nonnull String[] exceptions) {
-        String[] values = exceptions != null ? exceptions : EMPTY;
-        for (int i = 0; i < values.length; i++) {
-            values[i] = values[i].replace('/', '.');
-        }
+    public static MethodInfo create(@Nonnull String name, int modifiers, @Nullable String genericTypes, @Nonnull String returnType, @Nullable String argumentTypes, @Nonnull String[] exceptions, @Nullable String descriptor) {
+        String[] values = exceptions != null ? binaryNames(exceptions) : EMPTY;
         Arrays.sort(values);
 
         genericTypes = genericTypes != null ? genericTypes : "";
@@ -59,7 +63,54 @@ public class MethodInfo extends MemberInfo<MethodInfo> {
         returnType = returnType != null ? returnType : "void";
         argumentTypes = argumentTypes != null ? argumentTypes : "";
 
-        return new MethodInfo(name, modifiers, genericTypes, returnType, argumentTypes, values);
+        return new MethodInfo(intern(name), modifiers, intern(genericTypes), intern(returnType), intern(argumentTypes), values, intern(descriptor));
+    }
+
+    /**
+     * Returns the JVM descriptor of this method, or {@code null} if the method was not read from a class file.
+     */
+    @Nullable
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Returns the key that identifies this method among its overloads: the argument part of its descriptor, which
+     * is not affected by type variable renames, or the erased argument types if the descriptor is unknown.
+     */
+    public String getOverloadKey() {
+        return descriptor != null ? descriptor.substring(0, descriptor.indexOf(')') + 1) : erasedArgumentTypes;
+    }
+
+    /**
+     * Orders methods by name, then by {@link #getOverloadKey() overload key}, the order in which classes
+     * are compared. Argument and return types break the remaining ties.
+     */
+    @Override
+    public int compareTo(NamedInfo o) {
+        int result = super.compareTo(o);
+        if (result != 0 || !(o instanceof MethodInfo)) {
+            return result;
+        }
+
+        MethodInfo other = (MethodInfo) o;
+        result = getOverloadKey().compareTo(other.getOverloadKey());
+        if (result == 0) {
+            result = argumentTypes.compareTo(other.argumentTypes);
+        }
+        return result != 0 ? result : returnType.compareTo(other.returnType);
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('M')
+            .putString(getName())
+            .putString(genericTypes)
+            .putString(returnType)
+            .putInt(getModifiers());
+        hashAnnotations(hasher);
+        hasher.putString(argumentTypes)
+            .putStrings(exceptions);
     }
 
     @Override
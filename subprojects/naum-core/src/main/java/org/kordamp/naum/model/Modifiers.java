@@ -18,6 +18,7 @@ package org.kordamp.naum.model;
 import static org.kordamp.naum.model.Opcodes.ACC_DEFAULT;
 import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
 import static org.objectweb.asm.Opcodes.ACC_ANNOTATION;
+import static org.objectweb.asm.Opcodes.ACC_BRIDGE;
 import static org.objectweb.asm.Opcodes.ACC_DEPRECATED;
 import static org.objectweb.asm.Opcodes.ACC_ENUM;
 import static org.objectweb.asm.Opcodes.ACC_FINAL;
@@ -105,6 +106,10 @@ public final class Modifiers {
         return (modifiers & ACC_SYNTHETIC) == ACC_SYNTHETIC;
     }
 
+    public static boolean isBridge(int modifiers) {
+        return (modifiers & ACC_BRIDGE) == ACC_BRIDGE;
+    }
+
     public static boolean isTransient(int modifiers) {
         return (modifiers & ACC_TRANSIENT) == ACC_TRANSIENT;
     }
@@ -20,56 +20,160 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * @author Stephan Classen
  */
 @RequiredArgsConstructor
-@EqualsAndHashCode(exclude = "contentHash")
-@ToString(exclude = "contentHash")
+@EqualsAndHashCode(exclude = {"contentHash", "staged", "frozen"})
+@ToString(exclude = {"contentHash", "staged", "frozen"})
 public abstract class NamedInfo<S extends NamedInfo<S>> implements Comparable<S> {
     protected static final String[] EMPTY = new String[0];
 
     @Getter
     private final String name;
 
-    private String contentHash;
+    private ContentHash contentHash;
+
+    private boolean staged;
+
+    @Getter
+    private boolean frozen;
 
     protected final S self() {
         return (S) this;
     }
 
+    /**
+     * Switches this element to staged building: members added from now on are appended as they come
+     * and sorted only once, when {@link #freeze()} is called.
+     */
+    public S stage() {
+        checkNotFrozen();
+        staged = true;
+        return self();
+    }
+
+    protected final boolean isStaged() {
+        return staged;
+    }
+
+    /**
+     * Sorts any staged members and makes this element, and every element it contains, immutable.
+     * The content hash is computed eagerly, hence a frozen element is never written to again and
+     * may be shared freely between threads once published.
+     */
+    public final S freeze() {
+        if (!frozen) {
+            freezeContent();
+            frozen = true;
+            staged = false;
+            getContentHash();
+        }
+        return self();
+    }
+
+    protected void freezeContent() {
+        // nothing to freeze by default
+    }
+
+    protected final void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(getClass().getSimpleName() + " " + name + " is frozen");
+        }
+    }
+
     @Override
     public int compareTo(NamedInfo o) {
         if (o == null) {
             return -1;
         }
-        return name.compareTo(o.name);
+        // names come from the SymbolTable, equal names are mostly the same instance
+        return name == o.name ? 0 : name.compareTo(o.name);
     }
 
+    /**
+     * Human readable rendering of the canonical content of this element. Intended for debugging and
+     * reporting only; comparisons should rely on {@link #getContentHash()}.
+     */
     public abstract String getContent();
 
-    public final String getContentHash() {
-        if (contentHash == null) {
-            contentHash = toSHA1(getContent());
-        }
-        return contentHash;
+    /**
+     * Feeds the canonical content of this element into the given hasher.
+     */
+    protected abstract void hashContent(ContentHasher hasher);
+
+    /**
+     * Discards the cached content hash. Must be called whenever the content of this element changes.
+     */
+    protected final void resetContentHash() {
+        contentHash = null;
     }
 
-    private static String toSHA1(String content) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-1");
-            byte[] bytes = md.digest(content.getBytes());
+    /**
+     * Installs a content hash computed earlier, e.g. one restored from a snapshot, so that it need not
+     * be computed again. Must only be called once the content of this element is complete.
+     */
+    public final S presetContentHash(@Nonnull ContentHash hash) {
+        checkNotFrozen();
+        contentHash = requireNonNull(hash, "Argument 'hash' must not be null");
+        return self();
+    }
+
+    public final ContentHash getContentHash() {
+        ContentHash hash = contentHash;
+        if (hash == null) {
+            ContentHasher hasher = new ContentHasher();
+            hashContent(hasher);
+            hash = hasher.hash();
+            contentHash = hash;
+        }
+        return hash;
+    }
 
-            String result = "";
-            for (byte b : bytes) {
-                result += Integer.toString((b & 0xff) + 0x100, 16).substring(1);
+    /**
+     * Sorts the given elements. Returns whether their order changed, in which case any hash computed
+     * over the list while it was staged is stale.
+     */
+    protected static <E extends NamedInfo<E>> boolean sort(List<E> elements) {
+        for (int i = 1; i < elements.size(); i++) {
+            if (elements.get(i - 1).compareTo(elements.get(i)) > 0) {
+                Collections.sort(elements);
+                return true;
             }
-            return result;
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
         }
+        return false;
+    }
+
+    /**
+     * Freezes every given element. Returns whether the content hash of any of them was computed before
+     * and changed while freezing, in which case any hash computed over them is stale.
+     */
+    protected static boolean freezeAll(Collection<? extends NamedInfo<?>> elements) {
+        boolean changed = false;
+        for (NamedInfo<?> element : elements) {
+            ContentHash hash = element.contentHash;
+            element.freeze();
+            changed |= hash != null && !hash.equals(element.contentHash);
+        }
+        return changed;
+    }
+
+    /**
+     * Computes a digest over the content hashes of the given elements, in list order.
+     */
+    protected static ContentHash hashOf(List<? extends NamedInfo<?>> elements) {
+        ContentHasher hasher = new ContentHasher()
+            .putInt(elements.size());
+        for (NamedInfo<?> element : elements) {
+            hasher.putHash(element.getContentHash());
+        }
+        return hasher.hash();
     }
 }
@@ -15,9 +15,11 @@
  */
 package org.kordamp.naum.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import lombok.ToString;
 
 import javax.annotation.Nonnull;
@@ -25,14 +27,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.kordamp.naum.model.SymbolTable.binaryName;
+
 /**
  * @author Andres Almiray
  */
 @Data
+@Setter(AccessLevel.NONE)
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 public class PackageInfo extends AnnotatedInfo<PackageInfo> {
-    private final List<InnerClassInfo> classes = new ArrayList<>();
+    private List<InnerClassInfo> classes = new ArrayList<>();
 
     private PackageInfo(String name) {
         super(name);
@@ -40,15 +45,36 @@ public class PackageInfo extends AnnotatedInfo<PackageInfo> {
 
     @Builder(builderMethodName = "packageInfo")
     public static PackageInfo create(@Nonnull String name) {
-        return new PackageInfo(name.replace('/', '.'));
+        return new PackageInfo(binaryName(name));
     }
 
     public PackageInfo addToClasses(InnerClassInfo klass) {
+        checkNotFrozen();
         classes.add(klass);
-        Collections.sort(classes);
+        if (!isStaged()) {
+            Collections.sort(classes);
+        }
+        resetContentHash();
         return this;
     }
 
+    @Override
+    protected void freezeContent() {
+        super.freezeContent();
+        if (sort(classes) | freezeAll(classes)) {
+            resetContentHash();
+        }
+        classes = Collections.unmodifiableList(classes);
+    }
+
+    @Override
+    protected void hashContent(ContentHasher hasher) {
+        hasher.putChar('P')
+            .putString(getName());
+        hashAnnotations(hasher);
+        hasher.putHash(hashOf(classes));
+    }
+
     @Override
     public String getContent() {
         StringBuilder b = new StringBuilder("P{N=")
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The classes and members referenced by a set of consumers, stored as sorted arrays of 64-bit
+ * hashes. Class names are in binary form ({@code java.lang.String}); members are identified by
+ * owner, name and JVM descriptor.
+ * <p>
+ * The owner in a consumer's constant pool is the static type at the call site, which may be a
+ * subtype of the class declaring the member. Given a {@link ClassHierarchy}, lookups therefore also
+ * accept references through any subtype of the declaring class.
+ *
+ * @author Andres Almiray
+ */
+public final class ReferenceIndex {
+    private static final long CLASS = 0x9e3779b97f4a7c15L;
+    private static final long MEMBER = 0xc2b2ae3d27d4eb4fL;
+
+    private final long[] hashes;
+
+    private ReferenceIndex(long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    public int size() {
+        return hashes.length;
+    }
+
+    public boolean isClassReferenced(@Nonnull String className) {
+        return contains(classHash(className));
+    }
+
+    /**
+     * Whether the given class, or any of its subtypes known to the hierarchy, is referenced. A consumer
+     * that only names a subtype still depends on the members the subtype inherits.
+     */
+    public boolean isTypeReferenced(@Nonnull String className, @Nullable ClassHierarchy hierarchy) {
+        if (isClassReferenced(className)) {
+            return true;
+        }
+        if (hierarchy != null) {
+            for (String subtype : hierarchy.getSubtypes(className)) {
+                if (isClassReferenced(subtype)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isMemberReferenced(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+        return contains(memberHash(owner, name, descriptor));
+    }
+
+    /**
+     * Whether the given member is referenced through its owner or through any of the owner's subtypes known
+     * to the hierarchy, as happens with inherited fields and methods.
+     */
+    public boolean isMemberReferenced(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor, @Nullable ClassHierarchy hierarchy) {
+        if (isMemberReferenced(owner, name, descriptor)) {
+            return true;
+        }
+        if (hierarchy != null) {
+            for (String subtype : hierarchy.getSubtypes(owner)) {
+                if (isMemberReferenced(subtype, name, descriptor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(long hash) {
+        return Arrays.binarySearch(hashes, hash) >= 0;
+    }
+
+    static long classHash(String className) {
+        return hash(CLASS, className);
+    }
+
+    static long memberHash(String owner, String name, String descriptor) {
+        return hash(hash(hash(MEMBER, owner), name), descriptor);
+    }
+
+    private static long hash(long seed, String value) {
+        // FNV-1a over the chars, finished with a 64-bit mix
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects references. Builders are not thread-safe; use one per thread and {@link #merge(Builder)} them.
+     */
+    public static final class Builder {
+        private long[] hashes = new long[64];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder addClass(@Nonnull String className) {
+            requireNonNull(className, "Argument 'className' must not be null");
+            return add(classHash(className));
+        }
+
+        public Builder addMember(@Nonnull String owner, @Nonnull String name, @Nonnull String descriptor) {
+            requireNonNull(owner, "Argument 'owner' must not be null");
+            requireNonNull(name, "Argument 'name' must not be null");
+            requireNonNull(descriptor, "Argument 'descriptor' must not be null");
+            return add(memberHash(owner, name, descriptor));
+        }
+
+        public Builder merge(@Nonnull Builder other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.hashes[i]);
+            }
+            return this;
+        }
+
+        public ReferenceIndex build() {
+            compact();
+            return new ReferenceIndex(Arrays.copyOf(hashes, size));
+        }
+
+        private Builder add(long hash) {
+            if (size == hashes.length) {
+                // most references repeat, drop duplicates before growing
+                compact();
+                if (size > hashes.length / 2) {
+                    hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                }
+            }
+            hashes[size++] = hash;
+            return this;
+        }
+
+        private void compact() {
+            Arrays.sort(hashes, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || hashes[i] != hashes[unique - 1]) {
+                    hashes[unique++] = hashes[i];
+                }
+            }
+            size = unique;
+        }
+    }
+}
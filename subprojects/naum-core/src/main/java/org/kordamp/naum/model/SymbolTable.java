@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide table of canonical name and type strings. Builders route every name through it so
+ * that a name such as {@code java.lang.String} is held once no matter how many elements refer to
+ * it, and equal names are usually the same instance.
+ *
+ * @author Andres Almiray
+ */
+public final class SymbolTable {
+    private static final ConcurrentMap<String, String> SYMBOLS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, String> BINARY_NAMES = new ConcurrentHashMap<>();
+
+    private SymbolTable() {
+
+    }
+
+    /**
+     * Returns the canonical instance of the given string.
+     */
+    public static String intern(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        String canonical = SYMBOLS.putIfAbsent(symbol, symbol);
+        return canonical != null ? canonical : symbol;
+    }
+
+    /**
+     * Returns the canonical binary name (e.g. {@code java.util.Map$Entry}) of the given internal
+     * name (e.g. {@code java/util/Map$Entry}). Binary names are accepted as well.
+     */
+    public static String binaryName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String binaryName = BINARY_NAMES.get(name);
+        if (binaryName == null) {
+            binaryName = intern(name.indexOf('/') < 0 ? name : name.replace('/', '.'));
+            BINARY_NAMES.putIfAbsent(name, binaryName);
+        }
+        return binaryName;
+    }
+
+    /**
+     * Converts every element of the given array in place with {@link #binaryName(String)}.
+     */
+    public static String[] binaryNames(String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            names[i] = binaryName(names[i]);
+        }
+        return names;
+    }
+
+    public static int size() {
+        return SYMBOLS.size();
+    }
+
+    /**
+     * Drops all symbols. Elements built afterwards no longer share instances with older ones, which
+     * only affects memory use, never equality.
+     */
+    public static void clear() {
+        BINARY_NAMES.clear();
+        SYMBOLS.clear();
+    }
+}
@@ -20,7 +20,6 @@ import org.kordamp.naum.model.AnnotationValue;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
-import org.objectweb.asm.signature.SignatureReader;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
@@ -29,7 +28,6 @@ import java.util.List;
 import static org.kordamp.naum.model.AnnotationValue.newArrayValue;
 import static org.kordamp.naum.model.AnnotationValue.newEnumValue;
 import static org.kordamp.naum.model.AnnotationValue.newSimpleValue;
-import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 
 /**
  * @author Andres Almiray
@@ -76,11 +74,7 @@ public class AnnotationProcessor extends AnnotationVisitor {
 
     @Override
     public void visitEnum(String name, String desc, String value) {
-        SignatureReader r = new SignatureReader(desc);
-        CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(ACC_PUBLIC);
-        r.accept(sv);
-
-        annotation.getValues().put(name, newEnumValue(sv.getTypeOrSuperclass(), value));
+        annotation.getValues().put(name, newEnumValue(enumType(desc), value));
     }
 
     @Override
@@ -116,11 +110,7 @@ public class AnnotationProcessor extends AnnotationVisitor {
 
         @Override
         public void visitEnum(String name, String desc, String value) {
-            SignatureReader r = new SignatureReader(desc);
-            CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(ACC_PUBLIC);
-            r.accept(sv);
-
-            values.add(newEnumValue(sv.getTypeOrSuperclass(), value));
+            values.add(newEnumValue(enumType(desc), value));
         }
 
         @Override
@@ -140,4 +130,8 @@ public class AnnotationProcessor extends AnnotationVisitor {
             return processor;
         }
     }
+
+    private static String enumType(String desc) {
+        return SignatureCache.getSharedInstance().decode(desc).getTypeOrSuperclass();
+    }
 }
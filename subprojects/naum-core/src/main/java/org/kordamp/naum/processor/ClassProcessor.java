@@ -26,16 +26,14 @@ import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
-import org.objectweb.asm.signature.SignatureReader;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
 
 /**
  * @author Andres Almiray
@@ -45,13 +43,18 @@ public class ClassProcessor extends ClassVisitor {
     private static final String STATIC_INITIALIZER_NAME = "<clinit>";
     private static final String MAGIC_LAMBDA_IMPL_NAME = "java/lang/invoke/MethodHandles$Lookup";
     private static final String MAGIC_LAMBDA_EXPRESSION_NAME = "lambda$";
-    private static final Pattern SIGNATURE_PATTERN = Pattern.compile("(.*)\\((.*)\\)");
 
     private final List<ClassInfo> classes = new ArrayList<>();
     private final Stack<ClassInfo> classStack = new Stack<>();
+    private final SignatureCache signatureCache;
 
     public ClassProcessor() {
+        this(SignatureCache.getSharedInstance());
+    }
+
+    public ClassProcessor(@Nonnull SignatureCache signatureCache) {
         super(Opcodes.ASM5);
+        this.signatureCache = requireNonNull(signatureCache, "Argument 'signatureCache' must not be null");
     }
 
     public List<ClassInfo> getClasses() {
@@ -63,19 +66,16 @@ public class ClassProcessor extends ClassVisitor {
         String signatureDesc = signature != null ? signature : "";
 
         String superClassName = superName;
-        String[] ifaces = interfaces;
+        List<String> ifaces = asList(interfaces);
         String formalParameters = "";
 
         if (!("".equals(signatureDesc))) {
-            SignatureReader r = new SignatureReader(signatureDesc);
-            CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(Opcodes.ACC_PUBLIC);
-            r.accept(sv);
+            DecodedSignature decoded = signatureCache.decode(signatureDesc);
 
-            formalParameters = sv.getFormalParameters();
-            String superclass = sv.getTypeOrSuperclass();
+            formalParameters = decoded.getFormalParameters();
+            String superclass = decoded.getTypeOrSuperclass();
             superClassName = "".equals(superclass) ? "java.lang.Object" : superClassName;
-            Collection<String> interfaceTypes = sv.getInterfaces();
-            ifaces = interfaceTypes.toArray(new String[interfaceTypes.size()]);
+            ifaces = decoded.getInterfaces();
         }
 
         ClassInfo klass = ClassInfo.classInfo()
@@ -84,14 +84,15 @@ public class ClassProcessor extends ClassVisitor {
             .typeParameters(formalParameters)
             .modifiers(access)
             .superclass(superClassName)
-            .ifaces(asList(ifaces))
-            .build();
+            .ifaces(ifaces)
+            .build()
+            .stage();
         classStack.push(klass);
     }
 
     @Override
     public void visitEnd() {
-        classes.add(classStack.pop());
+        classes.add(classStack.pop().freeze());
     }
 
     @Override
@@ -121,18 +122,14 @@ public class ClassProcessor extends ClassVisitor {
         ClassInfo owner = classStack.peek();
 
         String signatureDesc = signature != null ? signature : desc;
-        SignatureReader r = new SignatureReader(signatureDesc);
-        CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(Opcodes.ACC_PUBLIC);
-        r.accept(sv);
-
-        Matcher matcher = SIGNATURE_PATTERN.matcher(sv.getDeclaration());
-        matcher.matches();
+        DecodedSignature decoded = signatureCache.decode(signatureDesc);
 
         if (CONSTRUCTOR_NAME.equals(name)) {
             ConstructorInfo constructor = ConstructorInfo.constructorInfo()
                 .modifiers(access)
-                .argumentTypes(matcher.group(2))
+                .argumentTypes(decoded.getArgumentTypes())
                 .exceptions(exceptions)
+                .descriptor(desc)
                 .build();
             owner.addToConstructors(constructor);
             return new ConstructorProcessor(constructor);
@@ -147,10 +144,11 @@ public class ClassProcessor extends ClassVisitor {
         MethodInfo method = MethodInfo.methodInfo()
             .name(name)
             .modifiers(access)
-            .genericTypes(matcher.group(1))
-            .returnType(sv.getReturnType())
-            .argumentTypes(matcher.group(2))
+            .genericTypes(decoded.getGenericTypes())
+            .returnType(decoded.getReturnType())
+            .argumentTypes(decoded.getArgumentTypes())
             .exceptions(exceptions)
+            .descriptor(desc)
             .build();
         owner.addToMethods(method);
         return new MethodProcessor(method);
@@ -163,15 +161,14 @@ public class ClassProcessor extends ClassVisitor {
         }
 
         String signatureDesc = signature != null ? signature : desc;
-        SignatureReader r = new SignatureReader(signatureDesc);
-        CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(Opcodes.ACC_PUBLIC);
-        r.accept(sv);
+        DecodedSignature decoded = signatureCache.decode(signatureDesc);
 
         FieldInfo field = FieldInfo.fieldInfo()
             .name(name)
             .modifiers(access)
-            .type(sv.getTypeOrSuperclass())
+            .type(decoded.getTypeOrSuperclass())
             .value(value)
+            .descriptor(desc)
             .build();
         classStack.peek().addToFields(field);
         return new FieldProcessor(field);
@@ -304,7 +304,7 @@ public final class CustomTraceSignatureVisitor extends SignatureVisitor {
     }
 
     public String getTypeOrSuperclass() {
-        return superclass.toString();
+        return superclass == null ? null : superclass.toString();
     }
 
     public String getFormalParameters() { return formalParameters == null ? null : formalParameters; }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.processor;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The parts of a decoded descriptor or generic signature. Which parts are set depends on the kind
+ * of signature: method signatures yield generic types, argument types and return type; class
+ * signatures yield formal parameters, superclass and interfaces; type signatures yield only the
+ * type, which is reported through {@code typeOrSuperclass}.
+ *
+ * @author Andres Almiray
+ */
+@Data
+public class DecodedSignature {
+    private final String genericTypes;
+    private final String argumentTypes;
+    private final String returnType;
+    private final String typeOrSuperclass;
+    private final String formalParameters;
+    private final List<String> interfaces;
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.processor;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded, thread-safe cache of decoded descriptors and signatures. Descriptors such as
+ * {@code ()V} repeat across every class of an artifact, so each distinct string is decoded only
+ * once by {@link SignatureDecoder}.
+ * <p>
+ * When the cache is full an arbitrary entry is evicted to make room; frequently used signatures
+ * are quickly decoded again, which keeps the hot set resident without tracking access order.
+ *
+ * @author Andres Almiray
+ */
+public final class SignatureCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 16384;
+
+    private static final SignatureCache SHARED = new SignatureCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final ConcurrentMap<String, DecodedSignature> signatures = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SignatureCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Argument 'maximumSize' must be positive");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * The cache shared by all processors.
+     */
+    public static SignatureCache getSharedInstance() {
+        return SHARED;
+    }
+
+    public DecodedSignature decode(@Nonnull String signature) {
+        requireNonNull(signature, "Argument 'signature' must not be null");
+        DecodedSignature decoded = signatures.get(signature);
+        if (decoded != null) {
+            hits.increment();
+            return decoded;
+        }
+
+        misses.increment();
+        decoded = SignatureDecoder.decode(signature);
+        if (signatures.size() >= maximumSize) {
+            evict();
+        }
+        DecodedSignature existing = signatures.putIfAbsent(signature, decoded);
+        return existing != null ? existing : decoded;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0d : (double) h / total;
+    }
+
+    public void clear() {
+        signatures.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private void evict() {
+        Iterator<String> it = signatures.keySet().iterator();
+        while (signatures.size() >= maximumSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.processor;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes descriptors and generic signatures straight from their string form, producing the same
+ * results as running a {@code SignatureReader} over a {@link CustomTraceSignatureVisitor}. Builders
+ * are kept per thread and reused, and names are copied without intermediate strings, so the only
+ * allocations left are the resulting strings.
+ * <p>
+ * The parser follows {@code SignatureReader}; the visitor callbacks are inlined and operate on the
+ * state of either the outer visitor or the nested visitor that {@code CustomTraceSignatureVisitor}
+ * would create for a superclass, interface, return type or exception type.
+ *
+ * @author Andres Almiray
+ */
+public final class SignatureDecoder {
+    private static final ThreadLocal<SignatureDecoder> DECODERS = ThreadLocal.withInitial(SignatureDecoder::new);
+    private static final String OBJECT = "java/lang/Object";
+    private static final String EXTENDS = " extends ";
+
+    private final StringBuilder declaration = new StringBuilder(128);
+    private final StringBuilder returnType = new StringBuilder(64);
+    private final StringBuilder superclass = new StringBuilder(64);
+    private final StringBuilder scratch = new StringBuilder(64);
+    private final List<String> interfaces = new ArrayList<>();
+    private String signature;
+
+    // state of the outer visitor
+    private boolean seenFormalParameter;
+    private boolean seenInterfaceBound;
+    private boolean seenInterface;
+    private String formalParameters;
+    private boolean hasReturnType;
+    private boolean hasSuperclass;
+
+    // state of the visitor receiving events, saved while a nested visitor is active
+    private StringBuilder out;
+    private boolean seenParameter;
+    private int argumentStack;
+    private int arrayStack;
+    private String separator;
+    private boolean savedSeenParameter;
+    private int savedArgumentStack;
+    private int savedArrayStack;
+    private String savedSeparator;
+
+    private SignatureDecoder() {
+
+    }
+
+    public static DecodedSignature decode(@Nonnull String signature) {
+        requireNonNull(signature, "Argument 'signature' must not be null");
+        SignatureDecoder decoder = DECODERS.get();
+        try {
+            return decoder.decodeSignature(signature);
+        } finally {
+            decoder.signature = null;
+        }
+    }
+
+    private DecodedSignature decodeSignature(String signature) {
+        reset(signature);
+
+        int length = signature.length();
+        int pos;
+        char c;
+        if (signature.charAt(0) == '<') {
+            pos = 2;
+            do {
+                int end = signature.indexOf(':', pos);
+                declaration.append(seenFormalParameter ? ", " : "<").append(signature, pos - 1, end);
+                seenFormalParameter = true;
+                seenInterfaceBound = false;
+                pos = end + 1;
+                c = signature.charAt(pos);
+                if (c == 'L' || c == '[' || c == 'T') {
+                    separator = EXTENDS;
+                    startType();
+                    pos = parseType(pos);
+                }
+                while ((c = signature.charAt(pos++)) == ':') {
+                    separator = seenInterfaceBound ? ", " : EXTENDS;
+                    seenInterfaceBound = true;
+                    startType();
+                    pos = parseType(pos);
+                }
+            } while (c != '>');
+        } else {
+            pos = 0;
+        }
+
+        if (signature.charAt(pos) == '(') {
+            pos++;
+            while (signature.charAt(pos) != ')') {
+                endFormals();
+                if (seenParameter) {
+                    declaration.append(", ");
+                } else {
+                    seenParameter = true;
+                    declaration.append('(');
+                }
+                startType();
+                pos = parseType(pos);
+            }
+
+            endFormals();
+            if (seenParameter) {
+                seenParameter = false;
+            } else {
+                declaration.append('(');
+            }
+            declaration.append(')');
+            hasReturnType = true;
+            pos = parseNested(pos + 1, returnType);
+            while (pos < length) {
+                scratch.setLength(0);
+                pos = parseNested(pos + 1, scratch);
+            }
+        } else {
+            endFormals();
+            separator = EXTENDS;
+            hasSuperclass = true;
+            pos = parseNested(pos, superclass);
+            while (pos < length) {
+                separator = seenInterface ? ", " : " implements ";
+                seenInterface = true;
+                scratch.setLength(0);
+                pos = parseNested(pos, scratch);
+                interfaces.add(scratch.toString());
+            }
+        }
+
+        return result();
+    }
+
+    private DecodedSignature result() {
+        String genericTypes = null;
+        String argumentTypes = null;
+        int length = declaration.length();
+        if (length > 0 && declaration.charAt(length - 1) == ')') {
+            int open = declaration.lastIndexOf("(");
+            if (open >= 0) {
+                genericTypes = declaration.substring(0, open);
+                argumentTypes = declaration.substring(open + 1, length - 1);
+            }
+        }
+
+        List<String> interfaceTypes;
+        if (interfaces.isEmpty()) {
+            interfaceTypes = Collections.emptyList();
+        } else {
+            interfaceTypes = new ArrayList<>(interfaces);
+            Collections.sort(interfaceTypes);
+            interfaceTypes = Collections.unmodifiableList(interfaceTypes);
+        }
+
+        return new DecodedSignature(
+            genericTypes,
+            argumentTypes,
+            hasReturnType ? returnType.toString() : null,
+            hasSuperclass ? superclass.toString() : null,
+            formalParameters,
+            interfaceTypes);
+    }
+
+    private void reset(String signature) {
+        this.signature = signature;
+        declaration.setLength(0);
+        returnType.setLength(0);
+        superclass.setLength(0);
+        interfaces.clear();
+        seenFormalParameter = false;
+        seenInterfaceBound = false;
+        seenInterface = false;
+        formalParameters = null;
+        hasReturnType = false;
+        hasSuperclass = false;
+        out = declaration;
+        seenParameter = false;
+        argumentStack = 0;
+        arrayStack = 0;
+        separator = "";
+    }
+
+    /**
+     * Parses a type with a fresh visitor state writing to {@code target}, then restores the state
+     * of the outer visitor.
+     */
+    private int parseNested(int pos, StringBuilder target) {
+        savedSeenParameter = seenParameter;
+        savedArgumentStack = argumentStack;
+        savedArrayStack = arrayStack;
+        savedSeparator = separator;
+        out = target;
+        seenParameter = false;
+        argumentStack = 0;
+        arrayStack = 0;
+        separator = "";
+
+        pos = parseType(pos);
+
+        out = declaration;
+        seenParameter = savedSeenParameter;
+        argumentStack = savedArgumentStack;
+        arrayStack = savedArrayStack;
+        separator = savedSeparator;
+        return pos;
+    }
+
+    private int parseType(int pos) {
+        String signature = this.signature;
+        char c = signature.charAt(pos++);
+        switch (c) {
+            case 'Z':
+            case 'C':
+            case 'B':
+            case 'S':
+            case 'I':
+            case 'F':
+            case 'J':
+            case 'D':
+            case 'V':
+                out.append(baseType(c));
+                endType();
+                return pos;
+            case '[':
+                startType();
+                arrayStack |= 1;
+                return parseType(pos);
+            case 'T':
+                int end = signature.indexOf(';', pos);
+                out.append(signature, pos, end);
+                endType();
+                return end + 1;
+            default:
+                int start = pos;
+                boolean visited = false;
+                boolean inner = false;
+                for (; ; ) {
+                    switch (c = signature.charAt(pos++)) {
+                        case '.':
+                        case ';':
+                            if (!visited) {
+                                classType(start, pos - 1, inner);
+                            }
+                            if (c == ';') {
+                                typeEnd();
+                                return pos;
+                            }
+                            start = pos;
+                            visited = false;
+                            inner = true;
+                            break;
+                        case '<':
+                            classType(start, pos - 1, inner);
+                            visited = true;
+                            top:
+                            for (; ; ) {
+                                switch (c = signature.charAt(pos)) {
+                                    case '>':
+                                        break top;
+                                    case '*':
+                                        ++pos;
+                                        typeArgument();
+                                        out.append('?');
+                                        break;
+                                    case '+':
+                                    case '-':
+                                        typeArgument();
+                                        out.append(c == '+' ? "? extends " : "? super ");
+                                        startType();
+                                        pos = parseType(pos + 1);
+                                        break;
+                                    default:
+                                        typeArgument();
+                                        startType();
+                                        pos = parseType(pos);
+                                        break;
+                                }
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+        }
+    }
+
+    private void classType(int start, int end, boolean inner) {
+        if (inner) {
+            if (argumentStack % 2 != 0) {
+                out.append('>');
+            }
+            argumentStack /= 2;
+            out.append('.');
+            appendName(start, end);
+        } else if (end - start != OBJECT.length() || !signature.startsWith(OBJECT, start) ||
+            argumentStack % 2 != 0 || seenParameter) {
+            // java.lang.Object is only kept as a type argument or a parameter type
+            appendName(start, end);
+        }
+        separator = "";
+        argumentStack *= 2;
+    }
+
+    private void appendName(int start, int end) {
+        out.append(separator);
+        for (int i = start; i < end; i++) {
+            char c = signature.charAt(i);
+            out.append(c == '/' ? '.' : c);
+        }
+    }
+
+    private void typeArgument() {
+        if (argumentStack % 2 == 0) {
+            ++argumentStack;
+            out.append('<');
+        } else {
+            out.append(", ");
+        }
+    }
+
+    private void typeEnd() {
+        if (argumentStack % 2 != 0) {
+            out.append('>');
+        }
+        argumentStack /= 2;
+        endType();
+    }
+
+    private void endFormals() {
+        if (seenFormalParameter) {
+            declaration.append('>');
+            seenFormalParameter = false;
+            formalParameters = declaration.toString();
+        }
+    }
+
+    private void startType() {
+        arrayStack *= 2;
+    }
+
+    private void endType() {
+        if (arrayStack % 2 == 0) {
+            arrayStack /= 2;
+        } else {
+            while (arrayStack % 2 != 0) {
+                arrayStack /= 2;
+                out.append("[]");
+            }
+        }
+    }
+
+    private static String baseType(char descriptor) {
+        switch (descriptor) {
+            case 'V':
+                return "void";
+            case 'B':
+                return "byte";
+            case 'J':
+                return "long";
+            case 'Z':
+                return "boolean";
+            case 'I':
+                return "int";
+            case 'S':
+                return "short";
+            case 'C':
+                return "char";
+            case 'F':
+                return "float";
+            default:
+                return "double";
+        }
+    }
+}
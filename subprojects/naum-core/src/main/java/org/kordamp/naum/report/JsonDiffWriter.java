@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.report;
+
+import org.kordamp.naum.diff.Diff;
+import org.kordamp.naum.diff.DiffSink;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes diffs as JSON while they are produced. Nothing but the current diff is held in memory.
+ * <p>
+ * In {@link Format#JSON} the report is a single object with a {@code diffs} array followed by
+ * the {@code errors}, {@code warnings} and {@code infos} counts; in {@link Format#NDJSON} every
+ * diff is written on a line of its own. Each diff carries its severity, type, message key and
+ * arguments, plus the formatted message when a resource bundle is given.
+ * <p>
+ * Write failures are rethrown from {@link #accept(Diff)} as {@link UncheckedIOException}.
+ *
+ * @author Andres Almiray
+ */
+public class JsonDiffWriter implements DiffSink, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public enum Format {
+        JSON,
+        NDJSON
+    }
+
+    private final Writer out;
+    private final Format format;
+    private final ResourceBundle messages;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private final int[] counts = new int[Diff.Severity.values().length];
+    private boolean first = true;
+    private boolean closed;
+
+    public JsonDiffWriter(@Nonnull Writer out, @Nonnull Format format, @Nullable ResourceBundle messages) {
+        this.out = requireNonNull(out, "Argument 'out' must not be null");
+        this.format = requireNonNull(format, "Argument 'format' must not be null");
+        this.messages = messages;
+    }
+
+    public static JsonDiffWriter open(@Nonnull OutputStream out, @Nonnull Format format, @Nullable ResourceBundle messages) {
+        requireNonNull(out, "Argument 'out' must not be null");
+        return new JsonDiffWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE), format, messages);
+    }
+
+    public static JsonDiffWriter open(@Nonnull Path file, @Nonnull Format format, @Nullable ResourceBundle messages) throws IOException {
+        requireNonNull(file, "Argument 'file' must not be null");
+        FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+        return new JsonDiffWriter(new BufferedWriter(writer, BUFFER_SIZE), format, messages);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getCount(@Nonnull Diff.Severity severity) {
+        return counts[severity.ordinal()];
+    }
+
+    @Override
+    public void accept(Diff diff) {
+        counts[diff.getSeverity().ordinal()]++;
+
+        buffer.setLength(0);
+        if (format == Format.JSON) {
+            buffer.append(first ? "{\"diffs\":[\n" : ",\n");
+        }
+        first = false;
+
+        buffer.append("{\"severity\":\"").append(diff.getSeverity())
+            .append("\",\"type\":\"").append(diff.getType())
+            .append("\",\"key\":");
+        string(diff.getMessageKey());
+        buffer.append(",\"args\":[");
+        List<Object> args = diff.getMessageArgs();
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            string((String) args.get(i));
+        }
+        buffer.append(']');
+        if (messages != null) {
+            buffer.append(",\"message\":");
+            string(diff.format(messages));
+        }
+        buffer.append('}');
+        if (format == Format.NDJSON) {
+            buffer.append('\n');
+        }
+
+        try {
+            out.append(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Completes the report and closes the underlying output.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (format == Format.JSON) {
+                out.write(first ? "{\"diffs\":[" : "\n");
+                out.write("],\"errors\":" + getCount(Diff.Severity.ERROR) +
+                    ",\"warnings\":" + getCount(Diff.Severity.WARNING) +
+                    ",\"infos\":" + getCount(Diff.Severity.INFO) + "}\n");
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            buffer.append("null");
+            return;
+        }
+
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    // control characters, and line separators that break JavaScript parsers
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        buffer.append("\\u")
+                            .append(HEX[(c >> 12) & 0xF])
+                            .append(HEX[(c >> 8) & 0xF])
+                            .append(HEX[(c >> 4) & 0xF])
+                            .append(HEX[c & 0xF]);
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+}
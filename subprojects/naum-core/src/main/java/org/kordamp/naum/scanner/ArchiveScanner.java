@@ -0,0 +1,457 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ReferenceIndex;
+import org.kordamp.naum.model.SymbolTable;
+import org.kordamp.naum.processor.ClassProcessor;
+import org.kordamp.naum.snapshot.MappedSnapshot;
+import org.objectweb.asm.ClassReader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builds {@code ArtifactInfo} models for jars and class directories. Class files are parsed
+ * on a {@code ForkJoinPool}, both across artifacts and across the entries of a single artifact.
+ *
+ * @author Andres Almiray
+ */
+public class ArchiveScanner implements Closeable {
+    static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String MODULE_INFO = "module-info.class";
+    private static final String META_INF = "META-INF/";
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+    private static final int ENTRIES_PER_TASK = 32;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private volatile ClassCache classCache;
+
+    public ArchiveScanner() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    public ArchiveScanner(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    public ArchiveScanner(@Nonnull ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    private ArchiveScanner(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = requireNonNull(pool, "Argument 'pool' must not be null");
+        this.ownsPool = ownsPool;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public ClassCache getClassCache() {
+        return classCache;
+    }
+
+    /**
+     * Parsed classes are looked up in and stored to the given cache, if any.
+     */
+    public void setClassCache(@Nullable ClassCache classCache) {
+        this.classCache = classCache;
+    }
+
+    public ArtifactInfo scan(@Nonnull Path path) throws IOException {
+        return scan(Collections.singletonList(path)).get(path);
+    }
+
+    /**
+     * Scans every given jar, class directory or {@link MappedSnapshot snapshot}. The returned map keeps the
+     * iteration order of {@code paths}.
+     */
+    public Map<Path, ArtifactInfo> scan(@Nonnull Collection<Path> paths) throws IOException {
+        try {
+            List<ScanTask> tasks = paths.stream()
+                .map(path -> new ScanTask(path, classCache))
+                .collect(Collectors.toList());
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                    return null;
+                }
+            });
+
+            Map<Path, ArtifactInfo> artifacts = new LinkedHashMap<>();
+            for (ScanTask task : tasks) {
+                artifacts.put(task.path, task.join());
+            }
+            return artifacts;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Scans two versions of the same jar, parsing only the entries that differ between them.
+     * Entries are paired by name using the central directory of each jar; pairs with matching
+     * CRC-32 and uncompressed size are recorded as unchanged without being inflated or parsed.
+     */
+    public ArtifactPair scanChanges(@Nonnull Path previous, @Nonnull Path next) throws IOException {
+        requireNonNull(previous, "Argument 'previous' must not be null");
+        requireNonNull(next, "Argument 'next' must not be null");
+        if (!Files.isRegularFile(previous) || !Files.isRegularFile(next)) {
+            throw new IllegalArgumentException("Both " + previous + " and " + next + " must be jar files");
+        }
+
+        try (ZipFile previousZip = new ZipFile(previous.toFile());
+             ZipFile nextZip = new ZipFile(next.toFile())) {
+            Map<String, ZipEntry> nextEntries = new LinkedHashMap<>();
+            for (ZipEntry entry : ZipArchive.classEntries(nextZip)) {
+                nextEntries.put(entry.getName(), entry);
+            }
+
+            List<ZipEntry> previousChanged = new ArrayList<>();
+            SortedSet<String> unchanged = new TreeSet<>();
+            for (ZipEntry entry : ZipArchive.classEntries(previousZip)) {
+                ZipEntry other = nextEntries.get(entry.getName());
+                if (other != null && isSameContent(entry, other)) {
+                    nextEntries.remove(entry.getName());
+                    unchanged.add(toClassName(entry.getName()));
+                } else {
+                    previousChanged.add(entry);
+                }
+            }
+
+            ClassCache cache = classCache;
+            ParseTask previousTask = new ParseTask(new ZipArchive(previousZip, previousChanged), cache, 0, previousChanged.size());
+            ParseTask nextTask = new ParseTask(new ZipArchive(nextZip, new ArrayList<>(nextEntries.values())), cache, 0, nextEntries.size());
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(previousTask, nextTask);
+                    return null;
+                }
+            });
+
+            return new ArtifactPair(
+                toArtifact(previous, previousTask.join()),
+                toArtifact(next, nextTask.join()),
+                Collections.unmodifiableSortedSet(unchanged));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Collects the classes and members referenced by the given consumer jars or class directories.
+     * Only constant pools are read; no models are built.
+     */
+    public ReferenceIndex scanReferences(@Nonnull Collection<Path> consumers) throws IOException {
+        requireNonNull(consumers, "Argument 'consumers' must not be null");
+        try {
+            List<ReferenceTask> tasks = consumers.stream()
+                .map(ReferenceTask::new)
+                .collect(Collectors.toList());
+            return pool.invoke(new RecursiveTask<ReferenceIndex>() {
+                @Override
+                protected ReferenceIndex compute() {
+                    ReferenceIndex.Builder references = ReferenceIndex.builder();
+                    for (ReferenceTask task : ForkJoinTask.invokeAll(tasks)) {
+                        references.merge(task.join());
+                    }
+                    return references.build();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isSameContent(ZipEntry previous, ZipEntry next) {
+        return previous.getCrc() != -1 &&
+            previous.getCrc() == next.getCrc() &&
+            previous.getSize() == next.getSize();
+    }
+
+    static String toClassName(String entryName) {
+        return SymbolTable.binaryName(entryName.substring(0, entryName.length() - CLASS_FILE_SUFFIX.length()));
+    }
+
+    private static ArtifactInfo toArtifact(Path path, List<ClassInfo> classes) {
+        ArtifactInfo artifact = ArtifactInfo.artifactInfo()
+            .name(path.toString())
+            .build();
+        for (ClassInfo klass : classes) {
+            artifact.addToClasses(klass);
+        }
+        return artifact.freeze();
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    static List<ClassInfo> parse(byte[] bytes) {
+        ClassReader classReader = new ClassReader(bytes);
+        ClassProcessor classProcessor = new ClassProcessor();
+        classReader.accept(classProcessor, PARSING_OPTIONS);
+        return classProcessor.getClasses();
+    }
+
+    static boolean isClassEntry(String name) {
+        return name.endsWith(CLASS_FILE_SUFFIX) &&
+            !name.endsWith(MODULE_INFO) &&
+            !name.startsWith(META_INF);
+    }
+
+    static byte[] readFully(InputStream in, long sizeHint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint > 0 ? (int) sizeHint : 4096);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    static Archive open(Path path) throws IOException {
+        return Files.isDirectory(path) ? new DirectoryArchive(path) : new ZipArchive(path);
+    }
+
+    /**
+     * Random access to the class files of a single artifact. Implementations must allow
+     * concurrent calls to {@link #read(int)}.
+     */
+    interface Archive extends Closeable {
+        int size();
+
+        byte[] read(int index) throws IOException;
+    }
+
+    private static class ZipArchive implements Archive {
+        private final ZipFile zipFile;
+        private final List<ZipEntry> entries;
+
+        private ZipArchive(Path path) throws IOException {
+            this(new ZipFile(path.toFile()));
+        }
+
+        private ZipArchive(ZipFile zipFile) {
+            this(zipFile, classEntries(zipFile));
+        }
+
+        private ZipArchive(ZipFile zipFile, List<ZipEntry> entries) {
+            this.zipFile = zipFile;
+            this.entries = entries;
+        }
+
+        private static List<ZipEntry> classEntries(ZipFile zipFile) {
+            return zipFile.stream()
+                .filter(entry -> !entry.isDirectory() && isClassEntry(entry.getName()))
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public byte[] read(int index) throws IOException {
+            ZipEntry entry = entries.get(index);
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return readFully(in, entry.getSize());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipFile.close();
+        }
+    }
+
+    private static class DirectoryArchive implements Archive {
+        private final List<Path> files;
+
+        private DirectoryArchive(Path root) throws IOException {
+            try (Stream<Path> stream = Files.walk(root)) {
+                files = stream
+                    .filter(Files::isRegularFile)
+                    .filter(file -> isClassEntry(root.relativize(file).toString().replace('\\', '/')))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+        }
+
+        @Override
+        public int size() {
+            return files.size();
+        }
+
+        @Override
+        public byte[] read(int index) throws IOException {
+            return Files.readAllBytes(files.get(index));
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    private static class ScanTask extends RecursiveTask<ArtifactInfo> {
+        private final Path path;
+        private final ClassCache cache;
+
+        private ScanTask(Path path, ClassCache cache) {
+            this.path = path;
+            this.cache = cache;
+        }
+
+        @Override
+        protected ArtifactInfo compute() {
+            try {
+                if (MappedSnapshot.isSnapshot(path)) {
+                    return MappedSnapshot.open(path).toArtifact();
+                }
+                try (Archive archive = open(path)) {
+                    return toArtifact(path, new ParseTask(archive, cache, 0, archive.size()).invoke());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static class ParseTask extends RecursiveTask<List<ClassInfo>> {
+        private final Archive archive;
+        private final ClassCache cache;
+        private final int from;
+        private final int to;
+
+        ParseTask(Archive archive, ClassCache cache, int from, int to) {
+            this.archive = archive;
+            this.cache = cache;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ClassInfo> compute() {
+            if (to - from > ENTRIES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ParseTask left = new ParseTask(archive, cache, from, middle);
+                ParseTask right = new ParseTask(archive, cache, middle, to);
+                left.fork();
+                List<ClassInfo> tail = right.compute();
+                List<ClassInfo> classes = new ArrayList<>(left.join());
+                classes.addAll(tail);
+                return classes;
+            }
+
+            List<ClassInfo> classes = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                try {
+                    byte[] bytes = archive.read(i);
+                    classes.addAll(cache != null ? cache.load(bytes) : parse(bytes));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return classes;
+        }
+    }
+
+    private static class ReferenceTask extends RecursiveTask<ReferenceIndex.Builder> {
+        private final Path path;
+
+        private ReferenceTask(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected ReferenceIndex.Builder compute() {
+            try (Archive archive = open(path)) {
+                return new ConstantPoolTask(archive, 0, archive.size()).invoke();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class ConstantPoolTask extends RecursiveTask<ReferenceIndex.Builder> {
+        private final Archive archive;
+        private final int from;
+        private final int to;
+
+        private ConstantPoolTask(Archive archive, int from, int to) {
+            this.archive = archive;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReferenceIndex.Builder compute() {
+            if (to - from > ENTRIES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ConstantPoolTask left = new ConstantPoolTask(archive, from, middle);
+                ConstantPoolTask right = new ConstantPoolTask(archive, middle, to);
+                left.fork();
+                ReferenceIndex.Builder tail = right.compute();
+                return left.join().merge(tail);
+            }
+
+            ReferenceIndex.Builder references = ReferenceIndex.builder();
+            for (int i = from; i < to; i++) {
+                try {
+                    ConstantPoolReader.read(archive.read(i), references);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return references;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import lombok.Data;
+import org.kordamp.naum.model.ArtifactInfo;
+
+import java.util.SortedSet;
+
+/**
+ * Result of scanning two versions of a jar with {@link ArchiveScanner#scanChanges}. Both artifacts hold
+ * only the classes whose entries were removed, added or modified; entries that are byte-identical
+ * in both versions are listed in {@code unchanged} by class name.
+ *
+ * @author Andres Almiray
+ */
+@Data
+public class ArtifactPair {
+    private final ArtifactInfo previous;
+    private final ArtifactInfo next;
+    private final SortedSet<String> unchanged;
+}
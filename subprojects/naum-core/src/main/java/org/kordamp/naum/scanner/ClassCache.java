@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.snapshot.SnapshotReader;
+import org.kordamp.naum.snapshot.SnapshotWriter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A content-addressed cache of parsed classes on disk. Entries are keyed by the SHA-256 digest
+ * of the class file bytes and hold a snapshot of the classes parsed from them, content hashes
+ * included, so an unchanged class is never parsed twice no matter which jar it comes from.
+ * <p>
+ * The directory may be shared by several processes. Entries are written to a temporary file
+ * and moved into place atomically, so readers never see partial entries. Once the total size
+ * exceeds the maximum the least recently used entries are evicted, by modification time,
+ * under a lock file. Cache failures are never fatal: an unreadable entry is deleted and parsed again.
+ *
+ * @author Andres Almiray
+ */
+public final class ClassCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 512L * 1024 * 1024;
+
+    private static final String LAYOUT = "v1";
+    private static final String SUFFIX = ".snap";
+    private static final String LOCK_FILE = ".lock";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(ClassCache::sha256);
+
+    private final Path directory;
+    private final long maximumSize;
+    private final AtomicLong bytesSinceTrim = new AtomicLong();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ClassCache(@Nonnull Path directory) throws IOException {
+        this(directory, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ClassCache(@Nonnull Path directory, long maximumSize) throws IOException {
+        requireNonNull(directory, "Argument 'directory' must not be null");
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Argument 'maximumSize' must be positive");
+        }
+        this.directory = Files.createDirectories(directory.resolve(LAYOUT));
+        this.maximumSize = maximumSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the classes found in the given class file, parsing it only if it is not cached yet.
+     */
+    public List<ClassInfo> load(@Nonnull byte[] bytes) {
+        return load(bytes, ArchiveScanner::parse);
+    }
+
+    List<ClassInfo> load(byte[] bytes, Function<byte[], List<ClassInfo>> parser) {
+        String key = digest(bytes);
+        Path entry = directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+
+        List<ClassInfo> classes = read(entry);
+        if (classes != null) {
+            hits.increment();
+            return classes;
+        }
+
+        misses.increment();
+        classes = parser.apply(bytes);
+        write(key, entry, classes);
+        return classes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0d : (double) h / total;
+    }
+
+    /**
+     * Evicts least recently used entries until the cache fits its maximum size. Does nothing
+     * if another thread or process is already trimming the same directory.
+     */
+    public void trim() throws IOException {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), CREATE, WRITE);
+             FileLock lock = channel.tryLock()) {
+            if (lock == null) {
+                return;
+            }
+            bytesSinceTrim.set(0);
+
+            List<Entry> entries = new ArrayList<>();
+            long total = 0;
+            try (Stream<Path> files = Files.walk(directory, 2)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (!file.getFileName().toString().endsWith(SUFFIX)) {
+                        continue;
+                    }
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                        total += attributes.size();
+                    } catch (NoSuchFileException e) {
+                        // removed concurrently
+                    }
+                }
+            }
+
+            if (total <= maximumSize) {
+                return;
+            }
+            entries.sort(Comparator.comparingLong(e -> e.lastUsed));
+            for (Entry e : entries) {
+                if (total <= maximumSize) {
+                    break;
+                }
+                if (Files.deleteIfExists(e.file)) {
+                    evictions.increment();
+                }
+                total -= e.size;
+            }
+        } catch (OverlappingFileLockException e) {
+            // another cache instance of this process is trimming the same directory
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private List<ClassInfo> read(Path entry) {
+        try {
+            ArtifactInfo artifact = SnapshotReader.read(entry);
+            touch(entry);
+            return new ArrayList<>(artifact.getClasses().values());
+        } catch (NoSuchFileException e) {
+            // not cached yet, or evicted concurrently
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // corrupt, e.g. truncated by a crash, or written by an older snapshot format
+            try {
+                Files.deleteIfExists(entry);
+            } catch (IOException ignored) {
+                // the entry is replaced once parsed again
+            }
+            return null;
+        }
+    }
+
+    private void write(String key, Path entry, List<ClassInfo> classes) {
+        ArtifactInfo artifact = ArtifactInfo.artifactInfo()
+            .name(key)
+            .build();
+        for (ClassInfo klass : classes) {
+            artifact.addToClasses(klass);
+        }
+        artifact.freeze();
+
+        try {
+            Path parent = Files.createDirectories(entry.getParent());
+            Path temp = Files.createTempFile(parent, key, ".tmp");
+            try {
+                SnapshotWriter.write(artifact, temp);
+                long size = Files.size(temp);
+                move(temp, entry);
+                if (bytesSinceTrim.addAndGet(size) > maximumSize / 8) {
+                    trim();
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // the cache is an optimization, the parsed classes are still good
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // recency is best effort
+        }
+    }
+
+    private static String digest(byte[] bytes) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        byte[] hash = digest.digest(bytes);
+        char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+        private final long lastUsed;
+
+        private Entry(Path file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
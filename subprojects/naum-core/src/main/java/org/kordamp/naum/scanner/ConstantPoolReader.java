@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import org.kordamp.naum.model.ReferenceIndex;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Collects the classes and members a class file refers to, reading its constant pool only.
+ * Types are taken from class entries and from every descriptor or signature in the pool,
+ * including those of the class's own fields and methods.
+ *
+ * @author Andres Almiray
+ */
+final class ConstantPoolReader {
+    private static final int UTF8 = 1;
+    private static final int CLASS = 7;
+    private static final int FIELD = 9;
+    private static final int METHOD = 10;
+    private static final int INTERFACE_METHOD = 11;
+    private static final int METHOD_TYPE = 16;
+
+    private ConstantPoolReader() {
+        // noop
+    }
+
+    static void read(byte[] bytes, ReferenceIndex.Builder references) {
+        ClassReader reader = new ClassReader(bytes);
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            int offset = reader.getItem(i);
+            if (offset == 0) {
+                // second slot of a long or double
+                continue;
+            }
+
+            switch (bytes[offset - 1]) {
+                case UTF8:
+                    // only decode entries that may be descriptors or signatures
+                    if (isSignatureStart(reader.readUnsignedShort(offset), bytes[offset + 2])) {
+                        addSignatureTypes(readUtf8(bytes, offset, buffer), references);
+                    }
+                    break;
+                case CLASS:
+                    addClass(reader.readUTF8(offset, buffer), references);
+                    break;
+                case FIELD:
+                case METHOD:
+                case INTERFACE_METHOD:
+                    String owner = reader.readClass(offset, buffer);
+                    int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+                    if (owner.charAt(0) != '[') {
+                        references.addMember(owner.replace('/', '.'), reader.readUTF8(nameAndType, buffer),
+                            reader.readUTF8(nameAndType + 2, buffer));
+                    }
+                    break;
+                case METHOD_TYPE:
+                    addSignatureTypes(reader.readUTF8(offset, buffer), references);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static boolean isSignatureStart(int length, int first) {
+        return length > 0 && (first == '(' || first == 'L' || first == '[' || first == '<');
+    }
+
+    /**
+     * Decodes the modified UTF-8 constant at the given offset. ASM only exposes constants
+     * through the index of the entry referring to them.
+     */
+    private static String readUtf8(byte[] bytes, int offset, char[] buffer) {
+        int index = offset + 2;
+        int end = index + (((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF));
+        int length = 0;
+        while (index < end) {
+            int c = bytes[index++] & 0xFF;
+            if (c < 0x80) {
+                buffer[length++] = (char) c;
+            } else if (c < 0xE0) {
+                buffer[length++] = (char) (((c & 0x1F) << 6) | (bytes[index++] & 0x3F));
+            } else {
+                buffer[length++] = (char) (((c & 0x0F) << 12) | ((bytes[index] & 0x3F) << 6) | (bytes[index + 1] & 0x3F));
+                index += 2;
+            }
+        }
+        return new String(buffer, 0, length);
+    }
+
+    private static void addClass(String internalName, ReferenceIndex.Builder references) {
+        if (internalName.charAt(0) == '[') {
+            addSignatureTypes(internalName, references);
+        } else {
+            references.addClass(internalName.replace('/', '.'));
+        }
+    }
+
+    /**
+     * Adds every {@code L...;} type found in a descriptor or generic signature. Strings that
+     * merely look like one only add spurious references, which keeps the index conservative.
+     */
+    static void addSignatureTypes(String value, ReferenceIndex.Builder references) {
+        if (value.isEmpty()) {
+            return;
+        }
+        if (!isSignatureStart(value.length(), value.charAt(0))) {
+            return;
+        }
+
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != 'L') {
+                continue;
+            }
+            int end = i + 1;
+            while (end < length && value.charAt(end) != ';' && value.charAt(end) != '<') {
+                end++;
+            }
+            if (end == length) {
+                return;
+            }
+            if (end > i + 1) {
+                references.addClass(value.substring(i + 1, end).replace('/', '.'));
+            }
+            i = end;
+        }
+    }
+}
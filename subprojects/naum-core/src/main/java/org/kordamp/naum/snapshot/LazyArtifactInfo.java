@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+
+import java.util.SortedMap;
+
+/**
+ * An {@code ArtifactInfo} backed by a {@link MappedSnapshot}. Its classes are a view over the class
+ * index of the snapshot: names are read from the index and a class is only decoded when it is looked
+ * up, so walking the names of a large baseline decodes no class at all.
+ *
+ * @author Andres Almiray
+ */
+final class LazyArtifactInfo extends ArtifactInfo {
+    private final SortedMap<String, ClassInfo> classes;
+
+    LazyArtifactInfo(MappedSnapshot snapshot) {
+        super(snapshot.getName());
+        this.classes = new SnapshotClassMap(snapshot, 0, snapshot.size());
+    }
+
+    @Override
+    public SortedMap<String, ClassInfo> getClasses() {
+        return classes;
+    }
+
+    @Override
+    protected void freezeContent() {
+        // classes are frozen as they are decoded
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.ContentHash;
+import org.kordamp.naum.model.FieldInfo;
+import org.kordamp.naum.model.InnerClassInfo;
+import org.kordamp.naum.model.MethodInfo;
+
+import java.util.List;
+
+/**
+ * A {@code ClassInfo} backed by a snapshot. Fields, constructors, methods and inner classes are
+ * decoded on first access, while the section hashes stored in the snapshot are available without
+ * decoding any member.
+ *
+ * @author Andres Almiray
+ */
+final class LazyClassInfo extends ClassInfo {
+    private final ContentHash[] sectionHashes;
+    private SnapshotReader reader;
+    private int membersOffset;
+    private volatile Members members;
+
+    LazyClassInfo(String name, Type type, int version, int modifiers, String typeParameters, String superclass, String[] interfaces, ContentHash[] sectionHashes) {
+        super(name, type, version, modifiers, typeParameters, superclass, interfaces);
+        this.sectionHashes = sectionHashes;
+    }
+
+    void setMembers(SnapshotReader reader, int membersOffset) {
+        this.reader = reader;
+        this.membersOffset = membersOffset;
+    }
+
+    boolean isDecoded() {
+        return members != null;
+    }
+
+    @Override
+    public List<FieldInfo> getFields() {
+        return members().fields;
+    }
+
+    @Override
+    public List<ConstructorInfo> getConstructors() {
+        return members().constructors;
+    }
+
+    @Override
+    public List<MethodInfo> getMethods() {
+        return members().methods;
+    }
+
+    @Override
+    public List<InnerClassInfo> getClasses() {
+        return members().classes;
+    }
+
+    @Override
+    public ContentHash getFieldsHash() {
+        return sectionHashes[0];
+    }
+
+    @Override
+    public ContentHash getConstructorsHash() {
+        return sectionHashes[1];
+    }
+
+    @Override
+    public ContentHash getMethodsHash() {
+        return sectionHashes[2];
+    }
+
+    @Override
+    public ContentHash getClassesHash() {
+        return sectionHashes[3];
+    }
+
+    private Members members() {
+        Members m = members;
+        if (m == null) {
+            synchronized (this) {
+                m = members;
+                if (m == null) {
+                    m = new Members(reader.readMembers(membersOffset));
+                    members = m;
+                    reader = null;
+                }
+            }
+        }
+        return m;
+    }
+
+    private static final class Members {
+        private final List<FieldInfo> fields;
+        private final List<ConstructorInfo> constructors;
+        private final List<MethodInfo> methods;
+        private final List<InnerClassInfo> classes;
+
+        private Members(SnapshotReader.Members members) {
+            fields = freeze(members.fields, false);
+            constructors = freeze(members.constructors, false);
+            methods = freeze(members.methods, false);
+            classes = freeze(members.classes, false);
+        }
+    }
+}
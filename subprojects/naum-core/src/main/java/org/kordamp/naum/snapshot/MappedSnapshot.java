@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ContentHash;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+import static org.kordamp.naum.snapshot.SnapshotFormat.MAGIC;
+
+/**
+ * Random access to the classes of a snapshot written by {@link SnapshotWriter}. The file is
+ * memory-mapped and classes are located by binary search over the class index, so only the
+ * classes that are looked up are decoded. Members of a class are in turn decoded the first time
+ * they are requested; section and content hashes are available without decoding them.
+ * <p>
+ * A snapshot may stand in for the previous version of an artifact: {@link #toArtifact()} is what
+ * {@code ArchiveScanner} returns for a snapshot file, and a comparison then only decodes the
+ * headers of classes it looks up and the members of classes whose content hash changed.
+ * <p>
+ * Instances are safe for use by multiple threads.
+ *
+ * @author Andres Almiray
+ */
+public final class MappedSnapshot {
+    private final SnapshotReader reader;
+    private final ConcurrentMap<Integer, ClassInfo> classes = new ConcurrentHashMap<>();
+    private final List<String> classNames;
+
+    private MappedSnapshot(SnapshotReader reader) {
+        this.reader = reader;
+        this.classNames = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return reader.readClassName(index);
+            }
+
+            @Override
+            public int size() {
+                return reader.getClassCount();
+            }
+        };
+    }
+
+    public static MappedSnapshot open(@Nonnull Path file) throws IOException {
+        requireNonNull(file, "Argument 'file' must not be null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static MappedSnapshot open(@Nonnull ByteBuffer buffer) throws IOException {
+        requireNonNull(buffer, "Argument 'buffer' must not be null");
+        return new MappedSnapshot(SnapshotReader.open(buffer));
+    }
+
+    /**
+     * Whether the given file starts with the magic number of a snapshot.
+     */
+    public static boolean isSnapshot(@Nonnull Path file) throws IOException {
+        requireNonNull(file, "Argument 'file' must not be null");
+        if (!Files.isRegularFile(file) || Files.size(file) < Integer.BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading until the magic number is complete
+            }
+            magic.flip();
+            return magic.remaining() == Integer.BYTES && magic.getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Returns an artifact backed by this snapshot. Its classes are a view over the class index: walking
+     * their names decodes nothing, a class header is decoded when the class is looked up, and members
+     * are decoded as they are requested.
+     */
+    public ArtifactInfo toArtifact() {
+        return new LazyArtifactInfo(this).presetContentHash(getContentHash()).freeze();
+    }
+
+    public String getName() {
+        return reader.getName();
+    }
+
+    public ContentHash getContentHash() {
+        return reader.getContentHash();
+    }
+
+    public int size() {
+        return reader.getClassCount();
+    }
+
+    /**
+     * Names of all classes in the snapshot, in ascending order. Names are decoded as they are read.
+     */
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public boolean containsClass(@Nonnull String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Returns the class with the given name, or {@code null} if the snapshot does not contain it.
+     * The returned instance is frozen and shared by subsequent lookups.
+     */
+    public ClassInfo findClass(@Nonnull String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : getClassAt(index);
+    }
+
+    public ClassInfo getClassAt(int index) {
+        return classes.computeIfAbsent(index, i -> reader.readClass(i, true));
+    }
+
+    /**
+     * Number of classes whose header has been decoded so far.
+     */
+    int getDecodedClasses() {
+        return classes.size();
+    }
+
+    /**
+     * Position of the class with the given name in the class index, or {@code -(insertion point) - 1}
+     * if the snapshot does not contain it, as {@link java.util.Collections#binarySearch} does.
+     */
+    int indexOf(String name) {
+        requireNonNull(name, "Argument 'name' must not be null");
+        int low = 0;
+        int high = reader.getClassCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = reader.readClassName(mid).compareTo(name);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.ClassInfo;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * An unmodifiable, name ordered view over a range of the class index of a {@link MappedSnapshot}.
+ * Keys are read from the index; a class is decoded the first time its value is requested, be it
+ * through {@link #get(Object)}, {@link #values()} or an entry.
+ *
+ * @author Andres Almiray
+ */
+final class SnapshotClassMap extends AbstractMap<String, ClassInfo> implements SortedMap<String, ClassInfo> {
+    private final MappedSnapshot snapshot;
+    private final int from;
+    private final int to;
+
+    SnapshotClassMap(MappedSnapshot snapshot, int from, int to) {
+        this.snapshot = snapshot;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public ClassInfo get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : snapshot.getClassAt(index);
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedMap<String, ClassInfo> subMap(String fromKey, String toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SnapshotClassMap(snapshot, bound(fromKey), bound(toKey));
+    }
+
+    @Override
+    public SortedMap<String, ClassInfo> headMap(String toKey) {
+        return new SnapshotClassMap(snapshot, from, bound(toKey));
+    }
+
+    @Override
+    public SortedMap<String, ClassInfo> tailMap(String fromKey) {
+        return new SnapshotClassMap(snapshot, bound(fromKey), to);
+    }
+
+    @Override
+    public String firstKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return snapshot.getClassNames().get(from);
+    }
+
+    @Override
+    public String lastKey() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return snapshot.getClassNames().get(to - 1);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new IndexIterator<String>() {
+                    @Override
+                    String at(int index) {
+                        return snapshot.getClassNames().get(index);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return SnapshotClassMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<ClassInfo> values() {
+        return new AbstractCollection<ClassInfo>() {
+            @Override
+            public Iterator<ClassInfo> iterator() {
+                return new IndexIterator<ClassInfo>() {
+                    @Override
+                    ClassInfo at(int index) {
+                        return snapshot.getClassAt(index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SnapshotClassMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, ClassInfo>> entrySet() {
+        return new AbstractSet<Map.Entry<String, ClassInfo>>() {
+            @Override
+            public Iterator<Map.Entry<String, ClassInfo>> iterator() {
+                return new IndexIterator<Map.Entry<String, ClassInfo>>() {
+                    @Override
+                    Map.Entry<String, ClassInfo> at(int index) {
+                        return new ClassEntry(index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SnapshotClassMap.this.size();
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int index = snapshot.indexOf((String) key);
+        return index >= from && index < to ? index : -1;
+    }
+
+    /**
+     * Position of the first class of this view whose name is not less than the given key.
+     */
+    private int bound(String key) {
+        int index = snapshot.indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(Math.max(index, from), to);
+    }
+
+    private abstract class IndexIterator<E> implements Iterator<E> {
+        private int index = from;
+
+        abstract E at(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < to;
+        }
+
+        @Override
+        public E next() {
+            if (index >= to) {
+                throw new NoSuchElementException();
+            }
+            return at(index++);
+        }
+    }
+
+    private final class ClassEntry implements Map.Entry<String, ClassInfo> {
+        private final int index;
+        private final String name;
+
+        private ClassEntry(int index) {
+            this.index = index;
+            this.name = snapshot.getClassNames().get(index);
+        }
+
+        @Override
+        public String getKey() {
+            return name;
+        }
+
+        @Override
+        public ClassInfo getValue() {
+            return snapshot.getClassAt(index);
+        }
+
+        @Override
+        public ClassInfo setValue(ClassInfo value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return name.equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.ClassInfo;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.kordamp.naum.model.Opcodes.ACC_ABSTRACT;
+import static org.kordamp.naum.model.Opcodes.ACC_ANNOTATION;
+import static org.kordamp.naum.model.Opcodes.ACC_ENUM;
+import static org.kordamp.naum.model.Opcodes.ACC_FINAL;
+import static org.kordamp.naum.model.Opcodes.ACC_INTERFACE;
+import static org.kordamp.naum.model.Opcodes.ACC_SYNCHRONIZED;
+
+/**
+ * Constants and primitive encodings shared by {@link SnapshotWriter} and {@link SnapshotReader}.
+ * <p>
+ * A snapshot starts with the magic number, the format version, the artifact name and its content
+ * hash, followed by a table of every string used by the model. All other references to strings are varint indices
+ * into that table, {@code 0} standing for {@code null}. Strings are stored as their encoded length followed by
+ * each UTF-16 unit encoded on its own in one to three bytes, as in CESU-8, so that unpaired surrogates found in
+ * constant values survive the round trip. Every element carries its precomputed
+ * 128-bit content hash, and the members of a class are prefixed by their encoded length so that
+ * readers can skip them.
+ * <p>
+ * Classes are stored in name order. The file ends with two tables of absolute offsets, one per
+ * string and one per class, followed by the positions of both tables, which lets a reader address
+ * any string or class directly. As offsets are ints and readers map a snapshot into a single buffer, a
+ * snapshot is at most {@link #MAX_SIZE} bytes long.
+ *
+ * @author Andres Almiray
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x4e41554d;
+    static final int VERSION = 7;
+    static final int FOOTER_SIZE = 8;
+    static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    static final int VALUE_NULL = 0;
+    static final int VALUE_STRING = 1;
+    static final int VALUE_INTEGER = 2;
+    static final int VALUE_LONG = 3;
+    static final int VALUE_FLOAT = 4;
+    static final int VALUE_DOUBLE = 5;
+    static final int VALUE_BOOLEAN = 6;
+    static final int VALUE_CHARACTER = 7;
+    static final int VALUE_BYTE = 8;
+    static final int VALUE_SHORT = 9;
+    static final int VALUE_TYPE = 10;
+
+    static final int ANNOTATION_VALUE_SIMPLE = 0;
+    static final int ANNOTATION_VALUE_ENUM = 1;
+    static final int ANNOTATION_VALUE_ARRAY = 2;
+    static final int ANNOTATION_VALUE_ANNOTATION = 3;
+
+    private static final ClassInfo.Type[] TYPES = ClassInfo.Type.values();
+
+    private SnapshotFormat() {
+
+    }
+
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7f) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    static void writeVarlong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static long readVarlong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                length += c < 0x800 ? 1 : 2;
+            }
+        }
+        return length;
+    }
+
+    static void writeUtf8(DataOutput out, String value) throws IOException {
+        byte[] bytes = new byte[utf8Length(value)];
+        int n = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[n++] = (byte) (0xc0 | c >> 6);
+                bytes[n++] = (byte) (0x80 | c & 0x3f);
+            } else {
+                bytes[n++] = (byte) (0xe0 | c >> 12);
+                bytes[n++] = (byte) (0x80 | c >> 6 & 0x3f);
+                bytes[n++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readUtf8(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        int end = buffer.position() + length;
+        char[] chars = new char[length];
+        int n = 0;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xff;
+            if (b < 0x80) {
+                chars[n++] = (char) b;
+            } else if (b < 0xe0) {
+                chars[n++] = (char) ((b & 0x1f) << 6 | buffer.get() & 0x3f);
+            } else {
+                chars[n++] = (char) ((b & 0x0f) << 12 | (buffer.get() & 0x3f) << 6 | buffer.get() & 0x3f);
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static ClassInfo.Type classType(int ordinal) {
+        return TYPES[ordinal];
+    }
+
+    /**
+     * Restores the access flags that {@code ClassInfo.create} strips from the modifiers of
+     * interfaces, annotations and enums, so that a class can be rebuilt through its builder.
+     */
+    static int accessFlags(ClassInfo.Type type, int modifiers) {
+        switch (type) {
+            case ENUM:
+                return modifiers + (ACC_ENUM + ACC_FINAL + ACC_SYNCHRONIZED);
+            case ANNOTATION:
+                return modifiers + (ACC_INTERFACE + ACC_ABSTRACT + ACC_ANNOTATION);
+            case INTERFACE:
+                return modifiers + (ACC_INTERFACE + ACC_ABSTRACT);
+            default:
+                return modifiers;
+        }
+    }
+}
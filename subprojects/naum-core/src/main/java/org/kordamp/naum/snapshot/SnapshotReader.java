@@ -0,0 +1,381 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.AnnotatedInfo;
+import org.kordamp.naum.model.AnnotationInfo;
+import org.kordamp.naum.model.AnnotationValue;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.ContentHash;
+import org.kordamp.naum.model.FieldInfo;
+import org.kordamp.naum.model.InnerClassInfo;
+import org.kordamp.naum.model.MethodInfo;
+import org.objectweb.asm.Type;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.kordamp.naum.model.AnnotationValue.newArrayValue;
+import static org.kordamp.naum.model.AnnotationValue.newEnumValue;
+import static org.kordamp.naum.model.AnnotationValue.newSimpleValue;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ANNOTATION;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ARRAY;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ENUM;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_SIMPLE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.FOOTER_SIZE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.MAGIC;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_BOOLEAN;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_BYTE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_CHARACTER;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_DOUBLE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_FLOAT;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_INTEGER;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_LONG;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_NULL;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_SHORT;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_STRING;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_TYPE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VERSION;
+import static org.kordamp.naum.snapshot.SnapshotFormat.accessFlags;
+import static org.kordamp.naum.snapshot.SnapshotFormat.classType;
+import static org.kordamp.naum.snapshot.SnapshotFormat.readUtf8;
+import static org.kordamp.naum.snapshot.SnapshotFormat.readVarint;
+import static org.kordamp.naum.snapshot.SnapshotFormat.readVarlong;
+import static org.kordamp.naum.snapshot.SnapshotFormat.unZigZag;
+
+/**
+ * Loads an {@code ArtifactInfo} written by {@link SnapshotWriter}. Content hashes are restored from
+ * the snapshot instead of being recomputed, and every loaded element is frozen.
+ *
+ * @author Andres Almiray
+ */
+public final class SnapshotReader {
+    private final ByteBuffer buffer;
+    private final String name;
+    private final ContentHash contentHash;
+    private final StringTable strings;
+    private final int classIndexOffset;
+    private final int classCount;
+
+    private SnapshotReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        ByteBuffer b = buffer.duplicate();
+        if (b.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        int version = readVarint(b);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        name = readUtf8(b);
+        contentHash = readHash(b);
+        int stringCount = readVarint(b);
+
+        int footer = buffer.limit() - FOOTER_SIZE;
+        int stringIndexOffset = buffer.getInt(footer);
+        classIndexOffset = buffer.getInt(footer + 4);
+        if (stringIndexOffset < b.position() || stringIndexOffset + stringCount * 4 != classIndexOffset ||
+            classIndexOffset > footer || (footer - classIndexOffset) % 4 != 0) {
+            throw new IOException("Corrupt snapshot");
+        }
+        strings = new StringTable(buffer, stringIndexOffset, stringCount);
+        classCount = (footer - classIndexOffset) / 4;
+    }
+
+    public static ArtifactInfo read(@Nonnull Path file) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    public static ArtifactInfo read(@Nonnull InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return read(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    public static ArtifactInfo read(@Nonnull ByteBuffer buffer) throws IOException {
+        SnapshotReader reader = open(buffer);
+        try {
+            ArtifactInfo artifact = ArtifactInfo.artifactInfo()
+                .name(reader.name)
+                .build();
+            for (int i = 0; i < reader.classCount; i++) {
+                artifact.addToClasses(reader.readClass(i, false));
+            }
+            return artifact.presetContentHash(reader.contentHash).freeze();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot", e);
+        }
+    }
+
+    static SnapshotReader open(ByteBuffer buffer) throws IOException {
+        try {
+            return new SnapshotReader(buffer.slice());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot", e);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    ContentHash getContentHash() {
+        return contentHash;
+    }
+
+    int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Returns the name of the class at the given position of the class index without decoding the
+     * rest of its record.
+     */
+    String readClassName(int index) {
+        ByteBuffer b = classRecord(index);
+        return strings.get(readVarint(b));
+    }
+
+    /**
+     * Decodes the class at the given position of the class index. A lazy class only decodes its
+     * header and annotations; members are read from the snapshot the first time they are requested.
+     */
+    ClassInfo readClass(int index, boolean lazy) {
+        ByteBuffer b = classRecord(index);
+        String name = readString(b);
+        ClassInfo.Type type = classType(b.get());
+        int version = readVarint(b);
+        int modifiers = readVarint(b);
+        String typeParameters = readString(b);
+        String superclass = readString(b);
+        String[] interfaces = readStrings(b);
+        ContentHash hash = readHash(b);
+        ContentHash[] sectionHashes = new ContentHash[]{readHash(b), readHash(b), readHash(b), readHash(b)};
+
+        ClassInfo klass;
+        if (lazy) {
+            LazyClassInfo lazyClass = new LazyClassInfo(name, type, version, modifiers, typeParameters, superclass, interfaces, sectionHashes);
+            readAnnotations(b, lazyClass);
+            int length = readVarint(b);
+            lazyClass.setMembers(this, b.position());
+            b.position(b.position() + length);
+            klass = lazyClass;
+        } else {
+            klass = ClassInfo.classInfo()
+                .name(name)
+                .version(version)
+                .modifiers(accessFlags(type, modifiers))
+                .typeParameters(typeParameters)
+                .superclass(superclass)
+                .interfaces(interfaces)
+                .build()
+                .stage();
+            readAnnotations(b, klass);
+            readVarint(b);
+            Members members = readMembers(b);
+            members.fields.forEach(klass::addToFields);
+            members.constructors.forEach(klass::addToConstructors);
+            members.methods.forEach(klass::addToMethods);
+            members.classes.forEach(klass::addToClasses);
+        }
+
+        return klass.presetContentHash(hash).freeze();
+    }
+
+    Members readMembers(int offset) {
+        ByteBuffer b = buffer.duplicate();
+        b.position(offset);
+        return readMembers(b);
+    }
+
+    private Members readMembers(ByteBuffer b) {
+        Members members = new Members();
+        for (int i = readVarint(b); i > 0; i--) {
+            members.fields.add(readField(b));
+        }
+        for (int i = readVarint(b); i > 0; i--) {
+            members.constructors.add(readConstructor(b));
+        }
+        for (int i = readVarint(b); i > 0; i--) {
+            members.methods.add(readMethod(b));
+        }
+        for (int i = readVarint(b); i > 0; i--) {
+            members.classes.add(readInnerClass(b));
+        }
+        return members;
+    }
+
+    private ByteBuffer classRecord(int index) {
+        if (index < 0 || index >= classCount) {
+            throw new IndexOutOfBoundsException("Class index " + index + " out of bounds for " + classCount + " classes");
+        }
+        ByteBuffer b = buffer.duplicate();
+        b.position(buffer.getInt(classIndexOffset + index * 4));
+        return b;
+    }
+
+    private FieldInfo readField(ByteBuffer b) {
+        FieldInfo field = FieldInfo.fieldInfo()
+            .name(readString(b))
+            .modifiers(readVarint(b))
+            .type(readString(b))
+            .value(readValue(b))
+            .descriptor(readString(b))
+            .build();
+        readAnnotations(b, field);
+        return field.presetContentHash(readHash(b));
+    }
+
+    private ConstructorInfo readConstructor(ByteBuffer b) {
+        ConstructorInfo constructor = ConstructorInfo.constructorInfo()
+            .modifiers(readVarint(b))
+            .argumentTypes(readString(b))
+            .exceptions(readStrings(b))
+            .descriptor(readString(b))
+            .build();
+        readAnnotations(b, constructor);
+        return constructor.presetContentHash(readHash(b));
+    }
+
+    private MethodInfo readMethod(ByteBuffer b) {
+        MethodInfo method = MethodInfo.methodInfo()
+            .name(readString(b))
+            .modifiers(readVarint(b))
+            .genericTypes(readString(b))
+            .returnType(readString(b))
+            .argumentTypes(readString(b))
+            .exceptions(readStrings(b))
+            .descriptor(readString(b))
+            .build();
+        readAnnotations(b, method);
+        return method.presetContentHash(readHash(b));
+    }
+
+    private InnerClassInfo readInnerClass(ByteBuffer b) {
+        return InnerClassInfo.innerClassInfo()
+            .name(readString(b))
+            .modifiers(readVarint(b))
+            .build()
+            .presetContentHash(readHash(b));
+    }
+
+    private void readAnnotations(ByteBuffer b, AnnotatedInfo<?> element) {
+        for (int i = readVarint(b); i > 0; i--) {
+            element.addToAnnotations(readAnnotation(b));
+        }
+    }
+
+    private AnnotationInfo readAnnotation(ByteBuffer b) {
+        AnnotationInfo annotation = AnnotationInfo.annotationInfo()
+            .name(readString(b))
+            .build();
+        for (int i = readVarint(b); i > 0; i--) {
+            String key = readString(b);
+            annotation.getValues().put(key, readAnnotationValue(b));
+        }
+        return annotation.presetContentHash(readHash(b));
+    }
+
+    private AnnotationValue readAnnotationValue(ByteBuffer b) {
+        int tag = b.get();
+        switch (tag) {
+            case ANNOTATION_VALUE_ANNOTATION:
+                return readAnnotation(b);
+            case ANNOTATION_VALUE_ARRAY:
+                List<AnnotationValue> elements = new ArrayList<>();
+                for (int i = readVarint(b); i > 0; i--) {
+                    elements.add(readAnnotationValue(b));
+                }
+                return newArrayValue(elements);
+            case ANNOTATION_VALUE_ENUM:
+                String enumType = readString(b);
+                return newEnumValue(enumType, readString(b));
+            case ANNOTATION_VALUE_SIMPLE:
+                String type = readString(b);
+                return newSimpleValue(type, readValue(b));
+            default:
+                throw new IllegalArgumentException("Unknown annotation value tag " + tag);
+        }
+    }
+
+    private Object readValue(ByteBuffer b) {
+        int tag = b.get();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString(b);
+            case VALUE_INTEGER:
+                return (int) unZigZag(readVarlong(b));
+            case VALUE_LONG:
+                return unZigZag(readVarlong(b));
+            case VALUE_FLOAT:
+                return Float.intBitsToFloat(b.getInt());
+            case VALUE_DOUBLE:
+                return Double.longBitsToDouble(b.getLong());
+            case VALUE_BOOLEAN:
+                return b.get() != 0;
+            case VALUE_CHARACTER:
+                return b.getChar();
+            case VALUE_BYTE:
+                return b.get();
+            case VALUE_SHORT:
+                return b.getShort();
+            case VALUE_TYPE:
+                return Type.getType(readString(b));
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    private String[] readStrings(ByteBuffer b) {
+        String[] values = new String[readVarint(b)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(b);
+        }
+        return values;
+    }
+
+    private String readString(ByteBuffer b) {
+        return strings.get(readVarint(b));
+    }
+
+    private static ContentHash readHash(ByteBuffer b) {
+        return new ContentHash(b.getLong(), b.getLong());
+    }
+
+    static final class Members {
+        final List<FieldInfo> fields = new ArrayList<>();
+        final List<ConstructorInfo> constructors = new ArrayList<>();
+        final List<MethodInfo> methods = new ArrayList<>();
+        final List<InnerClassInfo> classes = new ArrayList<>();
+    }
+}
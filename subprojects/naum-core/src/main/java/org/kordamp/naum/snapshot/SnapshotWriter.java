@@ -0,0 +1,331 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.kordamp.naum.model.AnnotatedInfo;
+import org.kordamp.naum.model.AnnotationInfo;
+import org.kordamp.naum.model.AnnotationValue;
+import org.kordamp.naum.model.ArrayValue;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ConstructorInfo;
+import org.kordamp.naum.model.ContentHash;
+import org.kordamp.naum.model.EnumValue;
+import org.kordamp.naum.model.FieldInfo;
+import org.kordamp.naum.model.InnerClassInfo;
+import org.kordamp.naum.model.MethodInfo;
+import org.kordamp.naum.model.SimpleValue;
+import org.objectweb.asm.Type;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ANNOTATION;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ARRAY;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_ENUM;
+import static org.kordamp.naum.snapshot.SnapshotFormat.ANNOTATION_VALUE_SIMPLE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.FOOTER_SIZE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.MAGIC;
+import static org.kordamp.naum.snapshot.SnapshotFormat.MAX_SIZE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_BOOLEAN;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_BYTE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_CHARACTER;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_DOUBLE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_FLOAT;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_INTEGER;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_LONG;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_NULL;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_SHORT;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_STRING;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VALUE_TYPE;
+import static org.kordamp.naum.snapshot.SnapshotFormat.VERSION;
+import static org.kordamp.naum.snapshot.SnapshotFormat.utf8Length;
+import static org.kordamp.naum.snapshot.SnapshotFormat.varintSize;
+import static org.kordamp.naum.snapshot.SnapshotFormat.writeUtf8;
+import static org.kordamp.naum.snapshot.SnapshotFormat.writeVarint;
+import static org.kordamp.naum.snapshot.SnapshotFormat.writeVarlong;
+import static org.kordamp.naum.snapshot.SnapshotFormat.zigZag;
+
+/**
+ * Writes an {@code ArtifactInfo} as a compact binary snapshot that {@link SnapshotReader} can load
+ * without parsing bytecode.
+ *
+ * @author Andres Almiray
+ */
+public final class SnapshotWriter {
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+    private final ByteArrayOutputStream memberBytes = new ByteArrayOutputStream();
+    private final DataOutputStream members = new DataOutputStream(memberBytes);
+    private final List<Integer> classOffsets = new ArrayList<>();
+    private long headerSize;
+    private long stringBytes;
+
+    private SnapshotWriter() {
+
+    }
+
+    public static void write(@Nonnull ArtifactInfo artifact, @Nonnull Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(artifact, out);
+        }
+    }
+
+    public static void write(@Nonnull ArtifactInfo artifact, @Nonnull OutputStream out) throws IOException {
+        new SnapshotWriter().writeArtifact(artifact, out);
+    }
+
+    private void writeArtifact(ArtifactInfo artifact, OutputStream stream) throws IOException {
+        // magic, version, name, hash and the largest string count
+        int nameLength = utf8Length(artifact.getName());
+        headerSize = Integer.BYTES + varintSize(VERSION) + varintSize(nameLength) + nameLength +
+            2 * Long.BYTES + varintSize(Integer.MAX_VALUE);
+        for (ClassInfo klass : artifact.getClasses().values()) {
+            writeClass(klass);
+            checkSize(artifact);
+        }
+        body.flush();
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        writeVarint(out, VERSION);
+        writeUtf8(out, artifact.getName());
+        writeHash(out, artifact.getContentHash());
+        writeVarint(out, strings.size());
+        int[] stringOffsets = new int[strings.size()];
+        int i = 0;
+        for (String string : strings.keySet()) {
+            stringOffsets[i++] = out.size();
+            writeUtf8(out, string);
+        }
+        int bodyOffset = out.size();
+        bodyBytes.writeTo(out);
+
+        int stringIndexOffset = out.size();
+        for (int offset : stringOffsets) {
+            out.writeInt(offset);
+        }
+        int classIndexOffset = out.size();
+        for (int offset : classOffsets) {
+            out.writeInt(bodyOffset + offset);
+        }
+        out.writeInt(stringIndexOffset);
+        out.writeInt(classIndexOffset);
+        out.flush();
+    }
+
+    /**
+     * Rejects artifacts whose snapshot would not be addressable with int offsets, before the buffered
+     * body outgrows what a byte array can hold.
+     */
+    private void checkSize(ArtifactInfo artifact) throws IOException {
+        long size = headerSize + stringBytes + body.size() + 4L * (strings.size() + classOffsets.size()) + FOOTER_SIZE;
+        if (size > MAX_SIZE) {
+            throw new IOException("Snapshot of " + artifact.getName() + " would exceed " + MAX_SIZE + " bytes");
+        }
+    }
+
+    private void writeClass(ClassInfo klass) throws IOException {
+        classOffsets.add(body.size());
+        writeString(body, klass.getName());
+        body.writeByte(klass.getType().ordinal());
+        writeVarint(body, klass.getVersion());
+        writeVarint(body, klass.getModifiers());
+        writeString(body, klass.getTypeParameters());
+        writeString(body, klass.getSuperclass());
+        writeStrings(body, klass.getInterfaces());
+        writeHash(body, klass.getContentHash());
+        writeHash(body, klass.getFieldsHash());
+        writeHash(body, klass.getConstructorsHash());
+        writeHash(body, klass.getMethodsHash());
+        writeHash(body, klass.getClassesHash());
+        writeAnnotations(body, klass);
+
+        memberBytes.reset();
+        writeVarint(members, klass.getFields().size());
+        for (FieldInfo field : klass.getFields()) {
+            writeField(members, field);
+        }
+        writeVarint(members, klass.getConstructors().size());
+        for (ConstructorInfo constructor : klass.getConstructors()) {
+            writeConstructor(members, constructor);
+        }
+        writeVarint(members, klass.getMethods().size());
+        for (MethodInfo method : klass.getMethods()) {
+            writeMethod(members, method);
+        }
+        writeVarint(members, klass.getClasses().size());
+        for (InnerClassInfo innerClass : klass.getClasses()) {
+            writeString(members, innerClass.getName());
+            writeVarint(members, innerClass.getModifiers());
+            writeHash(members, innerClass.getContentHash());
+        }
+        members.flush();
+
+        writeVarint(body, memberBytes.size());
+        memberBytes.writeTo(body);
+    }
+
+    private void writeField(DataOutputStream out, FieldInfo field) throws IOException {
+        writeString(out, field.getName());
+        writeVarint(out, field.getModifiers());
+        writeString(out, field.getType());
+        writeValue(out, field.getValue());
+        writeString(out, field.getDescriptor());
+        writeAnnotations(out, field);
+        writeHash(out, field.getContentHash());
+    }
+
+    private void writeConstructor(DataOutputStream out, ConstructorInfo constructor) throws IOException {
+        writeVarint(out, constructor.getModifiers());
+        writeString(out, constructor.getArgumentTypes());
+        writeStrings(out, constructor.getExceptions());
+        writeString(out, constructor.getDescriptor());
+        writeAnnotations(out, constructor);
+        writeHash(out, constructor.getContentHash());
+    }
+
+    private void writeMethod(DataOutputStream out, MethodInfo method) throws IOException {
+        writeString(out, method.getName());
+        writeVarint(out, method.getModifiers());
+        writeString(out, method.getGenericTypes());
+        writeString(out, method.getReturnType());
+        writeString(out, method.getArgumentTypes());
+        writeStrings(out, method.getExceptions());
+        writeString(out, method.getDescriptor());
+        writeAnnotations(out, method);
+        writeHash(out, method.getContentHash());
+    }
+
+    private void writeAnnotations(DataOutputStream out, AnnotatedInfo<?> element) throws IOException {
+        List<AnnotationInfo> annotations = element.getAnnotations();
+        writeVarint(out, annotations.size());
+        for (AnnotationInfo annotation : annotations) {
+            writeAnnotation(out, annotation);
+        }
+    }
+
+    private void writeAnnotation(DataOutputStream out, AnnotationInfo annotation) throws IOException {
+        writeString(out, annotation.getName());
+        writeVarint(out, annotation.getValues().size());
+        for (Map.Entry<String, AnnotationValue> entry : annotation.getValues().entrySet()) {
+            writeString(out, entry.getKey());
+            writeAnnotationValue(out, entry.getValue());
+        }
+        writeHash(out, annotation.getContentHash());
+    }
+
+    private void writeAnnotationValue(DataOutputStream out, AnnotationValue value) throws IOException {
+        if (value instanceof AnnotationInfo) {
+            out.writeByte(ANNOTATION_VALUE_ANNOTATION);
+            writeAnnotation(out, (AnnotationInfo) value);
+        } else if (value instanceof ArrayValue) {
+            List<AnnotationValue> elements = ((ArrayValue) value).getValue();
+            out.writeByte(ANNOTATION_VALUE_ARRAY);
+            writeVarint(out, elements.size());
+            for (AnnotationValue element : elements) {
+                writeAnnotationValue(out, element);
+            }
+        } else if (value instanceof EnumValue) {
+            out.writeByte(ANNOTATION_VALUE_ENUM);
+            writeString(out, value.getType());
+            writeString(out, ((EnumValue) value).getValue());
+        } else if (value instanceof SimpleValue) {
+            out.writeByte(ANNOTATION_VALUE_SIMPLE);
+            writeString(out, value.getType());
+            writeValue(out, value.getValue());
+        } else {
+            throw new IllegalArgumentException("Unsupported annotation value " + value);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            writeVarlong(out, zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            writeVarlong(out, zigZag((Long) value));
+        } else if (value instanceof Float) {
+            out.writeByte(VALUE_FLOAT);
+            out.writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            out.writeByte(VALUE_CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(VALUE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            out.writeByte(VALUE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Type) {
+            out.writeByte(VALUE_TYPE);
+            writeString(out, ((Type) value).getDescriptor());
+        } else {
+            throw new IllegalArgumentException("Unsupported constant value " + value + " of type " + value.getClass().getName());
+        }
+    }
+
+    private void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        writeVarint(out, values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size() + 1;
+            strings.put(value, index);
+            int length = utf8Length(value);
+            stringBytes += varintSize(length) + length;
+        }
+        writeVarint(out, index);
+    }
+
+    private static void writeHash(DataOutputStream out, ContentHash hash) throws IOException {
+        out.writeLong(hash.getHigh());
+        out.writeLong(hash.getLow());
+    }
+}
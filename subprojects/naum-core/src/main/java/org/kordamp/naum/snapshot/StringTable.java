@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import java.nio.ByteBuffer;
+
+import static org.kordamp.naum.snapshot.SnapshotFormat.readUtf8;
+
+/**
+ * Decodes entries of the string table on first use, addressing them through the string index
+ * found at the end of a snapshot.
+ *
+ * @author Andres Almiray
+ */
+final class StringTable {
+    private final ByteBuffer buffer;
+    private final int indexOffset;
+    private final String[] strings;
+
+    StringTable(ByteBuffer buffer, int indexOffset, int size) {
+        this.buffer = buffer;
+        this.indexOffset = indexOffset;
+        this.strings = new String[size];
+    }
+
+    String get(int id) {
+        if (id == 0) {
+            return null;
+        }
+
+        String string = strings[id - 1];
+        if (string == null) {
+            ByteBuffer b = buffer.duplicate();
+            b.position(buffer.getInt(indexOffset + (id - 1) * 4));
+            string = readUtf8(b);
+            strings[id - 1] = string;
+        }
+        return string;
+    }
+}
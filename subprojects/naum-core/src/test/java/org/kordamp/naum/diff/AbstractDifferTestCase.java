@@ -19,6 +19,7 @@ package org.kordamp.naum.diff;
  * @author Andres Almiray
  */
 public abstract class AbstractDifferTestCase {
+    public static final String OWNER = "org.example.Owner";
     public static final String JAVA_LANG_OBJECT = "java.lang.Object";
     public static final String JAVA_LANG_RUNTIMEEXCEPTION = "java.lang.RuntimeException";
     public static final String JAVA_LANG_ILLEGALARGUMENTEXCEPTION = "java.lang.IllegalArgumentException";
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import org.junit.Test;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassHierarchy;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ReferenceIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.kordamp.naum.diff.ArtifactDiffer.KEY_ARTIFACT_CLASS_ADDED;
+import static org.kordamp.naum.diff.ArtifactDiffer.KEY_ARTIFACT_CLASS_REMOVED;
+import static org.kordamp.naum.diff.ArtifactDiffer.artifactDiffer;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_METHOD_REMOVED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_SUPERCLASS_MODIFIED;
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.INFO;
+import static org.kordamp.naum.diff.Diff.Type.ADDED;
+import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
+import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+import static org.kordamp.naum.diff.Diff.diff;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+
+/**
+ * @author Andres Almiray
+ */
+public class ArtifactDifferTest extends AbstractDifferTestCase {
+    private static final String ARTIFACT = "foo-1.0.jar";
+    private static final String SUPER_CLASSNAME = "org.example.Bar";
+
+    @Test
+    public void equalArtifactsHaveNoDiffs() {
+        ArtifactInfo previous = artifact(ARTIFACT, klass("org.example.A"), klass("org.example.B"));
+        ArtifactInfo next = artifact("foo-1.1.jar", klass("org.example.A"), klass("org.example.B"));
+
+        assertThat(artifactDiffer(previous, next).diff(), empty());
+    }
+
+    @Test
+    public void reportsRemovedAddedAndModifiedClassesInNameOrder() {
+        ArtifactInfo previous = artifact(ARTIFACT,
+            klass("org.example.A"),
+            klass("org.example.C"),
+            klass("org.example.D"));
+        ArtifactInfo next = artifact("foo-1.1.jar",
+            klass("org.example.A"),
+            klass("org.example.B"),
+            subclass("org.example.C"));
+
+        Collection<Diff> actual = artifactDiffer(previous, next).diff();
+
+        assertThat(actual, equalTo(asList(
+            diff()
+                .severity(INFO)
+                .type(ADDED)
+                .messageKey(KEY_ARTIFACT_CLASS_ADDED)
+                .messageArg(ARTIFACT)
+                .messageArg("org.example.B")
+                .build(),
+            diff()
+                .severity(ERROR)
+                .type(MODIFIED)
+                .messageKey(KEY_CLASS_SUPERCLASS_MODIFIED)
+                .messageArg("org.example.C")
+                .messageArg(JAVA_LANG_OBJECT)
+                .messageArg(SUPER_CLASSNAME)
+                .build(),
+            diff()
+                .severity(ERROR)
+                .type(REMOVED)
+                .messageKey(KEY_ARTIFACT_CLASS_REMOVED)
+                .messageArg(ARTIFACT)
+                .messageArg("org.example.D")
+                .build()
+        )));
+    }
+
+    @Test
+    public void resultsDoNotDependOnParallelism() {
+        List<ClassInfo> p = new ArrayList<>();
+        List<ClassInfo> n = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = String.format("org.example.C%03d", i);
+            if (i % 7 != 0) {
+                p.add(klass(name));
+            }
+            if (i % 11 != 0) {
+                n.add(i % 3 == 0 ? subclass(name) : klass(name));
+            }
+        }
+        ArtifactInfo previous = artifact(ARTIFACT, p.toArray(new ClassInfo[0]));
+        ArtifactInfo next = artifact("foo-1.1.jar", n.toArray(new ClassInfo[0]));
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(8);
+        try {
+            ArtifactDiffer differ = artifactDiffer(previous, next);
+            differ.setPool(single);
+            Collection<Diff> expected = differ.diff();
+            differ.setPool(many);
+
+            assertThat(differ.diff(), equalTo(expected));
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+    }
+
+    @Test
+    public void sinkReceivesDiffsInOrderOnTheCallingThread() {
+        List<ClassInfo> p = new ArrayList<>();
+        List<ClassInfo> n = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            String name = String.format("org.example.C%04d", i);
+            p.add(klass(name));
+            n.add(i % 2 == 0 ? subclass(name) : klass(name));
+        }
+        ArtifactDiffer differ = artifactDiffer(
+            artifact(ARTIFACT, p.toArray(new ClassInfo[0])),
+            artifact("foo-1.1.jar", n.toArray(new ClassInfo[0])));
+
+        Thread caller = Thread.currentThread();
+        List<Diff> actual = new ArrayList<>();
+        differ.diff(d -> {
+            assertThat(Thread.currentThread(), equalTo(caller));
+            actual.add(d);
+        });
+
+        assertThat(actual.size(), equalTo(600));
+        assertThat(actual, equalTo(differ.diff()));
+    }
+
+    @Test
+    public void insertingAnIntermediateSuperclassIsCompatibleWithHierarchies() {
+        ArtifactInfo previous = artifact(ARTIFACT,
+            klass(SUPER_CLASSNAME),
+            subclass("org.example.C"));
+        ArtifactInfo next = artifact("foo-1.1.jar",
+            klass(SUPER_CLASSNAME),
+            newClass().name("org.example.Middle").superclass(SUPER_CLASSNAME).build(),
+            newClass().name("org.example.C").superclass("org.example.Middle").build());
+
+        ArtifactDiffer differ = artifactDiffer(previous, next);
+        assertThat(severityOf(differ, KEY_CLASS_SUPERCLASS_MODIFIED), equalTo(ERROR));
+
+        differ.setPreviousHierarchy(ClassHierarchy.of(previous));
+        differ.setNextHierarchy(ClassHierarchy.of(next));
+        assertThat(severityOf(differ, KEY_CLASS_SUPERCLASS_MODIFIED), equalTo(INFO));
+
+        // skipping the old superclass is still an error
+        ArtifactInfo skipped = artifact("foo-1.2.jar",
+            klass(SUPER_CLASSNAME),
+            klass("org.example.C"));
+        differ = artifactDiffer(previous, skipped);
+        differ.setPreviousHierarchy(ClassHierarchy.of(previous));
+        differ.setNextHierarchy(ClassHierarchy.of(skipped));
+        assertThat(severityOf(differ, KEY_CLASS_SUPERCLASS_MODIFIED), equalTo(ERROR));
+    }
+
+    @Test
+    public void onlyReportsWhatConsumersReference() {
+        ClassInfo used = klass("org.example.Used");
+        used.addToMethods(methodInfo().name("kept").returnType("void").descriptor("()V").build());
+        used.addToMethods(methodInfo().name("dropped").returnType("void").descriptor("()V").build());
+        ArtifactInfo previous = artifact(ARTIFACT, used, klass("org.example.Unused"), subclass("org.example.Other"));
+        ArtifactInfo next = artifact("foo-1.1.jar", klass("org.example.Used"), klass("org.example.Other"));
+
+        ArtifactDiffer differ = artifactDiffer(previous, next);
+        assertThat(differ.diff().size(), equalTo(4));
+
+        differ.setReferences(ReferenceIndex.builder()
+            .addClass("org.example.Used")
+            .addMember("org.example.Used", "kept", "()V")
+            // the same name on an unrelated class does not count
+            .addMember("org.example.Other", "dropped", "()V")
+            .build());
+        assertThat(differ.diff(), equalTo(asList(
+            diff()
+                .severity(ERROR)
+                .type(REMOVED)
+                .messageKey(KEY_CLASS_METHOD_REMOVED)
+                .messageArg("org.example.Used")
+                .messageArg("kept()")
+                .build())));
+    }
+
+    @Test
+    public void reportsMembersInheritedThroughReferencedSubtypes() {
+        ClassInfo base = klass(SUPER_CLASSNAME);
+        base.addToMethods(methodInfo().name("foo").returnType("void").descriptor("()V").build());
+        ArtifactInfo previous = artifact(ARTIFACT, base, subclass("org.example.Sub"));
+        ArtifactInfo next = artifact("foo-1.1.jar", klass(SUPER_CLASSNAME), subclass("org.example.Sub"));
+
+        // a consumer calling new Sub().foo() only names Sub
+        ArtifactDiffer differ = artifactDiffer(previous, next);
+        differ.setReferences(ReferenceIndex.builder()
+            .addClass("org.example.Sub")
+            .addMember("org.example.Sub", "foo", "()V")
+            .build());
+        List<Diff> expected = asList(
+            diff()
+                .severity(ERROR)
+                .type(REMOVED)
+                .messageKey(KEY_CLASS_METHOD_REMOVED)
+                .messageArg(SUPER_CLASSNAME)
+                .messageArg("foo()")
+                .build());
+        assertThat(differ.diff(), equalTo(expected));
+        assertThat(differ.findError(), equalTo(expected.get(0)));
+    }
+
+    private static Diff.Severity severityOf(ArtifactDiffer differ, String messageKey) {
+        for (Diff diff : differ.diff()) {
+            if (diff.getMessageKey().equals(messageKey)) {
+                return diff.getSeverity();
+            }
+        }
+        return null;
+    }
+
+    private static ArtifactInfo artifact(String name, ClassInfo... classes) {
+        ArtifactInfo artifact = artifactInfo().name(name).build();
+        for (ClassInfo klass : classes) {
+            artifact.addToClasses(klass);
+        }
+        return artifact.freeze();
+    }
+
+    private static ClassInfo klass(String name) {
+        return newClass().name(name).build();
+    }
+
+    private static ClassInfo subclass(String name) {
+        return newClass().name(name).superclass(SUPER_CLASSNAME).build();
+    }
+}
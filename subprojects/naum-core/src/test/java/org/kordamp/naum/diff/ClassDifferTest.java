@@ -21,35 +21,56 @@ import junitparams.naming.TestCaseName;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.processor.ClassProcessor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
 
 import java.io.Closeable;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_ANNOTATION_ADDED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_ANNOTATION_REMOVED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_CONSTRUCTOR_ADDED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_FIELD_REMOVED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_INNERCLASS_MODIFIERS_MODIFIED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_INTERFACE_ADDED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_INTERFACE_REMOVED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_METHOD_ADDED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_METHOD_REMOVED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_MODIFIERS_MODIFIED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_SUPERCLASS_MODIFIED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_TYPE_MODIFIED;
 import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_VERSION_MODIFIED;
 import static org.kordamp.naum.diff.ClassDiffer.classDiffer;
 import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.INFO;
 import static org.kordamp.naum.diff.Diff.Type.ADDED;
+import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
 import static org.kordamp.naum.diff.Diff.Type.REMOVED;
 import static org.kordamp.naum.diff.Diff.diff;
+import static org.kordamp.naum.diff.MethodDiffer.KEY_METHOD_TYPE_MODIFIED;
 import static org.kordamp.naum.model.AnnotationInfo.annotationInfo;
 import static org.kordamp.naum.model.ClassInfo.newAnnotation;
 import static org.kordamp.naum.model.ClassInfo.newClass;
 import static org.kordamp.naum.model.ClassInfo.newInterface;
+import static org.kordamp.naum.model.ConstructorInfo.constructorInfo;
+import static org.kordamp.naum.model.FieldInfo.fieldInfo;
+import static org.kordamp.naum.model.InnerClassInfo.innerClassInfo;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+import static org.objectweb.asm.Opcodes.ACC_BRIDGE;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
 import static org.objectweb.asm.Opcodes.V1_7;
 import static org.objectweb.asm.Opcodes.V1_8;
 
@@ -63,6 +84,7 @@ public class ClassDifferTest extends AbstractDifferTestCase {
     private static final String JAVA_IO_SERIALIZABLE = Serializable.class.getName();
     private static final String JAVA_IO_CLONEABLE = Cloneable.class.getName();
     private static final String JAVA_IO_CLOSEABLE = Closeable.class.getName();
+    private static final String SUPPLIER_OF_OBJECT = "Ljava/lang/Object;Ljava/util/function/Supplier<Ljava/lang/Object;>;";
 
     @Test
     @Parameters(method = "classStructure")
@@ -74,6 +96,68 @@ public class ClassDifferTest extends AbstractDifferTestCase {
         assertThat(actual, equalTo(expected));
     }
 
+    @Test
+    @Parameters(method = "classFiles")
+    @TestCaseName("{method}[{index}] - {0}")
+    public void classFilesWithSameErasure(String testName, ClassInfo previous, ClassInfo next, Collection<Diff> expected) {
+        assertThat(classDiffer(previous, next).diff(), equalTo(expected));
+    }
+
+    private Object[] classFiles() {
+        return new Object[]{
+            new Object[]{
+                "method-type-variable",
+                classFile(null, w -> w.visitMethod(ACC_PUBLIC, "foo", "(Ljava/lang/Object;)V", "<T:Ljava/lang/Object;>(TT;)V", null)),
+                classFile(null, w -> w.visitMethod(ACC_PUBLIC, "foo", "(Ljava/lang/Object;)V", "<E:Ljava/lang/Object;>(TE;)V", null)),
+                emptyList()
+            },
+
+            new Object[]{
+                "class-type-variable",
+                classFile("<X:Ljava/lang/Object;>Ljava/lang/Object;", w -> w.visitMethod(ACC_PUBLIC, "bar", "(Ljava/lang/Object;)V", "(TX;)V", null)),
+                classFile("<Y:Ljava/lang/Object;>Ljava/lang/Object;", w -> w.visitMethod(ACC_PUBLIC, "bar", "(Ljava/lang/Object;)V", "(TY;)V", null)),
+                emptyList()
+            },
+
+            new Object[]{
+                "covariant-return-type",
+                classFile(SUPPLIER_OF_OBJECT, w -> w.visitMethod(ACC_PUBLIC, "get", "()Ljava/lang/Object;", null, null)),
+                classFile(SUPPLIER_OF_OBJECT, w -> {
+                    w.visitMethod(ACC_PUBLIC, "get", "()Ljava/lang/String;", null, null);
+                    w.visitMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, "get", "()Ljava/lang/Object;", null, null);
+                }),
+                emptyList()
+            },
+
+            new Object[]{
+                "return-type-without-bridge",
+                classFile(null, w -> w.visitMethod(ACC_PUBLIC, "get", "()Ljava/lang/Number;", null, null)),
+                classFile(null, w -> w.visitMethod(ACC_PUBLIC, "get", "()Ljava/lang/Integer;", null, null)),
+                asList(
+                    diff()
+                        .severity(ERROR)
+                        .type(MODIFIED)
+                        .messageKey(KEY_METHOD_TYPE_MODIFIED)
+                        .messageArg(CLASSNAME + "#get()")
+                        .messageArg(Number.class.getName())
+                        .messageArg(Integer.class.getName())
+                        .build()
+                )
+            }
+        };
+    }
+
+    private static ClassInfo classFile(String signature, Consumer<ClassWriter> members) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_SUPER, CLASSNAME.replace('.', '/'), signature, "java/lang/Object", null);
+        members.accept(writer);
+        writer.visitEnd();
+
+        ClassProcessor processor = new ClassProcessor();
+        new ClassReader(writer.toByteArray()).accept(processor, ClassReader.SKIP_CODE);
+        return processor.getClasses().get(0);
+    }
+
     private Object[] classStructure() {
         return new Object[]{
             new Object[]{
@@ -299,6 +383,102 @@ public class ClassDifferTest extends AbstractDifferTestCase {
                         .messageArg("@" + ANNOTATION_B)
                         .build()
                 )
+            },
+
+            new Object[]{
+                "overloaded-methods",
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToMethods(methodInfo().name("foo").modifiers(ACC_PUBLIC).argumentTypes("java.util.List<T>").build())
+                    .addToMethods(methodInfo().name("foo").modifiers(ACC_PUBLIC).argumentTypes("int").build())
+                    .addToMethods(methodInfo().name("bar").modifiers(ACC_PUBLIC).build()),
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToMethods(methodInfo().name("foo").modifiers(ACC_PUBLIC).argumentTypes("java.util.List<java.lang.String>").build())
+                    .addToMethods(methodInfo().name("foo").modifiers(ACC_PUBLIC).argumentTypes("long").build())
+                    .addToMethods(methodInfo().name("bar").modifiers(ACC_PUBLIC).returnType("int").build()),
+                asList(
+                    diff()
+                        .severity(ERROR)
+                        .type(MODIFIED)
+                        .messageKey(KEY_METHOD_TYPE_MODIFIED)
+                        .messageArg(CLASSNAME + "#bar()")
+                        .messageArg("void")
+                        .messageArg("int")
+                        .build(),
+                    diff()
+                        .severity(ERROR)
+                        .type(REMOVED)
+                        .messageKey(KEY_CLASS_METHOD_REMOVED)
+                        .messageArg(CLASSNAME)
+                        .messageArg("foo(int)")
+                        .build(),
+                    diff()
+                        .severity(INFO)
+                        .type(ADDED)
+                        .messageKey(KEY_CLASS_METHOD_ADDED)
+                        .messageArg(CLASSNAME)
+                        .messageArg("foo(long)")
+                        .build()
+                )
+            },
+
+            new Object[]{
+                "constructors-and-fields",
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToConstructors(constructorInfo().modifiers(ACC_PUBLIC).build())
+                    .addToFields(fieldInfo().name("a").modifiers(ACC_PUBLIC).type("int").build())
+                    .addToFields(fieldInfo().name("b").modifiers(ACC_PUBLIC).type("int").build()),
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToConstructors(constructorInfo().modifiers(ACC_PUBLIC).build())
+                    .addToConstructors(constructorInfo().modifiers(ACC_PUBLIC).argumentTypes("int").build())
+                    .addToFields(fieldInfo().name("b").modifiers(ACC_PUBLIC).type("int").build()),
+                asList(
+                    diff()
+                        .severity(INFO)
+                        .type(ADDED)
+                        .messageKey(KEY_CLASS_CONSTRUCTOR_ADDED)
+                        .messageArg(CLASSNAME)
+                        .messageArg("(int)")
+                        .build(),
+                    diff()
+                        .severity(ERROR)
+                        .type(REMOVED)
+                        .messageKey(KEY_CLASS_FIELD_REMOVED)
+                        .messageArg(CLASSNAME)
+                        .messageArg("a")
+                        .build()
+                )
+            },
+
+            new Object[]{
+                "innerclass-modifiers",
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToClasses(innerClassInfo().name(CLASSNAME + "$Inner").modifiers(ACC_PUBLIC).build()),
+                newClass()
+                    .name(CLASSNAME)
+                    .build()
+                    .addToClasses(innerClassInfo().name(CLASSNAME + "$Inner").modifiers(ACC_PUBLIC | ACC_STATIC).build()),
+                asList(
+                    diff()
+                        .severity(ERROR)
+                        .type(MODIFIED)
+                        .messageKey(KEY_CLASS_INNERCLASS_MODIFIERS_MODIFIED)
+                        .messageArg(CLASSNAME + "$Inner")
+                        .messageArg("public")
+                        .messageArg(ACC_PUBLIC)
+                        .messageArg("public static")
+                        .messageArg(ACC_PUBLIC | ACC_STATIC)
+                        .build()
+                )
             }
         };
     }
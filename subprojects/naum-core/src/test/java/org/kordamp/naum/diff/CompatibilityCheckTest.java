@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import org.junit.Test;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.diff.ArtifactDiffer.KEY_ARTIFACT_CLASS_REMOVED;
+import static org.kordamp.naum.diff.ArtifactDiffer.artifactDiffer;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_SUPERCLASS_MODIFIED;
+import static org.kordamp.naum.diff.ClassDiffer.classDiffer;
+import static org.kordamp.naum.diff.CompatibilityCheck.findError;
+import static org.kordamp.naum.diff.CompatibilityCheck.isCompatible;
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+
+/**
+ * @author Andres Almiray
+ */
+public class CompatibilityCheckTest {
+    @Test
+    public void addedClassesAreCompatible() {
+        ArtifactInfo previous = artifact(0, 100);
+        ArtifactInfo next = artifact(0, 120);
+
+        assertThat(isCompatible(artifactDiffer(previous, next)), equalTo(true));
+    }
+
+    @Test
+    public void removedClassIsAnError() {
+        ArtifactInfo previous = artifact(0, 100);
+        ArtifactInfo next = artifact(1, 100);
+
+        Diff error = findError(artifactDiffer(previous, next));
+        assertThat(error.getMessageKey(), equalTo(KEY_ARTIFACT_CLASS_REMOVED));
+        assertThat(error.getMessageArgs().get(1), equalTo(name(0)));
+    }
+
+    @Test
+    public void stopsAtFirstErrorInParallel() {
+        ArtifactInfo previous = artifact(0, 1000);
+        ArtifactInfo next = artifactInfo().name("foo-1.1.jar").build();
+        for (int i = 0; i < 1000; i++) {
+            next.addToClasses(newClass().name(name(i)).superclass("org.example.Bar").build());
+        }
+        next.freeze();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ArtifactDiffer differ = artifactDiffer(previous, next);
+            differ.setPool(pool);
+            Diff error = findError(differ);
+            assertThat(error, notNullValue());
+            assertThat(error.getSeverity(), equalTo(ERROR));
+            assertThat(error.getMessageKey(), equalTo(KEY_CLASS_SUPERCLASS_MODIFIED));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void checksSingleClasses() {
+        ClassInfo previous = newClass().name(name(0)).build();
+        ClassInfo next = newClass().name(name(0)).superclass("org.example.Bar").build();
+
+        assertThat(findError(classDiffer(previous, previous)), nullValue());
+        assertThat(findError(classDiffer(previous, next)).getMessageKey(), equalTo(KEY_CLASS_SUPERCLASS_MODIFIED));
+    }
+
+    private static ArtifactInfo artifact(int from, int to) {
+        ArtifactInfo artifact = artifactInfo().name("foo-1.0.jar").build();
+        for (int i = from; i < to; i++) {
+            artifact.addToClasses(newClass().name(name(i)).build());
+        }
+        return artifact.freeze();
+    }
+
+    private static String name(int i) {
+        return String.format("org.example.C%04d", i);
+    }
+}
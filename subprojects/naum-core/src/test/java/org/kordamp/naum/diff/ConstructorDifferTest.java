@@ -40,7 +40,6 @@ import static org.kordamp.naum.diff.Diff.Type.ADDED;
 import static org.kordamp.naum.diff.Diff.Type.REMOVED;
 import static org.kordamp.naum.diff.Diff.diff;
 import static org.kordamp.naum.model.AnnotationInfo.annotationInfo;
-import static org.kordamp.naum.model.ConstructorInfo.NAME;
 import static org.kordamp.naum.model.ConstructorInfo.constructorInfo;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
@@ -50,11 +49,13 @@ import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
  */
 @RunWith(JUnitParamsRunner.class)
 public class ConstructorDifferTest extends AbstractDifferTestCase {
+    private static final String CONSTRUCTOR = OWNER + "()";
+
     @Test
     @Parameters(method = "parameters")
     @TestCaseName("{constructor}[{index}] - {0}")
     public void constructorsDiffer(String testName, ConstructorInfo previous, ConstructorInfo next, Collection<Diff> expected) {
-        ConstructorDiffer differ = constructorDiffer(previous, next);
+        ConstructorDiffer differ = constructorDiffer(OWNER, previous, next);
         Collection<Diff> actual = differ.diff();
         assertThat(actual, hasSize(greaterThan(0)));
         assertThat(actual, equalTo(expected));
@@ -75,7 +76,7 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(Diff.Type.MODIFIED)
                         .messageKey(KEY_CONSTRUCTOR_MODIFIERS_MODIFIED)
-                        .messageArg(ConstructorInfo.NAME)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg("public")
                         .messageArg(ACC_PUBLIC)
                         .messageArg("private")
@@ -96,6 +97,7 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_CONSTRUCTOR_EXCEPTION_ADDED)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build()
                 )
@@ -113,6 +115,7 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_CONSTRUCTOR_EXCEPTION_REMOVED)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build()
                 )
@@ -131,12 +134,14 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_CONSTRUCTOR_EXCEPTION_REMOVED)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build(),
                     diff()
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_CONSTRUCTOR_EXCEPTION_ADDED)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg(JAVA_LANG_ILLEGALARGUMENTEXCEPTION)
                         .build()
                 )
@@ -154,7 +159,7 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_CONSTRUCTOR_ANNOTATION_ADDED)
-                        .messageArg(NAME)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -172,7 +177,7 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_CONSTRUCTOR_ANNOTATION_REMOVED)
-                        .messageArg(NAME)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -191,14 +196,14 @@ public class ConstructorDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_CONSTRUCTOR_ANNOTATION_REMOVED)
-                        .messageArg(NAME)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg("@" + ANNOTATION_A)
                         .build(),
                     diff()
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_CONSTRUCTOR_ANNOTATION_ADDED)
-                        .messageArg(NAME)
+                        .messageArg(CONSTRUCTOR)
                         .messageArg("@" + ANNOTATION_B)
                         .build()
                 )
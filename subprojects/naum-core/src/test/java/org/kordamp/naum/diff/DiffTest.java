@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_INNERCLASS_REMOVED;
+import static org.kordamp.naum.diff.ClassDiffer.KEY_CLASS_VERSION_MODIFIED;
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.WARNING;
+import static org.kordamp.naum.diff.Diff.Type.MODIFIED;
+import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+import static org.kordamp.naum.diff.Diff.diff;
+import static org.kordamp.naum.model.InnerClassInfo.innerClassInfo;
+
+/**
+ * @author Andres Almiray
+ */
+public class DiffTest {
+    @Test
+    public void argumentsAreReducedToStrings() {
+        Diff actual = diff()
+            .severity(ERROR)
+            .type(REMOVED)
+            .messageKey(KEY_CLASS_INNERCLASS_REMOVED)
+            .messageArg("org.example.Outer")
+            .messageArg(innerClassInfo().name("org.example.Outer$Inner").build())
+            .build();
+
+        assertThat(actual.getCode(), equalTo(DiffCode.CLASS_INNERCLASS_REMOVED));
+        assertThat(actual.getMessageKey(), equalTo(KEY_CLASS_INNERCLASS_REMOVED));
+        assertThat(actual.getMessageArgs(), equalTo(asList("org.example.Outer", "org.example.Outer$Inner")));
+        assertThat(actual, equalTo(Diff.of(ERROR, REMOVED, DiffCode.CLASS_INNERCLASS_REMOVED,
+            "org.example.Outer", "org.example.Outer$Inner")));
+    }
+
+    @Test
+    public void messagesAreFormattedOnRequest() {
+        Diff actual = diff()
+            .severity(WARNING)
+            .type(MODIFIED)
+            .messageKey(KEY_CLASS_VERSION_MODIFIED)
+            .messageArg("org.example.Foo")
+            .messageArg(52)
+            .messageArg(1000)
+            .build();
+
+        assertThat(actual.getMessage(Locale.ENGLISH), equalTo("Class version of org.example.Foo changed from 52 to 1000"));
+    }
+
+    @Test
+    public void everyCodeHasAMessage() {
+        ResourceBundle messages = ResourceBundle.getBundle("org.kordamp.naum.diff.Messages", Locale.ENGLISH);
+        for (DiffCode code : DiffCode.values()) {
+            assertThat(code.getKey(), messages.containsKey(code.getKey()), equalTo(true));
+            assertThat(DiffCode.of(code.getKey()), equalTo(code));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownKeysAreRejected() {
+        diff().severity(ERROR).type(REMOVED).messageKey("no.such.key").build();
+    }
+}
@@ -54,6 +54,7 @@ import static org.objectweb.asm.Opcodes.ACC_STATIC;
 @RunWith(JUnitParamsRunner.class)
 public class FieldDifferTest extends AbstractDifferTestCase {
     private static final String FIELDNAME = "var";
+    private static final String FIELD = OWNER + "#" + FIELDNAME;
     private static final String JAVA_LANG_INTEGER = "java.lang.Integer";
     private static final String OBJECT_FIELD_VALUE = "value";
 
@@ -61,7 +62,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
     @Parameters(method = "parameters")
     @TestCaseName("{method}[{index}] - {0}")
     public void fieldsDiffer(String testName, FieldInfo previous, FieldInfo next, Collection<Diff> expected) {
-        FieldDiffer differ = fieldDiffer(previous, next);
+        FieldDiffer differ = fieldDiffer(OWNER, previous, next);
         Collection<Diff> actual = differ.diff();
         assertThat(actual, hasSize(greaterThan(0)));
         assertThat(actual, equalTo(expected));
@@ -86,7 +87,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(MODIFIED)
                         .messageKey(KEY_FIELD_MODIFIERS_MODIFIED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg("public")
                         .messageArg(ACC_PUBLIC)
                         .messageArg("private")
@@ -110,7 +111,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(MODIFIED)
                         .messageKey(KEY_FIELD_TYPE_MODIFIED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg(JAVA_LANG_OBJECT)
                         .messageArg(JAVA_LANG_INTEGER)
                         .build()
@@ -136,7 +137,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(MODIFIED)
                         .messageKey(KEY_FIELD_VALUE_MODIFIED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg(null)
                         .messageArg(OBJECT_FIELD_VALUE)
                         .build()
@@ -159,7 +160,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_FIELD_ANNOTATION_ADDED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -181,7 +182,7 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_FIELD_ANNOTATION_REMOVED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -204,14 +205,14 @@ public class FieldDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_FIELD_ANNOTATION_REMOVED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg("@" + ANNOTATION_A)
                         .build(),
                     diff()
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_FIELD_ANNOTATION_ADDED)
-                        .messageArg(FIELDNAME)
+                        .messageArg(FIELD)
                         .messageArg("@" + ANNOTATION_B)
                         .build()
                 )
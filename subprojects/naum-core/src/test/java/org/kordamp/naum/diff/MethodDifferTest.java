@@ -51,13 +51,14 @@ import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
 @RunWith(JUnitParamsRunner.class)
 public class MethodDifferTest extends AbstractDifferTestCase {
     private static final String METHODNAME = "foo";
+    private static final String METHOD = OWNER + "#" + METHODNAME + "()";
     private static final String JAVA_LANG_INTEGER = "java.lang.Integer";
 
     @Test
     @Parameters(method = "parameters")
     @TestCaseName("{method}[{index}] - {0}")
     public void methodsDiffer(String testName, MethodInfo previous, MethodInfo next, Collection<Diff> expected) {
-        MethodDiffer differ = methodDiffer(previous, next);
+        MethodDiffer differ = methodDiffer(OWNER, previous, next);
         Collection<Diff> actual = differ.diff();
         assertThat(actual, hasSize(greaterThan(0)));
         assertThat(actual, equalTo(expected));
@@ -82,7 +83,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(Diff.Type.MODIFIED)
                         .messageKey(KEY_METHOD_MODIFIERS_MODIFIED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg("public")
                         .messageArg(ACC_PUBLIC)
                         .messageArg("private")
@@ -106,7 +107,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(Diff.Type.MODIFIED)
                         .messageKey(KEY_METHOD_TYPE_MODIFIED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg(JAVA_LANG_OBJECT)
                         .messageArg(JAVA_LANG_INTEGER)
                         .build()
@@ -129,7 +130,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_METHOD_EXCEPTION_ADDED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build()
                 )
@@ -151,7 +152,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_METHOD_EXCEPTION_REMOVED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build()
                 )
@@ -174,14 +175,14 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_METHOD_EXCEPTION_REMOVED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg(JAVA_LANG_RUNTIMEEXCEPTION)
                         .build(),
                     diff()
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_METHOD_EXCEPTION_ADDED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg(JAVA_LANG_ILLEGALARGUMENTEXCEPTION)
                         .build()
                 )
@@ -201,7 +202,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_METHOD_ANNOTATION_ADDED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -221,7 +222,7 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_METHOD_ANNOTATION_REMOVED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg("@" + ANNOTATION_A)
                         .build()
                 )
@@ -242,14 +243,14 @@ public class MethodDifferTest extends AbstractDifferTestCase {
                         .severity(ERROR)
                         .type(REMOVED)
                         .messageKey(KEY_METHOD_ANNOTATION_REMOVED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg("@" + ANNOTATION_A)
                         .build(),
                     diff()
                         .severity(ERROR)
                         .type(ADDED)
                         .messageKey(KEY_METHOD_ANNOTATION_ADDED)
-                        .messageArg(METHODNAME)
+                        .messageArg(METHOD)
                         .messageArg("@" + ANNOTATION_B)
                         .build()
                 )
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.diff;
+
+import org.junit.Test;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.kordamp.naum.diff.Timeline.timeline;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+
+/**
+ * @author Andres Almiray
+ */
+public class TimelineTest {
+    private final Map<Path, ArtifactInfo> releases = new HashMap<>();
+    private final Map<Path, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    @Test
+    public void comparesAdjacentReleasesLoadingEachOnce() throws Exception {
+        List<Path> paths = asList(
+            release("foo-1.0.jar", klass("org.example.A")),
+            release("foo-1.1.jar", klass("org.example.A"), klass("org.example.B")),
+            release("foo-2.0.jar", klass("org.example.B")));
+
+        Timeline.Report report = timeline(this::load).compare(paths);
+
+        assertThat(report.getReleases(), equalTo(asList("foo-1.0.jar", "foo-1.1.jar", "foo-2.0.jar")));
+        assertThat(report.getSteps().size(), equalTo(2));
+        assertThat(report.getSteps().get(0).isCompatible(), equalTo(true));
+        assertThat(report.getSteps().get(0).getInfos(), equalTo(1));
+        assertThat(report.getSteps().get(1).isCompatible(), equalTo(false));
+        assertThat(report.getSteps().get(1).getErrors(), equalTo(1));
+        for (Path path : paths) {
+            assertThat(loads.get(path).get(), equalTo(1));
+        }
+    }
+
+    @Test
+    public void anyToAnyScoresSharedFingerprints() throws Exception {
+        List<Path> paths = asList(
+            release("foo-1.0.jar", klass("org.example.A", "a", "b")),
+            release("foo-1.1.jar", klass("org.example.A", "a", "b", "c")),
+            release("foo-2.0.jar", klass("org.example.A", "a")));
+
+        Timeline timeline = timeline(this::load);
+        timeline.setAnyToAny(true);
+        Timeline.Report report = timeline.compare(paths);
+
+        assertThat(report.isCompatible(0, 1), equalTo(true));
+        assertThat(report.isCompatible(1, 2), equalTo(false));
+        assertThat(report.isCompatible(0, 2), equalTo(false));
+        assertThat(report.getOverlap(0, 0), closeTo(1d, 0d));
+        // header + a + b in 1.0, header + a in 2.0
+        assertThat(report.getOverlap(0, 2), closeTo(2d / 3d, 1e-9));
+        assertThat(report.getOverlap(2, 0), closeTo(1d, 0d));
+    }
+
+    @Test(expected = IOException.class)
+    public void loadFailuresAreRethrown() throws Exception {
+        timeline(path -> {
+            throw new IOException(path.toString());
+        }).compare(asList(Paths.get("foo-1.0.jar"), Paths.get("foo-1.1.jar")));
+    }
+
+    private ArtifactInfo load(Path path) {
+        loads.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        return releases.get(path);
+    }
+
+    private Path release(String name, ClassInfo... classes) {
+        ArtifactInfo artifact = artifactInfo().name(name).build();
+        for (ClassInfo klass : classes) {
+            artifact.addToClasses(klass);
+        }
+        Path path = Paths.get(name);
+        releases.put(path, artifact.freeze());
+        return path;
+    }
+
+    private static ClassInfo klass(String name, String... methods) {
+        ClassInfo klass = newClass().name(name).build();
+        for (String method : methods) {
+            klass.addToMethods(methodInfo().name(method).returnType("void").build());
+        }
+        return klass;
+    }
+}
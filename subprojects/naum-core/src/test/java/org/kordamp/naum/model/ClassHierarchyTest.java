@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import org.junit.Test;
+import org.kordamp.naum.processor.ClassProcessor;
+import org.objectweb.asm.ClassReader;
+
+import java.io.InputStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+import static org.kordamp.naum.model.FieldInfo.fieldInfo;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+
+/**
+ * @author Andres Almiray
+ */
+public class ClassHierarchyTest {
+    @Test
+    public void computesTransitiveSupertypesAcrossTheClasspath() {
+        ArtifactInfo library = artifact(
+            newClass().name("org.example.C").superclass("org.example.B").iface("org.example.I").build());
+        ArtifactInfo classpath = artifact(
+            newClass().name("org.example.B").superclass("org.example.A").build(),
+            newClass().name("org.example.A").build(),
+            newClass().name("org.example.I").iface("org.example.J").build(),
+            newClass().name("org.example.J").build());
+
+        ClassHierarchy hierarchy = ClassHierarchy.of(library, classpath);
+
+        assertThat(hierarchy.getSupertypes("org.example.C"), contains(
+            "java.lang.Object", "org.example.A", "org.example.B", "org.example.I", "org.example.J"));
+        assertThat(hierarchy.isSubtypeOf("org.example.C", "org.example.J"), equalTo(true));
+        assertThat(hierarchy.isSubtypeOf("org.example.A", "org.example.C"), equalTo(false));
+        assertThat(hierarchy.contains("java.lang.Object"), equalTo(false));
+        assertThat(hierarchy.isResolved("org.example.C"), equalTo(false));
+    }
+
+    @Test
+    public void collectsVisibleInheritedMembers() {
+        ClassInfo base = newClass().name("org.example.A").build();
+        base.addToFields(fieldInfo().name("count").type("int").modifiers(ACC_PROTECTED).build());
+        base.addToFields(fieldInfo().name("secret").type("int").modifiers(ACC_PRIVATE).build());
+        base.addToMethods(methodInfo().name("run").returnType("void").modifiers(ACC_PUBLIC).build());
+        base.addToMethods(methodInfo().name("helper").returnType("void").build());
+
+        ClassHierarchy hierarchy = ClassHierarchy.of(asList(artifact(
+            base,
+            newClass().name("org.example.B").superclass("org.example.A").build())));
+
+        assertThat(hierarchy.getInheritedMembers("org.example.B"), containsInAnyOrder("count:int", "run()void"));
+        assertThat(hierarchy.getInheritedMembers("org.example.A").isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void indexesGenericInterfacesByRawName() throws Exception {
+        ClassHierarchy hierarchy = ClassHierarchy.of(artifact(parse(Source.class), parse(StringSource.class)));
+
+        assertThat(hierarchy.isSubtypeOf(StringSource.class.getName(), Source.class.getName()), equalTo(true));
+        assertThat(hierarchy.getSubtypes(Source.class.getName()), contains(StringSource.class.getName()));
+        assertThat(hierarchy.getInheritedMembers(StringSource.class.getName()), contains("get()T"));
+    }
+
+    @Test
+    public void toleratesCycles() {
+        ClassHierarchy hierarchy = ClassHierarchy.of(artifact(
+            newClass().name("org.example.A").superclass("org.example.B").build(),
+            newClass().name("org.example.B").superclass("org.example.A").build()));
+
+        assertThat(hierarchy.getSupertypes("org.example.A"), contains("org.example.B"));
+    }
+
+    private static ClassInfo parse(Class<?> type) throws Exception {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream stream = ClassHierarchyTest.class.getClassLoader().getResourceAsStream(resource)) {
+            ClassProcessor processor = new ClassProcessor();
+            new ClassReader(stream).accept(processor, ClassReader.SKIP_CODE);
+            return processor.getClasses().get(0);
+        }
+    }
+
+    private static ArtifactInfo artifact(ClassInfo... classes) {
+        ArtifactInfo artifact = artifactInfo().name("foo.jar").build();
+        for (ClassInfo klass : classes) {
+            artifact.addToClasses(klass);
+        }
+        return artifact.freeze();
+    }
+
+    public interface Source<T> {
+        T get();
+    }
+
+    public static class StringSource implements Source<String> {
+        @Override
+        public String get() {
+            return "";
+        }
+    }
+}
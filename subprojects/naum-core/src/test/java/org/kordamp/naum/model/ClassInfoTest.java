@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.model.AnnotationInfo.annotationInfo;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+
+/**
+ * @author Andres Almiray
+ */
+public class ClassInfoTest {
+    @Test
+    public void stagedMembersAreSortedOnceWhenFrozen() {
+        ClassInfo staged = ClassInfo.newClass().name("org.example.Foo").build().stage();
+        ClassInfo sorted = ClassInfo.newClass().name("org.example.Foo").build();
+        for (String name : asList("c", "a", "b")) {
+            staged.addToMethods(method(name));
+            sorted.addToMethods(method(name));
+        }
+
+        assertThat(names(staged.getMethods()), equalTo(asList("c", "a", "b")));
+
+        staged.freeze();
+
+        assertThat(names(staged.getMethods()), equalTo(asList("a", "b", "c")));
+        assertThat(staged, equalTo(sorted));
+        assertThat(staged.getContentHash(), equalTo(sorted.getContentHash()));
+    }
+
+    @Test
+    public void overloadsAreSortedByOverloadKey() {
+        ClassInfo klass = ClassInfo.newClass().name("org.example.Foo").build()
+            .addToMethods(methodInfo().name("foo").argumentTypes("int[]").descriptor("([I)V").build())
+            .addToMethods(methodInfo().name("foo").argumentTypes("long").descriptor("(J)V").build())
+            .freeze();
+
+        // the order classes are compared in, not the order of the argument types
+        assertThat(klass.getMethods().stream().map(MethodInfo::getOverloadKey).collect(toList()),
+            equalTo(asList("(J)", "([I)")));
+    }
+
+    @Test
+    public void frozenClassesAreImmutable() {
+        ClassInfo klass = ClassInfo.newClass().name("org.example.Foo").build()
+            .addToMethods(method("a"))
+            .freeze();
+
+        assertThat(klass.isFrozen(), equalTo(true));
+        assertThat(klass.getMethods().get(0).isFrozen(), equalTo(true));
+        assertThrows(UnsupportedOperationException.class, () -> klass.getMethods().clear());
+        assertThrows(IllegalStateException.class, () -> klass.addToMethods(method("b")));
+        assertThrows(IllegalStateException.class, () -> klass.addToAnnotations(annotationInfo().name("A").build()));
+    }
+
+    private static void assertThrows(Class<? extends Exception> type, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Exception e) {
+            assertThat(e.getClass().getName(), equalTo(type.getName()));
+            return;
+        }
+        throw new AssertionError("Expected " + type.getName() + " to be thrown");
+    }
+
+    private static MethodInfo method(String name) {
+        return methodInfo()
+            .name(name)
+            .modifiers(ACC_PUBLIC)
+            .returnType("void")
+            .build();
+    }
+
+    private static List<String> names(List<MethodInfo> methods) {
+        return methods.stream().map(MethodInfo::getName).collect(toList());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.model.AnnotationInfo.annotationInfo;
+import static org.kordamp.naum.model.FieldInfo.fieldInfo;
+import static org.kordamp.naum.model.MethodInfo.methodInfo;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+
+/**
+ * @author Andres Almiray
+ */
+public class ContentHashTest {
+    @Test
+    public void equalContentHasEqualHash() {
+        assertThat(method(ACC_PUBLIC).getContentHash(), equalTo(method(ACC_PUBLIC).getContentHash()));
+        assertThat(method(ACC_PUBLIC).getContentHash(), not(equalTo(method(ACC_PRIVATE).getContentHash())));
+    }
+
+    @Test
+    public void hexRepresentationHas128Bits() {
+        assertThat(new ContentHash(1L, -1L).toString(), equalTo("0000000000000001ffffffffffffffff"));
+    }
+
+    @Test
+    public void constantValuesOfDifferentTypesDoNotCollide() {
+        assertThat(constant(1).getContentHash(), not(equalTo(constant(1L).getContentHash())));
+        assertThat(constant(1).getContentHash(), not(equalTo(constant("1").getContentHash())));
+    }
+
+    @Test
+    public void annotationValueOrderDoesNotAffectHash() {
+        AnnotationInfo ab = annotationInfo().name("A").value("a", 1).value("b", "x").build();
+        AnnotationInfo ba = annotationInfo().name("A").value("b", "x").value("a", 1).build();
+        assertThat(ab.getContentHash(), equalTo(ba.getContentHash()));
+    }
+
+    @Test
+    public void stringsOfDifferentLengthDoNotCollide() {
+        ContentHash a = new ContentHasher().putString("ab").putString("c").hash();
+        ContentHash b = new ContentHasher().putString("a").putString("bc").hash();
+        assertThat(a, not(equalTo(b)));
+    }
+
+    @Test
+    public void sectionHashesOnlyChangeForChangedSections() {
+        ClassInfo previous = ClassInfo.newClass().name("org.example.Foo").build()
+            .addToFields(constant(1))
+            .addToMethods(method(ACC_PUBLIC));
+        ClassInfo next = ClassInfo.newClass().name("org.example.Foo").build()
+            .addToFields(constant(1))
+            .addToMethods(method(ACC_PRIVATE));
+
+        assertThat(previous.getFieldsHash(), equalTo(next.getFieldsHash()));
+        assertThat(previous.getConstructorsHash(), equalTo(next.getConstructorsHash()));
+        assertThat(previous.getClassesHash(), equalTo(next.getClassesHash()));
+        assertThat(previous.getAnnotationsHash(), equalTo(next.getAnnotationsHash()));
+        assertThat(previous.getMethodsHash(), not(equalTo(next.getMethodsHash())));
+        assertThat(previous.getContentHash(), not(equalTo(next.getContentHash())));
+    }
+
+    @Test
+    public void addingMembersResetsCachedHashes() {
+        ClassInfo klass = ClassInfo.newClass().name("org.example.Foo").build();
+        ContentHash empty = klass.getContentHash();
+        ContentHash emptyMethods = klass.getMethodsHash();
+
+        klass.addToMethods(method(ACC_PUBLIC));
+
+        assertThat(klass.getMethodsHash(), not(equalTo(emptyMethods)));
+        assertThat(klass.getContentHash(), not(equalTo(empty)));
+    }
+
+    @Test
+    public void hashesComputedWhileStagedDoNotOutliveFreeze() {
+        ClassInfo staged = unsortedClass(true);
+        staged.getAnnotationsHash();
+        staged.getMethodsHash();
+        staged.getContentHash();
+        ArtifactInfo artifact = ArtifactInfo.artifactInfo().name("foo").build().addToClasses(staged);
+        artifact.getContentHash();
+
+        artifact.freeze();
+
+        ClassInfo sorted = unsortedClass(false).freeze();
+        assertThat(staged.getAnnotationsHash(), equalTo(sorted.getAnnotationsHash()));
+        assertThat(staged.getMethodsHash(), equalTo(sorted.getMethodsHash()));
+        assertThat(staged.getContentHash(), equalTo(sorted.getContentHash()));
+        assertThat(artifact.getContentHash(),
+            equalTo(ArtifactInfo.artifactInfo().name("foo").build().addToClasses(sorted).freeze().getContentHash()));
+    }
+
+    private static ClassInfo unsortedClass(boolean staged) {
+        ClassInfo klass = ClassInfo.newClass().name("org.example.Foo").build();
+        if (staged) {
+            klass.stage();
+        }
+        return klass
+            .addToAnnotations(annotationInfo().name("B").build())
+            .addToAnnotations(annotationInfo().name("A").build())
+            .addToMethods(methodInfo().name("foo").modifiers(ACC_PUBLIC).returnType("void").build())
+            .addToMethods(methodInfo().name("bar").modifiers(ACC_PUBLIC).returnType("void").build());
+    }
+
+    private static MethodInfo method(int modifiers) {
+        return methodInfo()
+            .name("foo")
+            .modifiers(modifiers)
+            .returnType("java.lang.String")
+            .argumentTypes("int, java.util.List<T>")
+            .build();
+    }
+
+    private static FieldInfo constant(Object value) {
+        return fieldInfo()
+            .name("VALUE")
+            .modifiers(ACC_PUBLIC | ACC_STATIC | ACC_FINAL)
+            .type("java.lang.Object")
+            .value(value)
+            .build();
+    }
+}
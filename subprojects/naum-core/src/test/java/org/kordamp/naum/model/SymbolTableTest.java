@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.model;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author Andres Almiray
+ */
+public class SymbolTableTest {
+    @Test
+    public void convertsInternalNamesToCanonicalBinaryNames() {
+        String binaryName = SymbolTable.binaryName("java/util/Map$Entry");
+
+        assertThat(binaryName, equalTo("java.util.Map$Entry"));
+        assertThat(SymbolTable.binaryName(new String("java/util/Map$Entry")), sameInstance(binaryName));
+        assertThat(SymbolTable.binaryName(new String("java.util.Map$Entry")), sameInstance(binaryName));
+        assertThat(SymbolTable.binaryName(null), nullValue());
+    }
+
+    @Test
+    public void buildersShareNameInstances() {
+        ClassInfo first = ClassInfo.newClass()
+            .name("com/acme/Foo")
+            .superclass("java/util/AbstractList")
+            .iface("java/io/Serializable")
+            .build();
+        ClassInfo second = ClassInfo.newClass()
+            .name(new String("com.acme.Foo"))
+            .superclass(new String("java.util.AbstractList"))
+            .iface(new String("java.io.Serializable"))
+            .build();
+        MethodInfo method = MethodInfo.methodInfo()
+            .name("get")
+            .returnType(new String("java.util.AbstractList"))
+            .build();
+
+        assertThat(second.getName(), sameInstance(first.getName()));
+        assertThat(second.getSuperclass(), sameInstance(first.getSuperclass()));
+        assertThat(second.getInterfaces()[0], sameInstance(first.getInterfaces()[0]));
+        assertThat(method.getReturnType(), sameInstance(first.getSuperclass()));
+    }
+}
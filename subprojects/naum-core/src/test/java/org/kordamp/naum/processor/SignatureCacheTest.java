@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.processor;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * @author Andres Almiray
+ */
+public class SignatureCacheTest {
+    @Test
+    public void decodesMethodSignatures() {
+        DecodedSignature decoded = new SignatureCache(16).decode("<T:Ljava/lang/Number;>(Ljava/util/List<TT;>;I)TT;");
+
+        assertThat(decoded.getGenericTypes(), equalTo("<T extends java.lang.Number>"));
+        assertThat(decoded.getArgumentTypes(), equalTo("java.util.List<T>, int"));
+        assertThat(decoded.getReturnType(), equalTo("T"));
+    }
+
+    @Test
+    public void decodesClassSignatures() {
+        DecodedSignature decoded = new SignatureCache(16).decode("<K:Ljava/lang/Object;>Ljava/util/AbstractMap<TK;Ljava/lang/String;>;Ljava/io/Serializable;");
+
+        assertThat(decoded.getFormalParameters(), equalTo("<K>"));
+        assertThat(decoded.getTypeOrSuperclass(), equalTo("java.util.AbstractMap<K, java.lang.String>"));
+        assertThat(decoded.getInterfaces(), equalTo(asList("java.io.Serializable")));
+    }
+
+    @Test
+    public void decodesTypeDescriptors() {
+        SignatureCache cache = new SignatureCache(16);
+
+        assertThat(cache.decode("[I").getTypeOrSuperclass(), equalTo("int[]"));
+        assertThat(cache.decode("Ljava/lang/String;").getTypeOrSuperclass(), equalTo("java.lang.String"));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        SignatureCache cache = new SignatureCache(16);
+
+        DecodedSignature first = cache.decode("()V");
+        assertThat(cache.decode("()V"), sameInstance(first));
+        cache.decode("(Ljava/lang/String;)V");
+        cache.decode("()V");
+
+        assertThat(cache.getHits(), equalTo(2L));
+        assertThat(cache.getMisses(), equalTo(2L));
+        assertThat(cache.getHitRate(), equalTo(0.5d));
+    }
+
+    @Test
+    public void staysWithinMaximumSize() {
+        SignatureCache cache = new SignatureCache(4);
+
+        for (int i = 0; i < 32; i++) {
+            cache.decode("(" + repeat("I", i) + ")V");
+        }
+
+        assertThat(cache.size(), lessThanOrEqualTo(4));
+        assertThat(cache.getEvictions(), equalTo(28L));
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            b.append(s);
+        }
+        return b.toString();
+    }
+}
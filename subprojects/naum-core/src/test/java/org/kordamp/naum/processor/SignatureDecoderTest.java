@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.processor;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Checks {@link SignatureDecoder} against {@link CustomTraceSignatureVisitor}, which it replaces.
+ *
+ * @author Andres Almiray
+ */
+@RunWith(JUnitParamsRunner.class)
+public class SignatureDecoderTest {
+    private static final Pattern SIGNATURE_PATTERN = Pattern.compile("(.*)\\((.*)\\)");
+
+    @Test
+    @Parameters({
+        "()V",
+        "()Ljava/lang/Object;",
+        "()[Ljava/lang/Object;",
+        "(Ljava/lang/Object;[[I)J",
+        "<T:Ljava/lang/Object;>(TT;)TT;",
+        "<T::Ljava/lang/Comparable<-TT;>;>(Ljava/util/List<+TT;>;)V",
+        "<K:Ljava/lang/Object;V:TK;>(Ljava/util/Map<TK;TV;>;)Ljava/util/Map$Entry<TK;TV;>;",
+        "<T:TU;U:Ljava/lang/Number;>(Ljava/lang/String;)V",
+        "(Ljava/util/Map<Ljava/lang/String;Ljava/util/List<Ljava/lang/Object;>;>;)V",
+        "(Ljava/util/Map<*[Ljava/lang/String;>.Entry<TK;[[TV;>;)V",
+        "<E:Ljava/lang/Exception;>()V^TE;^Ljava/io/IOException;",
+        "<E:Ljava/lang/Enum<TE;>;>Ljava/lang/Object;Ljava/lang/Comparable<TE;>;Ljava/io/Serializable;",
+        "Ljava/util/AbstractList<Ljava/lang/Object;>;Ljava/util/RandomAccess;",
+        "Ljava/lang/Object;",
+        "[Ljava/lang/Object;",
+        "Ljava/util/List<[Ljava/util/List<Ljava/lang/Object;>;>;",
+        "TT;",
+        "D"
+    })
+    public void decodesLikeTheTraceVisitor(String signature) {
+        assertThat(signature, SignatureDecoder.decode(signature), equalTo(decodeWithVisitor(signature)));
+    }
+
+    @Test
+    public void decodesSignaturesOfLibraryClassesLikeTheTraceVisitor() throws Exception {
+        Set<String> signatures = new LinkedHashSet<>();
+        for (Class<?> type : new Class<?>[]{java.util.HashMap.class, java.util.Collections.class, java.util.EnumSet.class,
+            java.util.stream.Collectors.class, java.util.concurrent.ConcurrentHashMap.class, java.util.Comparator.class,
+            ClassProcessor.class, SignatureDecoderTest.class}) {
+            collectSignatures(type, signatures);
+        }
+
+        for (String signature : signatures) {
+            assertThat(signature, SignatureDecoder.decode(signature), equalTo(decodeWithVisitor(signature)));
+        }
+    }
+
+    private static void collectSignatures(Class<?> type, Set<String> signatures) throws Exception {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = ClassLoader.getSystemResourceAsStream(resource)) {
+            new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM5) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    if (signature != null) {
+                        signatures.add(signature);
+                    }
+                }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+                    signatures.add(signature != null ? signature : desc);
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                    signatures.add(desc);
+                    if (signature != null) {
+                        signatures.add(signature);
+                    }
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE);
+        }
+    }
+
+    private static DecodedSignature decodeWithVisitor(String signature) {
+        CustomTraceSignatureVisitor sv = new CustomTraceSignatureVisitor(Opcodes.ACC_PUBLIC);
+        new SignatureReader(signature).accept(sv);
+
+        String genericTypes = null;
+        String argumentTypes = null;
+        Matcher matcher = SIGNATURE_PATTERN.matcher(sv.getDeclaration());
+        if (matcher.matches()) {
+            genericTypes = matcher.group(1);
+            argumentTypes = matcher.group(2);
+        }
+
+        return new DecodedSignature(genericTypes, argumentTypes, sv.getReturnType(), sv.getTypeOrSuperclass(),
+            sv.getFormalParameters(), new ArrayList<>(sv.getInterfaces()));
+    }
+}
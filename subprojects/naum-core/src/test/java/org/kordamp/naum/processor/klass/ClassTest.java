@@ -174,27 +174,33 @@ public class ClassTest extends AbstractProcessorTest {
             .build();
         classInfo.addToConstructors(constructorInfo()
             .modifiers(ACC_PUBLIC)
+            .descriptor("()V")
             .build());
         classInfo.addToConstructors(constructorInfo()
             .modifiers(ACC_PUBLIC)
             .argumentTypes("int")
+            .descriptor("(I)V")
             .build());
         classInfo.addToConstructors(constructorInfo()
             .modifiers(ACC_PUBLIC)
             .argumentTypes("java.util.Map<java.lang.String, java.lang.Object>")
+            .descriptor("(Ljava/util/Map;)V")
             .build());
         classInfo.addToConstructors(constructorInfo()
             .modifiers(ACC_PUBLIC)
             .argumentTypes("boolean")
             .exceptions(new String[]{IllegalArgumentException.class.getName()})
+            .descriptor("(Z)V")
             .build());
         classInfo.addToConstructors(constructorInfo()
             .modifiers(ACC_PRIVATE)
             .argumentTypes(Object.class.getName())
+            .descriptor("(Ljava/lang/Object;)V")
             .build());
         ConstructorInfo constructor = constructorInfo()
             .modifiers(ACC_PRIVATE)
             .argumentTypes("java.lang.Object, java.lang.Object")
+            .descriptor("(Ljava/lang/Object;Ljava/lang/Object;)V")
             .build();
         constructor.addToAnnotations(annotationInfo()
             .name(Named.class.getName())
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.diff.Diff;
+import org.kordamp.naum.diff.DiffCode;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.kordamp.naum.diff.Diff.Severity.ERROR;
+import static org.kordamp.naum.diff.Diff.Severity.INFO;
+import static org.kordamp.naum.diff.Diff.Type.ADDED;
+import static org.kordamp.naum.diff.Diff.Type.REMOVED;
+
+/**
+ * @author Andres Almiray
+ */
+public class JsonDiffWriterTest {
+    private static final Diff REMOVED_CLASS = Diff.of(ERROR, REMOVED, DiffCode.ARTIFACT_CLASS_REMOVED, "foo.jar", "org.example.A");
+    private static final Diff ADDED_CLASS = Diff.of(INFO, ADDED, DiffCode.ARTIFACT_CLASS_ADDED, "foo.jar", "org.example.\"B\"\n");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writesJsonDocument() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonDiffWriter writer = new JsonDiffWriter(out, JsonDiffWriter.Format.JSON, null)) {
+            writer.accept(REMOVED_CLASS);
+            writer.accept(ADDED_CLASS);
+        }
+
+        assertThat(out.toString(), equalTo("{\"diffs\":[\n" +
+            "{\"severity\":\"ERROR\",\"type\":\"REMOVED\",\"key\":\"artifact.class.removed\",\"args\":[\"foo.jar\",\"org.example.A\"]},\n" +
+            "{\"severity\":\"INFO\",\"type\":\"ADDED\",\"key\":\"artifact.class.added\",\"args\":[\"foo.jar\",\"org.example.\\\"B\\\"\\n\"]}\n" +
+            "],\"errors\":1,\"warnings\":0,\"infos\":1}\n"));
+    }
+
+    @Test
+    public void writesEmptyJsonDocument() throws Exception {
+        StringWriter out = new StringWriter();
+        new JsonDiffWriter(out, JsonDiffWriter.Format.JSON, null).close();
+
+        assertThat(out.toString(), equalTo("{\"diffs\":[],\"errors\":0,\"warnings\":0,\"infos\":0}\n"));
+    }
+
+    @Test
+    public void writesOneLinePerDiffWithMessages() throws Exception {
+        StringWriter out = new StringWriter();
+        ResourceBundle messages = ResourceBundle.getBundle("org.kordamp.naum.diff.Messages", Locale.ENGLISH);
+        try (JsonDiffWriter writer = new JsonDiffWriter(out, JsonDiffWriter.Format.NDJSON, messages)) {
+            writer.accept(REMOVED_CLASS);
+        }
+
+        assertThat(out.toString(), equalTo(
+            "{\"severity\":\"ERROR\",\"type\":\"REMOVED\",\"key\":\"artifact.class.removed\",\"args\":[\"foo.jar\",\"org.example.A\"]," +
+                "\"message\":\"Class org.example.A was removed from foo.jar\"}\n"));
+    }
+
+    @Test
+    public void streamsLargeReportsToFiles() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("report.ndjson");
+        try (JsonDiffWriter writer = JsonDiffWriter.open(file, JsonDiffWriter.Format.NDJSON, null)) {
+            for (int i = 0; i < 100_000; i++) {
+                writer.accept(REMOVED_CLASS);
+            }
+            assertThat(writer.getCount(ERROR), equalTo(100_000));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines.size(), equalTo(100_000));
+        assertThat(lines.get(99_999).startsWith("{\"severity\":\"ERROR\""), equalTo(true));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.model.ReferenceIndex;
+import org.kordamp.naum.processor.ClassProcessor;
+import org.objectweb.asm.ClassReader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * @author Andres Almiray
+ */
+public class ArchiveScannerTest {
+    private static final String KLASS_PACKAGE = "org/kordamp/naum/processor/klass/";
+    private static final String FIELD_PACKAGE = "org/kordamp/naum/processor/field/";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void scanJarInParallel() throws Exception {
+        Path jar = createJar("klass.jar", KLASS_PACKAGE);
+
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            ArtifactInfo artifact = scanner.scan(jar);
+
+            assertThat(artifact.getName(), equalTo(jar.toString()));
+            assertThat(new ArrayList<>(artifact.getClasses().keySet()), equalTo(expectedClassNames(KLASS_PACKAGE)));
+            for (ClassInfo klass : artifact.getClasses().values()) {
+                assertThat(klass, equalTo(parseSequentially(klass.getName())));
+            }
+        }
+    }
+
+    @Test
+    public void scanJarsAndDirectoriesKeepsArgumentOrder() throws Exception {
+        Path jar = createJar("klass.jar", KLASS_PACKAGE);
+        Path directory = classesDirectory(KLASS_PACKAGE);
+
+        try (ArchiveScanner scanner = new ArchiveScanner(4)) {
+            Map<Path, ArtifactInfo> artifacts = scanner.scan(asList(directory, jar));
+
+            assertThat(new ArrayList<>(artifacts.keySet()), contains(directory, jar));
+            assertThat(artifacts.get(directory).getClasses().keySet(), hasItem("org.kordamp.naum.processor.klass.PlainClass"));
+            assertThat(artifacts.get(directory).findClass("org.kordamp.naum.processor.klass.PlainClass"),
+                equalTo(artifacts.get(jar).findClass("org.kordamp.naum.processor.klass.PlainClass")));
+        }
+    }
+
+    @Test
+    public void scanChangesParsesOnlyModifiedEntries() throws Exception {
+        Map<String, byte[]> previousEntries = classEntries(KLASS_PACKAGE);
+        Map<String, byte[]> nextEntries = new TreeMap<>(previousEntries);
+        String plainClass = KLASS_PACKAGE + "PlainClass.class";
+        String marker = KLASS_PACKAGE + "Marker.class";
+        String fieldsClass = FIELD_PACKAGE + "PublicPrimitiveFieldsClass.class";
+        // trailing bytes change the CRC but not the parsed class
+        nextEntries.put(plainClass, Arrays.copyOf(previousEntries.get(plainClass), previousEntries.get(plainClass).length + 1));
+        nextEntries.remove(marker);
+        nextEntries.put(fieldsClass, classEntries(FIELD_PACKAGE).get(fieldsClass));
+
+        Path previous = createJar("previous.jar", previousEntries);
+        Path next = createJar("next.jar", nextEntries);
+
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            ArtifactPair pair = scanner.scanChanges(previous, next);
+
+            assertThat(pair.getPrevious().getClasses().keySet(), contains(
+                "org.kordamp.naum.processor.klass.Marker",
+                "org.kordamp.naum.processor.klass.PlainClass"));
+            assertThat(pair.getNext().getClasses().keySet(), contains(
+                "org.kordamp.naum.processor.field.PublicPrimitiveFieldsClass",
+                "org.kordamp.naum.processor.klass.PlainClass"));
+            assertThat(pair.getUnchanged().size(), equalTo(previousEntries.size() - 2));
+            assertThat(pair.getUnchanged(), hasItem("org.kordamp.naum.processor.klass.PlainClassWithSuper"));
+            assertThat(pair.getPrevious().findClass("org.kordamp.naum.processor.klass.PlainClass"),
+                equalTo(pair.getNext().findClass("org.kordamp.naum.processor.klass.PlainClass")));
+        }
+    }
+
+    @Test
+    public void scanReferencesReadsConstantPools() throws Exception {
+        Path jar = createJar("consumer.jar", KLASS_PACKAGE);
+
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            ReferenceIndex references = scanner.scanReferences(asList(jar, classesDirectory(FIELD_PACKAGE)));
+
+            assertThat(references.isClassReferenced("org.kordamp.naum.processor.klass.PlainSuper"), equalTo(true));
+            assertThat(references.isMemberReferenced("org.kordamp.naum.processor.klass.PlainSuper", "<init>", "()V"), equalTo(true));
+            assertThat(references.isMemberReferenced("org.kordamp.naum.processor.klass.PlainSuper", "<init>", "(I)V"), equalTo(false));
+            assertThat(references.isClassReferenced("org.kordamp.naum.model.ClassInfo"), equalTo(true));
+            assertThat(references.isMemberReferenced("org.kordamp.naum.model.ClassInfo", "classInfo",
+                "()Lorg/kordamp/naum/model/ClassInfo$ClassInfoBuilder;"), equalTo(true));
+            assertThat(references.isClassReferenced("org.example.Nothing"), equalTo(false));
+            // names used on other classes do not count for this one
+            assertThat(references.isMemberReferenced("org.example.Nothing", "<init>", "()V"), equalTo(false));
+            assertThat(references.isMemberReferenced("org.example.Nothing", "toString", "()Ljava/lang/String;"), equalTo(false));
+        }
+    }
+
+    private Path createJar(String name, String packagePath) throws Exception {
+        return createJar(name, classEntries(packagePath));
+    }
+
+    private Path createJar(String name, Map<String, byte[]> entries) throws Exception {
+        File file = temporaryFolder.newFile(name);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return file.toPath();
+    }
+
+    private static Map<String, byte[]> classEntries(String packagePath) throws Exception {
+        Map<String, byte[]> entries = new TreeMap<>();
+        for (Path classFile : classFiles(packagePath)) {
+            entries.put(packagePath + classFile.getFileName(), Files.readAllBytes(classFile));
+        }
+        return entries;
+    }
+
+    private static Path classesDirectory(String packagePath) throws Exception {
+        Path packageDirectory = Paths.get(ArchiveScannerTest.class.getClassLoader().getResource(packagePath).toURI());
+        Path root = packageDirectory;
+        for (int i = 0; i < packagePath.split("/").length; i++) {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    private static List<Path> classFiles(String packagePath) throws Exception {
+        Path packageDirectory = Paths.get(ArchiveScannerTest.class.getClassLoader().getResource(packagePath).toURI());
+        try (Stream<Path> stream = Files.list(packageDirectory)) {
+            return stream.filter(path -> path.toString().endsWith(".class"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> expectedClassNames(String packagePath) throws Exception {
+        return classFiles(packagePath).stream()
+            .map(path -> path.getFileName().toString())
+            .map(name -> (packagePath + name.substring(0, name.length() - ".class".length())).replace('/', '.'))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static ClassInfo parseSequentially(String className) throws Exception {
+        try (InputStream stream = ArchiveScannerTest.class.getClassLoader().getResourceAsStream(className.replace('.', '/') + ".class")) {
+            ClassReader classReader = new ClassReader(stream);
+            ClassProcessor classProcessor = new ClassProcessor();
+            classReader.accept(classProcessor, ClassReader.SKIP_CODE);
+            return classProcessor.getClasses().get(0);
+        }
+    }
+}
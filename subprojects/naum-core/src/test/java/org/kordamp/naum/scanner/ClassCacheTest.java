@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.scanner;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * @author Andres Almiray
+ */
+public class ClassCacheTest {
+    private static final String KLASS_PACKAGE = "org/kordamp/naum/processor/klass/";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void secondScanIsServedFromCache() throws Exception {
+        Path directory = classesDirectory();
+        ClassCache cache = new ClassCache(temporaryFolder.newFolder("cache").toPath());
+
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            ArtifactInfo uncached = scanner.scan(directory);
+
+            scanner.setClassCache(cache);
+            ArtifactInfo first = scanner.scan(directory);
+            long misses = cache.getMisses();
+            assertThat(misses, greaterThan(0L));
+            assertThat(cache.getHits(), equalTo(0L));
+
+            ArtifactInfo second = scanner.scan(directory);
+            assertThat(cache.getMisses(), equalTo(misses));
+            assertThat(cache.getHits(), equalTo(misses));
+
+            assertThat(first, equalTo(uncached));
+            assertThat(second, equalTo(uncached));
+            assertThat(second.getContentHash(), equalTo(uncached.getContentHash()));
+        }
+    }
+
+    @Test
+    public void unreadableEntriesAreParsedAgain() throws Exception {
+        Path root = temporaryFolder.newFolder("cache").toPath();
+        ClassCache cache = new ClassCache(root);
+        byte[] bytes = classBytes().get(0);
+        List<ClassInfo> expected = cache.load(bytes);
+
+        for (Path entry : entries(cache)) {
+            Files.write(entry, new byte[]{1, 2, 3});
+        }
+
+        assertThat(cache.load(bytes), equalTo(expected));
+        assertThat(cache.getMisses(), equalTo(2L));
+        assertThat(cache.load(bytes), equalTo(expected));
+        assertThat(cache.getHits(), equalTo(1L));
+    }
+
+    @Test
+    public void corruptEntriesAreParsedAgain() throws Exception {
+        ClassCache cache = new ClassCache(temporaryFolder.newFolder("cache").toPath());
+        byte[] bytes = classBytes().get(0);
+        List<ClassInfo> expected = cache.load(bytes);
+
+        // a valid header and footer around a string index pointing past the end of the file
+        Path entry = entries(cache).get(0);
+        byte[] content = Files.readAllBytes(entry);
+        ByteBuffer footer = ByteBuffer.wrap(content, content.length - 8, 8);
+        Arrays.fill(content, footer.getInt(), footer.getInt(), (byte) 0x7f);
+        Files.write(entry, content);
+
+        assertThat(cache.load(bytes, b -> {
+            assertThat(Files.exists(entry), equalTo(false));
+            return ArchiveScanner.parse(b);
+        }), equalTo(expected));
+        assertThat(cache.getMisses(), equalTo(2L));
+        assertThat(cache.load(bytes), equalTo(expected));
+        assertThat(cache.getHits(), equalTo(1L));
+    }
+
+    @Test
+    public void trimSkipsDirectoriesLockedWithinTheProcess() throws Exception {
+        Path root = temporaryFolder.newFolder("cache").toPath();
+        ClassCache cache = new ClassCache(root, 1);
+        ClassCache other = new ClassCache(root, 1);
+
+        // writing an entry past the maximum size trims, while the other instance holds the lock
+        try (FileChannel channel = FileChannel.open(other.getDirectory().resolve(".lock"), CREATE, WRITE);
+             FileLock lock = channel.lock()) {
+            cache.load(classBytes().get(0));
+            cache.trim();
+        }
+        assertThat(entries(cache).size(), equalTo(1));
+
+        cache.trim();
+        assertThat(entries(cache).size(), equalTo(0));
+    }
+
+    @Test
+    public void trimEvictsLeastRecentlyUsedEntries() throws Exception {
+        ClassCache cache = new ClassCache(temporaryFolder.newFolder("cache").toPath(), 4096);
+        for (byte[] bytes : classBytes()) {
+            cache.load(bytes);
+        }
+        cache.trim();
+
+        long total = 0;
+        for (Path entry : entries(cache)) {
+            total += Files.size(entry);
+        }
+        assertThat(total, lessThanOrEqualTo(4096L));
+        assertThat(cache.getEvictions(), greaterThan(0L));
+    }
+
+    private static List<Path> entries(ClassCache cache) throws Exception {
+        try (Stream<Path> files = Files.walk(cache.getDirectory())) {
+            return files.filter(file -> file.toString().endsWith(".snap")).collect(Collectors.toList());
+        }
+    }
+
+    private static List<byte[]> classBytes() throws Exception {
+        Path packageDirectory = Paths.get(ClassCacheTest.class.getClassLoader().getResource(KLASS_PACKAGE).toURI());
+        try (Stream<Path> stream = Files.list(packageDirectory)) {
+            return stream.filter(path -> path.toString().endsWith(".class"))
+                .sorted()
+                .map(path -> {
+                    try {
+                        return Files.readAllBytes(path);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static Path classesDirectory() throws Exception {
+        return Paths.get(ClassCacheTest.class.getClassLoader().getResource(KLASS_PACKAGE).toURI());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.diff.ArtifactDiffer;
+import org.kordamp.naum.diff.Diff;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.scanner.ArchiveScanner;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.SortedMap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.kordamp.naum.diff.ArtifactDiffer.KEY_ARTIFACT_CLASS_REMOVED;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+
+/**
+ * @author Andres Almiray
+ */
+public class MappedSnapshotTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void findsEveryClassByName() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        MappedSnapshot snapshot = MappedSnapshot.open(write(artifact));
+
+        assertThat(snapshot.getName(), equalTo(artifact.getName()));
+        assertThat(snapshot.getContentHash(), equalTo(artifact.getContentHash()));
+        assertThat(snapshot.size(), equalTo(artifact.getClasses().size()));
+        assertThat(new ArrayList<>(snapshot.getClassNames()), equalTo(new ArrayList<>(artifact.getClasses().keySet())));
+        for (ClassInfo klass : artifact.getClasses().values()) {
+            ClassInfo mapped = snapshot.findClass(klass.getName());
+            assertThat(mapped, equalTo(klass));
+            assertThat(mapped.getContentHash(), equalTo(klass.getContentHash()));
+            assertTrue(mapped.isFrozen());
+        }
+        assertThat(snapshot.findClass("org.kordamp.naum.DoesNotExist"), nullValue());
+        assertFalse(snapshot.containsClass(""));
+    }
+
+    @Test
+    public void membersAreDecodedOnFirstAccess() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        ClassInfo klass = artifact.findClass(MappedSnapshotTest.class.getName());
+        MappedSnapshot snapshot = MappedSnapshot.open(write(artifact));
+
+        LazyClassInfo mapped = (LazyClassInfo) snapshot.findClass(klass.getName());
+        assertThat(mapped.getMethodsHash(), equalTo(klass.getMethodsHash()));
+        assertThat(mapped.getFieldsHash(), equalTo(klass.getFieldsHash()));
+        assertFalse(mapped.isDecoded());
+
+        assertThat(mapped.getMethods(), equalTo(klass.getMethods()));
+        assertTrue(mapped.isDecoded());
+        assertTrue(mapped == snapshot.findClass(klass.getName()));
+    }
+
+    @Test
+    public void comparingAgainstASnapshotOnlyDecodesChangedClasses() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        String changed = MappedSnapshotTest.class.getName();
+        ArtifactInfo next = artifactInfo().name(artifact.getName()).build();
+        for (ClassInfo klass : artifact.getClasses().values()) {
+            next.addToClasses(klass.getName().equals(changed) ? newClass().name(changed).build() : klass);
+        }
+        next.freeze();
+
+        ArtifactInfo previous;
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            previous = scanner.scan(write(artifact));
+        }
+        assertThat(previous.getContentHash(), equalTo(artifact.getContentHash()));
+
+        Collection<Diff> diffs = ArtifactDiffer.artifactDiffer(previous, next).diff();
+        assertFalse(diffs.isEmpty());
+        for (ClassInfo klass : previous.getClasses().values()) {
+            assertThat(klass.getName(), ((LazyClassInfo) klass).isDecoded(), equalTo(klass.getName().equals(changed)));
+        }
+    }
+
+    @Test
+    public void removedClassesAreFoundWithoutDecodingThem() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        String kept = MappedSnapshotTest.class.getName();
+        ArtifactInfo next = artifactInfo().name(artifact.getName()).build()
+            .addToClasses(newClass().name(kept).build())
+            .freeze();
+
+        MappedSnapshot snapshot = MappedSnapshot.open(write(artifact));
+        Collection<Diff> diffs = ArtifactDiffer.artifactDiffer(snapshot.toArtifact(), next).diff();
+
+        long removed = diffs.stream().filter(d -> d.getMessageKey().equals(KEY_ARTIFACT_CLASS_REMOVED)).count();
+        assertThat(removed, equalTo(artifact.getClasses().size() - 1L));
+        assertThat(snapshot.getDecodedClasses(), equalTo(1));
+    }
+
+    @Test
+    public void classesOfTheArtifactAreASortedView() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        SortedMap<String, ClassInfo> expected = artifact.getClasses();
+        SortedMap<String, ClassInfo> actual = MappedSnapshot.open(write(artifact)).toArtifact().getClasses();
+        String middle = new ArrayList<>(expected.keySet()).get(expected.size() / 2);
+        String absent = middle + "$Absent";
+
+        assertThat(actual.firstKey(), equalTo(expected.firstKey()));
+        assertThat(actual.lastKey(), equalTo(expected.lastKey()));
+        assertThat(actual.get(middle), equalTo(expected.get(middle)));
+        assertThat(actual.get(absent), nullValue());
+        assertThat(new ArrayList<>(actual.headMap(middle).keySet()), equalTo(new ArrayList<>(expected.headMap(middle).keySet())));
+        assertThat(new ArrayList<>(actual.tailMap(absent).keySet()), equalTo(new ArrayList<>(expected.tailMap(absent).keySet())));
+        assertThat(new ArrayList<>(actual.subMap(middle, absent).keySet()), equalTo(new ArrayList<>(expected.subMap(middle, absent).keySet())));
+        assertThat(actual, equalTo(expected));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void decodedMembersAreImmutable() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        MappedSnapshot snapshot = MappedSnapshot.open(write(artifact));
+
+        snapshot.findClass(MappedSnapshotTest.class.getName()).getMethods().clear();
+    }
+
+    private Path write(ArtifactInfo artifact) throws Exception {
+        Path file = temporaryFolder.newFile("test-classes.naum").toPath();
+        SnapshotWriter.write(artifact, file);
+        return file;
+    }
+
+    private static ArtifactInfo scanTestClasses() throws Exception {
+        Path root = Paths.get(MappedSnapshotTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            return scanner.scan(root);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kordamp.naum.snapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kordamp.naum.model.ArtifactInfo;
+import org.kordamp.naum.model.ClassInfo;
+import org.kordamp.naum.scanner.ArchiveScanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.kordamp.naum.model.ArtifactInfo.artifactInfo;
+import static org.kordamp.naum.model.ClassInfo.newClass;
+import static org.kordamp.naum.model.FieldInfo.fieldInfo;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+
+/**
+ * @author Andres Almiray
+ */
+public class SnapshotTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void snapshotRoundTripsTestClasses() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        Path file = temporaryFolder.newFile("test-classes.naum").toPath();
+
+        SnapshotWriter.write(artifact, file);
+        ArtifactInfo restored = SnapshotReader.read(file);
+
+        assertTrue(restored.isFrozen());
+        assertThat(restored, equalTo(artifact));
+        assertThat(restored.getContentHash(), equalTo(artifact.getContentHash()));
+        for (ClassInfo klass : artifact.getClasses().values()) {
+            ClassInfo other = restored.findClass(klass.getName());
+            assertThat(other.getContentHash(), equalTo(klass.getContentHash()));
+            assertThat(other.getMethodsHash(), equalTo(klass.getMethodsHash()));
+            assertThat(other.getType(), equalTo(klass.getType()));
+        }
+    }
+
+    @Test
+    public void snapshotRoundTripsThroughStreams() throws Exception {
+        ArtifactInfo artifact = scanTestClasses();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SnapshotWriter.write(artifact, out);
+        ArtifactInfo restored = SnapshotReader.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(restored, equalTo(artifact));
+    }
+
+    @Test
+    public void snapshotKeepsUnpairedSurrogates() throws Exception {
+        String value = "a\uD800b\uDC00\u00e9\u20ac\uD83D\uDE00\u0000";
+        ArtifactInfo artifact = artifactInfo().name("strings.jar").build()
+            .addToClasses(newClass().name("org.example.Strings").build()
+                .addToFields(fieldInfo().name("VALUE").modifiers(ACC_STATIC | ACC_FINAL).type("java.lang.String").value(value).build()))
+            .freeze();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        SnapshotWriter.write(artifact, out);
+        ArtifactInfo restored = SnapshotReader.read(new ByteArrayInputStream(out.toByteArray()));
+        ClassInfo mapped = MappedSnapshot.open(ByteBuffer.wrap(out.toByteArray())).findClass("org.example.Strings");
+
+        assertThat(restored.findClass("org.example.Strings").getFields().get(0).getValue(), equalTo(value));
+        assertThat(mapped.getFields().get(0).getValue(), equalTo(value));
+        assertThat(restored, equalTo(artifact));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsDataThatIsNotASnapshot() throws Exception {
+        SnapshotReader.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedSnapshot() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWriter.write(scanTestClasses(), out);
+        byte[] bytes = out.toByteArray();
+
+        SnapshotReader.read(new ByteArrayInputStream(bytes, 0, bytes.length / 2));
+    }
+
+    private static ArtifactInfo scanTestClasses() throws Exception {
+        Path root = Paths.get(SnapshotTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        try (ArchiveScanner scanner = new ArchiveScanner(2)) {
+            return scanner.scan(root);
+        }
+    }
+}